@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Plain instantiation baseline to compare with the LookupBenchmark prototype services
+ * @author afarre
+ * @since 1.4.0
+ * @see LookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BaselineBenchmark {
+
+	private final BenchmarkService shared=new BenchmarkServiceImpl();
+
+
+	@Benchmark
+	public BenchmarkService shared(){
+		return this.shared;
+	}
+	@Benchmark
+	public BenchmarkService new0Args(){
+		return new BenchmarkServiceImpl();
+	}
+	@Benchmark
+	public BenchmarkService new1Args(){
+		return new BenchmarkServiceImpl("1arg-arg1");
+	}
+	@Benchmark
+	public BenchmarkService new3Args(){
+		return new BenchmarkServiceImpl("3arg-arg1",3,"3arg-arg2");
+	}
+	@Benchmark
+	public BenchmarkService new4Args(){
+		return new BenchmarkServiceImpl("4arg-arg1",4,"4arg-arg2",true);
+	}
+}
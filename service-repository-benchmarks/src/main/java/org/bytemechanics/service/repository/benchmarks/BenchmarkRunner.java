@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks launcher, accepts the standard JMH command line options and always adds the GC profiler so the allocation rate per operation is reported
+ * @author afarre
+ * @since 1.4.0
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner(){}
+
+	public static void main(final String... _args) throws RunnerException, CommandLineOptionException {
+
+		final Options options=new OptionsBuilder()
+										.parent(new CommandLineOptions(_args))
+										.addProfiler(GCProfiler.class)
+									.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+/**
+ * Benchmark service adapter
+ * @author afarre
+ * @since 1.4.0
+ */
+public interface BenchmarkService {
+
+	public String getArg1();
+	public int getArg2();
+	public String getArg3();
+	public boolean isArg4();
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+/**
+ * Benchmark service implementation with the same constructors than the test DummieServiceImpl but without any console output,
+ * so the measures only include the repository overhead and the plain allocation
+ * @author afarre
+ * @since 1.4.0
+ */
+public class BenchmarkServiceImpl implements BenchmarkService,AutoCloseable{
+
+	private final String arg1;
+	private final int arg2;
+	private final String arg3;
+	private final boolean arg4;
+	private boolean closed;
+
+	public BenchmarkServiceImpl(){
+		this(null,0,null,false);
+	}
+	public BenchmarkServiceImpl(final String _arg1){
+		this(_arg1,0,null,false);
+	}
+	public BenchmarkServiceImpl(final String _arg1,final int _arg2){
+		this(_arg1,_arg2,null,false);
+	}
+	public BenchmarkServiceImpl(final String _arg1,final int _arg2,final String _arg3){
+		this(_arg1,_arg2,_arg3,false);
+	}
+	public BenchmarkServiceImpl(final String _arg1,final int _arg2,final String _arg3,final boolean _arg4){
+		this.arg1=_arg1;
+		this.arg2=_arg2;
+		this.arg3=_arg3;
+		this.arg4=_arg4;
+		this.closed=false;
+	}
+
+	@Override
+	public String getArg1() {
+		return arg1;
+	}
+	@Override
+	public int getArg2() {
+		return arg2;
+	}
+	@Override
+	public String getArg3() {
+		return arg3;
+	}
+	@Override
+	public boolean isArg4() {
+		return arg4;
+	}
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public void close() {
+		this.closed=true;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Benchmark repository with the same service kinds than the test DummieServiceRepository:
+ * implementation class vs supplier, 0 to 4 arguments, singleton vs prototype
+ * @author afarre
+ * @since 1.4.0
+ */
+public enum BenchmarkServiceRepository implements ServiceRepository {
+
+	SERVICE_0ARG(BenchmarkService.class,BenchmarkServiceImpl.class),
+	SERVICE_1ARG(BenchmarkService.class,BenchmarkServiceImpl.class,"1arg-arg1"),
+	SERVICE_2ARG(BenchmarkService.class,BenchmarkServiceImpl.class,"2arg-arg1",2),
+	SERVICE_3ARG(BenchmarkService.class,BenchmarkServiceImpl.class,"3arg-arg1",3,"3arg-arg2"),
+	SERVICE_4ARG(BenchmarkService.class,BenchmarkServiceImpl.class,"4arg-arg1",4,"4arg-arg2",true),
+	SERVICE_SUPPLIER_0ARG(BenchmarkService.class,() -> new BenchmarkServiceImpl()),
+	SERVICE_SUPPLIER_1ARG(BenchmarkService.class,() -> new BenchmarkServiceImpl("1arg-arg1")),
+	SERVICE_SUPPLIER_2ARG(BenchmarkService.class,() -> new BenchmarkServiceImpl("2arg-arg1",2)),
+	SERVICE_SUPPLIER_3ARG(BenchmarkService.class,() -> new BenchmarkServiceImpl("3arg-arg1",3,"3arg-arg2")),
+	SERVICE_SUPPLIER_4ARG(BenchmarkService.class,() -> new BenchmarkServiceImpl("4arg-arg1",4,"4arg-arg2",true)),
+	SINGLETON_SERVICE_0ARG(BenchmarkService.class,true,BenchmarkServiceImpl.class),
+	SINGLETON_SERVICE_1ARG(BenchmarkService.class,true,BenchmarkServiceImpl.class,"1arg-arg1"),
+	SINGLETON_SERVICE_2ARG(BenchmarkService.class,true,BenchmarkServiceImpl.class,"2arg-arg1",2),
+	SINGLETON_SERVICE_3ARG(BenchmarkService.class,true,BenchmarkServiceImpl.class,"3arg-arg1",3,"3arg-arg2"),
+	SINGLETON_SERVICE_4ARG(BenchmarkService.class,true,BenchmarkServiceImpl.class,"4arg-arg1",4,"4arg-arg2",true),
+	SINGLETON_SERVICE_SUPPLIER_0ARG(BenchmarkService.class,true,() -> new BenchmarkServiceImpl()),
+	SINGLETON_SERVICE_SUPPLIER_1ARG(BenchmarkService.class,true,() -> new BenchmarkServiceImpl("1arg-arg1")),
+	SINGLETON_SERVICE_SUPPLIER_2ARG(BenchmarkService.class,true,() -> new BenchmarkServiceImpl("2arg-arg1",2)),
+	SINGLETON_SERVICE_SUPPLIER_3ARG(BenchmarkService.class,true,() -> new BenchmarkServiceImpl("3arg-arg1",3,"3arg-arg2")),
+	SINGLETON_SERVICE_SUPPLIER_4ARG(BenchmarkService.class,true,() -> new BenchmarkServiceImpl("4arg-arg1",4,"4arg-arg2",true)),
+	;
+
+	private final ServiceSupplier serviceSupplier;
+
+
+	<T> BenchmarkServiceRepository(final Class<T> _adapter,final Class<? extends T> _implementation,final Object... _args){
+		this(_adapter,false,_implementation,_args);
+	}
+	<T> BenchmarkServiceRepository(final Class<T> _adapter,final Supplier<? extends T> _implementationSupplier){
+		this(_adapter,false,_implementationSupplier);
+	}
+	<T> BenchmarkServiceRepository(final Class<T> _adapter,final boolean _singleton,final Class<? extends T> _implementation,final Object... _args){
+		this.serviceSupplier=ServiceSupplier.builder(_adapter)
+												.name(name())
+												.singleton(_singleton)
+												.implementation(_implementation)
+												.args(_args)
+											.build();
+	}
+	<T> BenchmarkServiceRepository(final Class<T> _adapter,final boolean _singleton,final Supplier<? extends T> _implementationSupplier){
+		this.serviceSupplier=ServiceSupplier.builder(_adapter)
+												.name(name())
+												.singleton(_singleton)
+												.supplier(_implementationSupplier)
+											.build();
+	}
+
+	@Override
+	public ServiceSupplier getServiceSupplier() {
+		return this.serviceSupplier;
+	}
+}
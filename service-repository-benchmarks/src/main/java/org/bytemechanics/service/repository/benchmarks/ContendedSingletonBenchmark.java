@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Contended first access: all the benchmark threads request the same cold singleton at the same time, only one builds it and the rest wait
+ * @author afarre
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = 1)
+@Measurement(iterations = 100, batchSize = 1)
+@Threads(8)
+@Fork(2)
+public class ContendedSingletonBenchmark {
+
+	@Param({"0","1000","100000"})
+	public long constructionTokens;
+
+	private ServiceSupplier serviceSupplier;
+
+
+	@Setup(Level.Trial)
+	public void setup(){
+		final long tokens=this.constructionTokens;
+		this.serviceSupplier=ServiceSupplier.builder(BenchmarkService.class)
+													.name("CONTENDED_SINGLETON")
+													.singleton(true)
+													.supplier(() -> {
+																	Blackhole.consumeCPU(tokens);
+																	return new BenchmarkServiceImpl();
+																})
+												.build();
+	}
+	@Setup(Level.Iteration)
+	public void coldStart(){
+		this.serviceSupplier.dispose();
+	}
+
+
+	@Benchmark
+	public Object firstAccess(){
+		return this.serviceSupplier.get();
+	}
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Large benchmark repository (256 services mixing singleton class, singleton with arguments, singleton supplier and prototype)
+ * to measure the startup, shutdown and reset lifecycle
+ * @author afarre
+ * @since 1.4.0
+ */
+public enum LargeServiceRepository implements ServiceRepository {
+
+	SERVICE_000(true,BenchmarkServiceImpl.class),
+	SERVICE_001(true,BenchmarkServiceImpl.class,"arg1",1,"arg3"),
+	SERVICE_002(true,() -> new BenchmarkServiceImpl("arg1",2,"arg3")),
+	SERVICE_003(false,BenchmarkServiceImpl.class),
+	SERVICE_004(true,BenchmarkServiceImpl.class),
+	SERVICE_005(true,BenchmarkServiceImpl.class,"arg1",5,"arg3"),
+	SERVICE_006(true,() -> new BenchmarkServiceImpl("arg1",6,"arg3")),
+	SERVICE_007(false,BenchmarkServiceImpl.class),
+	SERVICE_008(true,BenchmarkServiceImpl.class),
+	SERVICE_009(true,BenchmarkServiceImpl.class,"arg1",9,"arg3"),
+	SERVICE_010(true,() -> new BenchmarkServiceImpl("arg1",10,"arg3")),
+	SERVICE_011(false,BenchmarkServiceImpl.class),
+	SERVICE_012(true,BenchmarkServiceImpl.class),
+	SERVICE_013(true,BenchmarkServiceImpl.class,"arg1",13,"arg3"),
+	SERVICE_014(true,() -> new BenchmarkServiceImpl("arg1",14,"arg3")),
+	SERVICE_015(false,BenchmarkServiceImpl.class),
+	SERVICE_016(true,BenchmarkServiceImpl.class),
+	SERVICE_017(true,BenchmarkServiceImpl.class,"arg1",17,"arg3"),
+	SERVICE_018(true,() -> new BenchmarkServiceImpl("arg1",18,"arg3")),
+	SERVICE_019(false,BenchmarkServiceImpl.class),
+	SERVICE_020(true,BenchmarkServiceImpl.class),
+	SERVICE_021(true,BenchmarkServiceImpl.class,"arg1",21,"arg3"),
+	SERVICE_022(true,() -> new BenchmarkServiceImpl("arg1",22,"arg3")),
+	SERVICE_023(false,BenchmarkServiceImpl.class),
+	SERVICE_024(true,BenchmarkServiceImpl.class),
+	SERVICE_025(true,BenchmarkServiceImpl.class,"arg1",25,"arg3"),
+	SERVICE_026(true,() -> new BenchmarkServiceImpl("arg1",26,"arg3")),
+	SERVICE_027(false,BenchmarkServiceImpl.class),
+	SERVICE_028(true,BenchmarkServiceImpl.class),
+	SERVICE_029(true,BenchmarkServiceImpl.class,"arg1",29,"arg3"),
+	SERVICE_030(true,() -> new BenchmarkServiceImpl("arg1",30,"arg3")),
+	SERVICE_031(false,BenchmarkServiceImpl.class),
+	SERVICE_032(true,BenchmarkServiceImpl.class),
+	SERVICE_033(true,BenchmarkServiceImpl.class,"arg1",33,"arg3"),
+	SERVICE_034(true,() -> new BenchmarkServiceImpl("arg1",34,"arg3")),
+	SERVICE_035(false,BenchmarkServiceImpl.class),
+	SERVICE_036(true,BenchmarkServiceImpl.class),
+	SERVICE_037(true,BenchmarkServiceImpl.class,"arg1",37,"arg3"),
+	SERVICE_038(true,() -> new BenchmarkServiceImpl("arg1",38,"arg3")),
+	SERVICE_039(false,BenchmarkServiceImpl.class),
+	SERVICE_040(true,BenchmarkServiceImpl.class),
+	SERVICE_041(true,BenchmarkServiceImpl.class,"arg1",41,"arg3"),
+	SERVICE_042(true,() -> new BenchmarkServiceImpl("arg1",42,"arg3")),
+	SERVICE_043(false,BenchmarkServiceImpl.class),
+	SERVICE_044(true,BenchmarkServiceImpl.class),
+	SERVICE_045(true,BenchmarkServiceImpl.class,"arg1",45,"arg3"),
+	SERVICE_046(true,() -> new BenchmarkServiceImpl("arg1",46,"arg3")),
+	SERVICE_047(false,BenchmarkServiceImpl.class),
+	SERVICE_048(true,BenchmarkServiceImpl.class),
+	SERVICE_049(true,BenchmarkServiceImpl.class,"arg1",49,"arg3"),
+	SERVICE_050(true,() -> new BenchmarkServiceImpl("arg1",50,"arg3")),
+	SERVICE_051(false,BenchmarkServiceImpl.class),
+	SERVICE_052(true,BenchmarkServiceImpl.class),
+	SERVICE_053(true,BenchmarkServiceImpl.class,"arg1",53,"arg3"),
+	SERVICE_054(true,() -> new BenchmarkServiceImpl("arg1",54,"arg3")),
+	SERVICE_055(false,BenchmarkServiceImpl.class),
+	SERVICE_056(true,BenchmarkServiceImpl.class),
+	SERVICE_057(true,BenchmarkServiceImpl.class,"arg1",57,"arg3"),
+	SERVICE_058(true,() -> new BenchmarkServiceImpl("arg1",58,"arg3")),
+	SERVICE_059(false,BenchmarkServiceImpl.class),
+	SERVICE_060(true,BenchmarkServiceImpl.class),
+	SERVICE_061(true,BenchmarkServiceImpl.class,"arg1",61,"arg3"),
+	SERVICE_062(true,() -> new BenchmarkServiceImpl("arg1",62,"arg3")),
+	SERVICE_063(false,BenchmarkServiceImpl.class),
+	SERVICE_064(true,BenchmarkServiceImpl.class),
+	SERVICE_065(true,BenchmarkServiceImpl.class,"arg1",65,"arg3"),
+	SERVICE_066(true,() -> new BenchmarkServiceImpl("arg1",66,"arg3")),
+	SERVICE_067(false,BenchmarkServiceImpl.class),
+	SERVICE_068(true,BenchmarkServiceImpl.class),
+	SERVICE_069(true,BenchmarkServiceImpl.class,"arg1",69,"arg3"),
+	SERVICE_070(true,() -> new BenchmarkServiceImpl("arg1",70,"arg3")),
+	SERVICE_071(false,BenchmarkServiceImpl.class),
+	SERVICE_072(true,BenchmarkServiceImpl.class),
+	SERVICE_073(true,BenchmarkServiceImpl.class,"arg1",73,"arg3"),
+	SERVICE_074(true,() -> new BenchmarkServiceImpl("arg1",74,"arg3")),
+	SERVICE_075(false,BenchmarkServiceImpl.class),
+	SERVICE_076(true,BenchmarkServiceImpl.class),
+	SERVICE_077(true,BenchmarkServiceImpl.class,"arg1",77,"arg3"),
+	SERVICE_078(true,() -> new BenchmarkServiceImpl("arg1",78,"arg3")),
+	SERVICE_079(false,BenchmarkServiceImpl.class),
+	SERVICE_080(true,BenchmarkServiceImpl.class),
+	SERVICE_081(true,BenchmarkServiceImpl.class,"arg1",81,"arg3"),
+	SERVICE_082(true,() -> new BenchmarkServiceImpl("arg1",82,"arg3")),
+	SERVICE_083(false,BenchmarkServiceImpl.class),
+	SERVICE_084(true,BenchmarkServiceImpl.class),
+	SERVICE_085(true,BenchmarkServiceImpl.class,"arg1",85,"arg3"),
+	SERVICE_086(true,() -> new BenchmarkServiceImpl("arg1",86,"arg3")),
+	SERVICE_087(false,BenchmarkServiceImpl.class),
+	SERVICE_088(true,BenchmarkServiceImpl.class),
+	SERVICE_089(true,BenchmarkServiceImpl.class,"arg1",89,"arg3"),
+	SERVICE_090(true,() -> new BenchmarkServiceImpl("arg1",90,"arg3")),
+	SERVICE_091(false,BenchmarkServiceImpl.class),
+	SERVICE_092(true,BenchmarkServiceImpl.class),
+	SERVICE_093(true,BenchmarkServiceImpl.class,"arg1",93,"arg3"),
+	SERVICE_094(true,() -> new BenchmarkServiceImpl("arg1",94,"arg3")),
+	SERVICE_095(false,BenchmarkServiceImpl.class),
+	SERVICE_096(true,BenchmarkServiceImpl.class),
+	SERVICE_097(true,BenchmarkServiceImpl.class,"arg1",97,"arg3"),
+	SERVICE_098(true,() -> new BenchmarkServiceImpl("arg1",98,"arg3")),
+	SERVICE_099(false,BenchmarkServiceImpl.class),
+	SERVICE_100(true,BenchmarkServiceImpl.class),
+	SERVICE_101(true,BenchmarkServiceImpl.class,"arg1",101,"arg3"),
+	SERVICE_102(true,() -> new BenchmarkServiceImpl("arg1",102,"arg3")),
+	SERVICE_103(false,BenchmarkServiceImpl.class),
+	SERVICE_104(true,BenchmarkServiceImpl.class),
+	SERVICE_105(true,BenchmarkServiceImpl.class,"arg1",105,"arg3"),
+	SERVICE_106(true,() -> new BenchmarkServiceImpl("arg1",106,"arg3")),
+	SERVICE_107(false,BenchmarkServiceImpl.class),
+	SERVICE_108(true,BenchmarkServiceImpl.class),
+	SERVICE_109(true,BenchmarkServiceImpl.class,"arg1",109,"arg3"),
+	SERVICE_110(true,() -> new BenchmarkServiceImpl("arg1",110,"arg3")),
+	SERVICE_111(false,BenchmarkServiceImpl.class),
+	SERVICE_112(true,BenchmarkServiceImpl.class),
+	SERVICE_113(true,BenchmarkServiceImpl.class,"arg1",113,"arg3"),
+	SERVICE_114(true,() -> new BenchmarkServiceImpl("arg1",114,"arg3")),
+	SERVICE_115(false,BenchmarkServiceImpl.class),
+	SERVICE_116(true,BenchmarkServiceImpl.class),
+	SERVICE_117(true,BenchmarkServiceImpl.class,"arg1",117,"arg3"),
+	SERVICE_118(true,() -> new BenchmarkServiceImpl("arg1",118,"arg3")),
+	SERVICE_119(false,BenchmarkServiceImpl.class),
+	SERVICE_120(true,BenchmarkServiceImpl.class),
+	SERVICE_121(true,BenchmarkServiceImpl.class,"arg1",121,"arg3"),
+	SERVICE_122(true,() -> new BenchmarkServiceImpl("arg1",122,"arg3")),
+	SERVICE_123(false,BenchmarkServiceImpl.class),
+	SERVICE_124(true,BenchmarkServiceImpl.class),
+	SERVICE_125(true,BenchmarkServiceImpl.class,"arg1",125,"arg3"),
+	SERVICE_126(true,() -> new BenchmarkServiceImpl("arg1",126,"arg3")),
+	SERVICE_127(false,BenchmarkServiceImpl.class),
+	SERVICE_128(true,BenchmarkServiceImpl.class),
+	SERVICE_129(true,BenchmarkServiceImpl.class,"arg1",129,"arg3"),
+	SERVICE_130(true,() -> new BenchmarkServiceImpl("arg1",130,"arg3")),
+	SERVICE_131(false,BenchmarkServiceImpl.class),
+	SERVICE_132(true,BenchmarkServiceImpl.class),
+	SERVICE_133(true,BenchmarkServiceImpl.class,"arg1",133,"arg3"),
+	SERVICE_134(true,() -> new BenchmarkServiceImpl("arg1",134,"arg3")),
+	SERVICE_135(false,BenchmarkServiceImpl.class),
+	SERVICE_136(true,BenchmarkServiceImpl.class),
+	SERVICE_137(true,BenchmarkServiceImpl.class,"arg1",137,"arg3"),
+	SERVICE_138(true,() -> new BenchmarkServiceImpl("arg1",138,"arg3")),
+	SERVICE_139(false,BenchmarkServiceImpl.class),
+	SERVICE_140(true,BenchmarkServiceImpl.class),
+	SERVICE_141(true,BenchmarkServiceImpl.class,"arg1",141,"arg3"),
+	SERVICE_142(true,() -> new BenchmarkServiceImpl("arg1",142,"arg3")),
+	SERVICE_143(false,BenchmarkServiceImpl.class),
+	SERVICE_144(true,BenchmarkServiceImpl.class),
+	SERVICE_145(true,BenchmarkServiceImpl.class,"arg1",145,"arg3"),
+	SERVICE_146(true,() -> new BenchmarkServiceImpl("arg1",146,"arg3")),
+	SERVICE_147(false,BenchmarkServiceImpl.class),
+	SERVICE_148(true,BenchmarkServiceImpl.class),
+	SERVICE_149(true,BenchmarkServiceImpl.class,"arg1",149,"arg3"),
+	SERVICE_150(true,() -> new BenchmarkServiceImpl("arg1",150,"arg3")),
+	SERVICE_151(false,BenchmarkServiceImpl.class),
+	SERVICE_152(true,BenchmarkServiceImpl.class),
+	SERVICE_153(true,BenchmarkServiceImpl.class,"arg1",153,"arg3"),
+	SERVICE_154(true,() -> new BenchmarkServiceImpl("arg1",154,"arg3")),
+	SERVICE_155(false,BenchmarkServiceImpl.class),
+	SERVICE_156(true,BenchmarkServiceImpl.class),
+	SERVICE_157(true,BenchmarkServiceImpl.class,"arg1",157,"arg3"),
+	SERVICE_158(true,() -> new BenchmarkServiceImpl("arg1",158,"arg3")),
+	SERVICE_159(false,BenchmarkServiceImpl.class),
+	SERVICE_160(true,BenchmarkServiceImpl.class),
+	SERVICE_161(true,BenchmarkServiceImpl.class,"arg1",161,"arg3"),
+	SERVICE_162(true,() -> new BenchmarkServiceImpl("arg1",162,"arg3")),
+	SERVICE_163(false,BenchmarkServiceImpl.class),
+	SERVICE_164(true,BenchmarkServiceImpl.class),
+	SERVICE_165(true,BenchmarkServiceImpl.class,"arg1",165,"arg3"),
+	SERVICE_166(true,() -> new BenchmarkServiceImpl("arg1",166,"arg3")),
+	SERVICE_167(false,BenchmarkServiceImpl.class),
+	SERVICE_168(true,BenchmarkServiceImpl.class),
+	SERVICE_169(true,BenchmarkServiceImpl.class,"arg1",169,"arg3"),
+	SERVICE_170(true,() -> new BenchmarkServiceImpl("arg1",170,"arg3")),
+	SERVICE_171(false,BenchmarkServiceImpl.class),
+	SERVICE_172(true,BenchmarkServiceImpl.class),
+	SERVICE_173(true,BenchmarkServiceImpl.class,"arg1",173,"arg3"),
+	SERVICE_174(true,() -> new BenchmarkServiceImpl("arg1",174,"arg3")),
+	SERVICE_175(false,BenchmarkServiceImpl.class),
+	SERVICE_176(true,BenchmarkServiceImpl.class),
+	SERVICE_177(true,BenchmarkServiceImpl.class,"arg1",177,"arg3"),
+	SERVICE_178(true,() -> new BenchmarkServiceImpl("arg1",178,"arg3")),
+	SERVICE_179(false,BenchmarkServiceImpl.class),
+	SERVICE_180(true,BenchmarkServiceImpl.class),
+	SERVICE_181(true,BenchmarkServiceImpl.class,"arg1",181,"arg3"),
+	SERVICE_182(true,() -> new BenchmarkServiceImpl("arg1",182,"arg3")),
+	SERVICE_183(false,BenchmarkServiceImpl.class),
+	SERVICE_184(true,BenchmarkServiceImpl.class),
+	SERVICE_185(true,BenchmarkServiceImpl.class,"arg1",185,"arg3"),
+	SERVICE_186(true,() -> new BenchmarkServiceImpl("arg1",186,"arg3")),
+	SERVICE_187(false,BenchmarkServiceImpl.class),
+	SERVICE_188(true,BenchmarkServiceImpl.class),
+	SERVICE_189(true,BenchmarkServiceImpl.class,"arg1",189,"arg3"),
+	SERVICE_190(true,() -> new BenchmarkServiceImpl("arg1",190,"arg3")),
+	SERVICE_191(false,BenchmarkServiceImpl.class),
+	SERVICE_192(true,BenchmarkServiceImpl.class),
+	SERVICE_193(true,BenchmarkServiceImpl.class,"arg1",193,"arg3"),
+	SERVICE_194(true,() -> new BenchmarkServiceImpl("arg1",194,"arg3")),
+	SERVICE_195(false,BenchmarkServiceImpl.class),
+	SERVICE_196(true,BenchmarkServiceImpl.class),
+	SERVICE_197(true,BenchmarkServiceImpl.class,"arg1",197,"arg3"),
+	SERVICE_198(true,() -> new BenchmarkServiceImpl("arg1",198,"arg3")),
+	SERVICE_199(false,BenchmarkServiceImpl.class),
+	SERVICE_200(true,BenchmarkServiceImpl.class),
+	SERVICE_201(true,BenchmarkServiceImpl.class,"arg1",201,"arg3"),
+	SERVICE_202(true,() -> new BenchmarkServiceImpl("arg1",202,"arg3")),
+	SERVICE_203(false,BenchmarkServiceImpl.class),
+	SERVICE_204(true,BenchmarkServiceImpl.class),
+	SERVICE_205(true,BenchmarkServiceImpl.class,"arg1",205,"arg3"),
+	SERVICE_206(true,() -> new BenchmarkServiceImpl("arg1",206,"arg3")),
+	SERVICE_207(false,BenchmarkServiceImpl.class),
+	SERVICE_208(true,BenchmarkServiceImpl.class),
+	SERVICE_209(true,BenchmarkServiceImpl.class,"arg1",209,"arg3"),
+	SERVICE_210(true,() -> new BenchmarkServiceImpl("arg1",210,"arg3")),
+	SERVICE_211(false,BenchmarkServiceImpl.class),
+	SERVICE_212(true,BenchmarkServiceImpl.class),
+	SERVICE_213(true,BenchmarkServiceImpl.class,"arg1",213,"arg3"),
+	SERVICE_214(true,() -> new BenchmarkServiceImpl("arg1",214,"arg3")),
+	SERVICE_215(false,BenchmarkServiceImpl.class),
+	SERVICE_216(true,BenchmarkServiceImpl.class),
+	SERVICE_217(true,BenchmarkServiceImpl.class,"arg1",217,"arg3"),
+	SERVICE_218(true,() -> new BenchmarkServiceImpl("arg1",218,"arg3")),
+	SERVICE_219(false,BenchmarkServiceImpl.class),
+	SERVICE_220(true,BenchmarkServiceImpl.class),
+	SERVICE_221(true,BenchmarkServiceImpl.class,"arg1",221,"arg3"),
+	SERVICE_222(true,() -> new BenchmarkServiceImpl("arg1",222,"arg3")),
+	SERVICE_223(false,BenchmarkServiceImpl.class),
+	SERVICE_224(true,BenchmarkServiceImpl.class),
+	SERVICE_225(true,BenchmarkServiceImpl.class,"arg1",225,"arg3"),
+	SERVICE_226(true,() -> new BenchmarkServiceImpl("arg1",226,"arg3")),
+	SERVICE_227(false,BenchmarkServiceImpl.class),
+	SERVICE_228(true,BenchmarkServiceImpl.class),
+	SERVICE_229(true,BenchmarkServiceImpl.class,"arg1",229,"arg3"),
+	SERVICE_230(true,() -> new BenchmarkServiceImpl("arg1",230,"arg3")),
+	SERVICE_231(false,BenchmarkServiceImpl.class),
+	SERVICE_232(true,BenchmarkServiceImpl.class),
+	SERVICE_233(true,BenchmarkServiceImpl.class,"arg1",233,"arg3"),
+	SERVICE_234(true,() -> new BenchmarkServiceImpl("arg1",234,"arg3")),
+	SERVICE_235(false,BenchmarkServiceImpl.class),
+	SERVICE_236(true,BenchmarkServiceImpl.class),
+	SERVICE_237(true,BenchmarkServiceImpl.class,"arg1",237,"arg3"),
+	SERVICE_238(true,() -> new BenchmarkServiceImpl("arg1",238,"arg3")),
+	SERVICE_239(false,BenchmarkServiceImpl.class),
+	SERVICE_240(true,BenchmarkServiceImpl.class),
+	SERVICE_241(true,BenchmarkServiceImpl.class,"arg1",241,"arg3"),
+	SERVICE_242(true,() -> new BenchmarkServiceImpl("arg1",242,"arg3")),
+	SERVICE_243(false,BenchmarkServiceImpl.class),
+	SERVICE_244(true,BenchmarkServiceImpl.class),
+	SERVICE_245(true,BenchmarkServiceImpl.class,"arg1",245,"arg3"),
+	SERVICE_246(true,() -> new BenchmarkServiceImpl("arg1",246,"arg3")),
+	SERVICE_247(false,BenchmarkServiceImpl.class),
+	SERVICE_248(true,BenchmarkServiceImpl.class),
+	SERVICE_249(true,BenchmarkServiceImpl.class,"arg1",249,"arg3"),
+	SERVICE_250(true,() -> new BenchmarkServiceImpl("arg1",250,"arg3")),
+	SERVICE_251(false,BenchmarkServiceImpl.class),
+	SERVICE_252(true,BenchmarkServiceImpl.class),
+	SERVICE_253(true,BenchmarkServiceImpl.class,"arg1",253,"arg3"),
+	SERVICE_254(true,() -> new BenchmarkServiceImpl("arg1",254,"arg3")),
+	SERVICE_255(false,BenchmarkServiceImpl.class),
+	;
+
+	private final ServiceSupplier serviceSupplier;
+
+
+	LargeServiceRepository(final boolean _singleton,final Class<? extends BenchmarkService> _implementation,final Object... _args){
+		this.serviceSupplier=ServiceSupplier.builder(BenchmarkService.class)
+												.name(name())
+												.singleton(_singleton)
+												.implementation(_implementation)
+												.args(_args)
+											.build();
+	}
+	LargeServiceRepository(final boolean _singleton,final Supplier<? extends BenchmarkService> _implementationSupplier){
+		this.serviceSupplier=ServiceSupplier.builder(BenchmarkService.class)
+												.name(name())
+												.singleton(_singleton)
+												.supplier(_implementationSupplier)
+											.build();
+	}
+
+	@Override
+	public ServiceSupplier getServiceSupplier() {
+		return this.serviceSupplier;
+	}
+
+
+	public static final Stream<ServiceRepository> stream(){
+		return Stream.of(LargeServiceRepository.values());
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dispatch overhead of a lazy proxy singleton once its instance is published, compared with a direct call to the same instance and to an eager singleton
+ * @author afarre
+ * @since 1.4.0
+ * @see LazyStartupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LazyProxyBenchmark {
+
+	private ServiceSupplier eager;
+	private ServiceSupplier lazy;
+	private BenchmarkService instance;
+	private BenchmarkService proxy;
+
+
+	@Setup(Level.Trial)
+	public void setup(){
+		this.eager=ServiceSupplier.builder(BenchmarkService.class)
+											.name("EAGER_SINGLETON")
+											.singleton(true)
+											.supplier(() -> new BenchmarkServiceImpl("arg1"))
+										.build();
+		this.lazy=ServiceSupplier.builder(BenchmarkService.class)
+											.name("LAZY_SINGLETON")
+											.singleton(true)
+											.lazyProxy(true)
+											.supplier(() -> new BenchmarkServiceImpl("arg1"))
+										.build();
+		this.eager.init();
+		this.proxy=(BenchmarkService)this.lazy.get();
+		this.instance=(BenchmarkService)this.lazy.getAsync().join();
+	}
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		this.eager.dispose();
+		this.lazy.dispose();
+	}
+
+
+	@Benchmark
+	public String directCall(){
+		return this.instance.getArg1();
+	}
+	@Benchmark
+	public String proxyCall(){
+		return this.proxy.getArg1();
+	}
+	@Benchmark
+	public String eagerLookupCall(){
+		return ((BenchmarkService)this.eager.get()).getArg1();
+	}
+	@Benchmark
+	public String lazyLookupCall(){
+		return ((BenchmarkService)this.lazy.get()).getArg1();
+	}
+}
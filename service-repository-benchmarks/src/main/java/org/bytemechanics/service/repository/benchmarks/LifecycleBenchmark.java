@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.beans.ServiceShutdownReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup, shutdown and reset of a large repository (LargeServiceRepository)
+ * @author afarre
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LifecycleBenchmark {
+
+	private ExecutorService executor;
+
+
+	@Setup(Level.Trial)
+	public void setup(){
+		this.executor=Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+	}
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		this.executor.shutdownNow();
+		ServiceRepository.shutdown(LargeServiceRepository.stream());
+	}
+
+
+	@Benchmark
+	public void startupShutdown(){
+		ServiceRepository.startup(LargeServiceRepository.stream());
+		ServiceRepository.shutdown(LargeServiceRepository.stream());
+	}
+	@Benchmark
+	public ServiceShutdownReport parallelStartupShutdown(){
+		ServiceRepository.startup(LargeServiceRepository.stream(),this.executor);
+		return ServiceRepository.shutdown(LargeServiceRepository.stream(),this.executor,1,10,TimeUnit.SECONDS);
+	}
+	@Benchmark
+	public void startupReset(){
+		ServiceRepository.startup(LargeServiceRepository.stream());
+		ServiceRepository.reset(LargeServiceRepository.stream());
+	}
+}
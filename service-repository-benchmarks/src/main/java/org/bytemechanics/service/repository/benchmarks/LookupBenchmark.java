@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup hot path (get and tryGet) for each service kind of BenchmarkServiceRepository
+ * @author afarre
+ * @since 1.4.0
+ * @see BaselineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LookupBenchmark {
+
+	@Param({"SERVICE_0ARG","SERVICE_1ARG","SERVICE_2ARG","SERVICE_3ARG","SERVICE_4ARG"
+			,"SERVICE_SUPPLIER_0ARG","SERVICE_SUPPLIER_1ARG","SERVICE_SUPPLIER_2ARG","SERVICE_SUPPLIER_3ARG","SERVICE_SUPPLIER_4ARG"
+			,"SINGLETON_SERVICE_0ARG","SINGLETON_SERVICE_1ARG","SINGLETON_SERVICE_2ARG","SINGLETON_SERVICE_3ARG","SINGLETON_SERVICE_4ARG"
+			,"SINGLETON_SERVICE_SUPPLIER_0ARG","SINGLETON_SERVICE_SUPPLIER_1ARG","SINGLETON_SERVICE_SUPPLIER_2ARG","SINGLETON_SERVICE_SUPPLIER_3ARG","SINGLETON_SERVICE_SUPPLIER_4ARG"})
+	public String service;
+
+	private BenchmarkServiceRepository repository;
+
+
+	@Setup(Level.Trial)
+	public void setup(){
+		this.repository=BenchmarkServiceRepository.valueOf(this.service);
+		this.repository.init();
+	}
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		this.repository.dispose();
+	}
+
+
+	@Benchmark
+	public Object get(){
+		return this.repository.get();
+	}
+	@Benchmark
+	public BenchmarkService getClassCast(){
+		return this.repository.get(BenchmarkService.class);
+	}
+	@Benchmark
+	public Optional<Object> tryGet(){
+		return this.repository.tryGet();
+	}
+	@Benchmark
+	public Optional<BenchmarkService> tryGetClassCast(){
+		return this.repository.tryGet(BenchmarkService.class);
+	}
+	@Benchmark
+	public Object getWithArguments(){
+		return this.repository.get("arg1",1,"arg3");
+	}
+}
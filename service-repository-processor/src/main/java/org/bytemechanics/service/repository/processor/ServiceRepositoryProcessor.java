@@ -0,0 +1,388 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.processor;
+
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates, for each <code>enum ... implements ServiceRepository</code>, a ServiceFactoryIndex with direct
+ * <code>new Implementation(args)</code> factories for every implementation class literal referenced by its constants.
+ * The generated indexes are registered in META-INF/services, keeping the ones registered by previous incremental compilations, so InstantiationEngine.GENERATED can use them instead of reflection.
+ * For ahead-of-time compilation, also emits the GraalVM native-image reachability metadata of each repository
+ * (META-INF/native-image/service-repository/&lt;repository&gt;/reflect-config.json) with the repository enum and the public constructors
+ * of its implementations (used by the reflective engines when no generated factory matches) and a native-image.properties
+ * that initializes the generated indexes and its registry at image build time, so no ServiceLoader lookup is done at runtime.
+ * @author afarre
+ * @since 1.4.0
+ * @see org.bytemechanics.service.repository.ServiceFactoryIndex
+ */
+@SupportedAnnotationTypes("*")
+public class ServiceRepositoryProcessor extends AbstractProcessor{
+
+	/**
+	 * Service repository interface
+	 */
+	protected static final String SERVICE_REPOSITORY="org.bytemechanics.service.repository.ServiceRepository";
+	/**
+	 * Service factory index interface
+	 */
+	protected static final String SERVICE_FACTORY_INDEX="org.bytemechanics.service.repository.ServiceFactoryIndex";
+	/**
+	 * Suffix of the generated index class
+	 */
+	protected static final String SUFFIX="Factories";
+	/**
+	 * Base folder of the generated native-image metadata
+	 */
+	protected static final String NATIVE_IMAGE="META-INF/native-image/service-repository/";
+	/**
+	 * Classes to initialize at native-image build time besides the generated indexes (the factories registry)
+	 */
+	protected static final String[] BUILD_TIME_INITIALIZED={"org.bytemechanics.service.repository.beans.GeneratedFactory","org.bytemechanics.service.repository.beans.InstantiationEngine$GeneratedFactoryIndex"};
+
+	private Trees trees;
+	private final Set<String> generated=new LinkedHashSet<>();
+
+
+	@Override
+	public synchronized void init(final ProcessingEnvironment _processingEnv) {
+		super.init(_processingEnv);
+		try{
+			this.trees=Trees.instance(_processingEnv);
+		}catch(IllegalArgumentException e){
+			this.trees=null;
+			_processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "service-repository-processor: compiler does not support Trees API, no factories will be generated");
+		}
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> _annotations,final RoundEnvironment _roundEnv) {
+
+		if(this.trees!=null){
+			final TypeElement serviceRepository=processingEnv.getElementUtils().getTypeElement(SERVICE_REPOSITORY);
+			if(serviceRepository!=null){
+				if(_roundEnv.processingOver()){
+					writeServiceFile();
+				}else{
+					allTypes(ElementFilter.typesIn(_roundEnv.getRootElements()))
+						.stream()
+							.filter(type -> type.getKind()==ElementKind.ENUM)
+							.filter(type -> processingEnv.getTypeUtils().isAssignable(type.asType(), serviceRepository.asType()))
+							.forEach(this::generateIndex);
+				}
+			}
+		}
+
+		return false;
+	}
+
+
+	private List<TypeElement> allTypes(final Collection<TypeElement> _types){
+
+		final List<TypeElement> reply=new ArrayList<>();
+
+		for(TypeElement type:_types){
+			reply.add(type);
+			reply.addAll(allTypes(ElementFilter.typesIn(type.getEnclosedElements())));
+		}
+
+		return reply;
+	}
+
+	private Set<TypeElement> findImplementations(final TypeElement _repository){
+
+		final Set<TypeElement> reply=new LinkedHashSet<>();
+
+		_repository.getEnclosedElements()
+				.stream()
+					.filter(element -> element.getKind()==ElementKind.ENUM_CONSTANT)
+					.map(trees::getPath)
+					.filter(path -> path!=null)
+					.forEach(path -> new TreePathScanner<Void,Void>(){
+										@Override
+										public Void visitMemberSelect(final MemberSelectTree _node,final Void _param) {
+											if(_node.getIdentifier().contentEquals("class")){
+												final Element element=resolve(new TreePath(getCurrentPath(),_node.getExpression()),_repository);
+												if((element!=null)&&(element.getKind()==ElementKind.CLASS)){
+													reply.add((TypeElement)element);
+												}
+											}
+											return super.visitMemberSelect(_node, _param);
+										}
+									}.scan(path, null));
+
+		return reply.stream()
+					.filter(implementation -> isInstantiable(implementation,_repository))
+					.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	private Element resolve(final TreePath _path,final TypeElement _repository){
+
+		Element reply=this.trees.getElement(_path);
+
+		if(reply==null){
+			// Not yet attributed (annotation processing runs before attribution on some compilers), resolve the name as javac would do
+			final Elements elements=processingEnv.getElementUtils();
+			final String name=_path.getLeaf().toString();
+			final int dot=name.indexOf('.');
+			final String first=(dot<0)? name : name.substring(0,dot);
+			final String rest=(dot<0)? "" : name.substring(dot);
+			final List<String> candidates=new ArrayList<>();
+
+			for(Element enclosing=_repository;enclosing instanceof TypeElement;enclosing=enclosing.getEnclosingElement()){
+				candidates.add(((TypeElement)enclosing).getQualifiedName()+"."+name);
+			}
+			_path.getCompilationUnit().getImports()
+					.stream()
+						.filter(imported -> !imported.isStatic())
+						.map(imported -> imported.getQualifiedIdentifier().toString())
+						.filter(imported -> imported.endsWith("."+first))
+						.forEach(imported -> candidates.add(imported+rest));
+			candidates.add(elements.getPackageOf(_repository).isUnnamed()? name : elements.getPackageOf(_repository).getQualifiedName()+"."+name);
+			_path.getCompilationUnit().getImports()
+					.stream()
+						.filter(imported -> !imported.isStatic())
+						.map(imported -> imported.getQualifiedIdentifier().toString())
+						.filter(imported -> imported.endsWith(".*"))
+						.forEach(imported -> candidates.add(imported.substring(0,imported.length()-1)+name));
+			candidates.add("java.lang."+name);
+			candidates.add(name);
+
+			reply=candidates.stream()
+							.map(elements::getTypeElement)
+							.filter(element -> element!=null)
+							.findFirst()
+							.orElse(null);
+		}
+
+		return reply;
+	}
+
+	private boolean isAccessible(final Element _element,final TypeElement _from){
+		return (!_element.getModifiers().contains(Modifier.PRIVATE))
+				&&((_element.getModifiers().contains(Modifier.PUBLIC))
+						||(processingEnv.getElementUtils().getPackageOf(_element).equals(processingEnv.getElementUtils().getPackageOf(_from))));
+	}
+	private boolean isInstantiable(final TypeElement _implementation,final TypeElement _repository){
+
+		boolean reply=(!_implementation.getModifiers().contains(Modifier.ABSTRACT));
+
+		for(Element current=_implementation;reply&&(current instanceof TypeElement);current=current.getEnclosingElement()){
+			final TypeElement type=(TypeElement)current;
+			reply=isAccessible(type,_repository)
+					&&((type.getNestingKind()==NestingKind.TOP_LEVEL)||(type.getModifiers().contains(Modifier.STATIC)));
+		}
+
+		return reply;
+	}
+
+	private List<ExecutableElement> findConstructors(final TypeElement _implementation,final TypeElement _repository){
+		return ElementFilter.constructorsIn(_implementation.getEnclosedElements())
+					.stream()
+						.filter(constructor -> isAccessible(constructor,_repository))
+						.filter(constructor -> (_implementation.getModifiers().contains(Modifier.PUBLIC)&&constructor.getModifiers().contains(Modifier.PUBLIC))
+												||(processingEnv.getElementUtils().getPackageOf(_implementation).equals(processingEnv.getElementUtils().getPackageOf(_repository))))
+						.collect(Collectors.toList());
+	}
+
+	private String erasure(final TypeMirror _type){
+		return processingEnv.getTypeUtils().erasure(_type).toString();
+	}
+
+	private String factory(final TypeElement _implementation,final ExecutableElement _constructor){
+
+		final String implementation=_implementation.getQualifiedName().toString();
+		final List<? extends VariableElement> parameters=_constructor.getParameters();
+		final StringBuilder types=new StringBuilder();
+		final StringBuilder arguments=new StringBuilder();
+
+		for(int ic1=0;ic1<parameters.size();ic1++){
+			final String type=erasure(parameters.get(ic1).asType());
+			if(ic1>0){
+				types.append(',');
+				arguments.append(',');
+			}
+			types.append(type).append(".class");
+			arguments.append('(').append(type).append(")args[").append(ic1).append(']');
+		}
+
+		return "new GeneratedFactory<>("+implementation+".class,new Class[]{"+types+"},args -> new "+implementation+"("+arguments+"))";
+	}
+
+	private void generateIndex(final TypeElement _repository){
+
+		final PackageElement pack=processingEnv.getElementUtils().getPackageOf(_repository);
+		final String packageName=pack.isUnnamed()? "" : pack.getQualifiedName().toString();
+		final String binaryName=processingEnv.getElementUtils().getBinaryName(_repository).toString();
+		final String simpleName=((packageName.isEmpty())? binaryName : binaryName.substring(packageName.length()+1)).replace('$','_')+SUFFIX;
+		final String qualifiedName=(packageName.isEmpty())? simpleName : packageName+'.'+simpleName;
+		final List<String> factories=new ArrayList<>();
+		final Set<TypeElement> implementations=findImplementations(_repository);
+
+		for(TypeElement implementation:implementations){
+			for(ExecutableElement constructor:findConstructors(implementation,_repository)){
+				factories.add(factory(implementation, constructor));
+			}
+		}
+
+		try(Writer writer=processingEnv.getFiler().createSourceFile(qualifiedName,_repository).openWriter();
+				PrintWriter out=new PrintWriter(writer)){
+			if(!packageName.isEmpty()){
+				out.println("package "+packageName+";");
+				out.println();
+			}
+			out.println("import java.util.Arrays;");
+			out.println("import java.util.Collections;");
+			out.println("import java.util.List;");
+			out.println("import org.bytemechanics.service.repository.ServiceFactoryIndex;");
+			out.println("import org.bytemechanics.service.repository.ServiceRepository;");
+			out.println("import org.bytemechanics.service.repository.beans.GeneratedFactory;");
+			out.println();
+			out.println("/**");
+			out.println(" * Reflection-free factory index for "+_repository.getQualifiedName());
+			out.println(" * Generated by "+ServiceRepositoryProcessor.class.getName()+", do not modify");
+			out.println(" */");
+			out.println("@SuppressWarnings({\"unchecked\",\"rawtypes\"})");
+			out.println("public final class "+simpleName+" implements ServiceFactoryIndex{");
+			out.println();
+			out.println("\tprivate static final List<GeneratedFactory<?>> FACTORIES=Collections.unmodifiableList(Arrays.<GeneratedFactory<?>>asList(");
+			out.println(factories.stream()
+								.map(factory -> "\t\t\t"+factory)
+								.collect(Collectors.joining(",\n")));
+			out.println("\t\t));");
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic Class<? extends ServiceRepository> getRepository(){");
+			out.println("\t\treturn "+_repository.getQualifiedName()+".class;");
+			out.println("\t}");
+			out.println("\t@Override");
+			out.println("\tpublic List<GeneratedFactory<?>> getFactories(){");
+			out.println("\t\treturn FACTORIES;");
+			out.println("\t}");
+			out.println("}");
+			this.generated.add(qualifiedName);
+		}catch(IOException e){
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "service-repository-processor: unable to generate "+qualifiedName+": "+e.getMessage(),_repository);
+		}
+		writeNativeImageMetadata(_repository, qualifiedName, implementations);
+	}
+
+	private void writeNativeImageMetadata(final TypeElement _repository,final String _index,final Set<TypeElement> _implementations){
+
+		final String repository=processingEnv.getElementUtils().getBinaryName(_repository).toString();
+		final List<String> entries=new ArrayList<>();
+
+		entries.add("  {\"name\": \""+repository+"\", \"allPublicMethods\": true}");
+		entries.add("  {\"name\": \""+_index+"\", \"allPublicConstructors\": true}");
+		_implementations.stream()
+						.map(implementation -> "  {\"name\": \""+processingEnv.getElementUtils().getBinaryName(implementation)+"\", \"allPublicConstructors\": true, \"queryAllPublicConstructors\": true}")
+						.forEach(entries::add);
+
+		try{
+			final FileObject reflection=processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", NATIVE_IMAGE+repository+"/reflect-config.json",_repository);
+			try(Writer writer=reflection.openWriter();
+					PrintWriter out=new PrintWriter(writer)){
+				out.println("[");
+				out.println(String.join(",\n", entries));
+				out.println("]");
+			}
+			final FileObject properties=processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", NATIVE_IMAGE+repository+"/native-image.properties",_repository);
+			try(Writer writer=properties.openWriter();
+					PrintWriter out=new PrintWriter(writer)){
+				out.println("# Generated by "+ServiceRepositoryProcessor.class.getName()+", do not modify");
+				out.println("Args = --initialize-at-build-time="+_index+","+String.join(",", BUILD_TIME_INITIALIZED));
+			}
+		}catch(IOException e){
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "service-repository-processor: unable to generate native-image metadata of "+repository+": "+e.getMessage(),_repository);
+		}
+	}
+
+	private Set<String> readServiceFile(final String _resource){
+
+		final Set<String> reply=new LinkedHashSet<>();
+
+		try{
+			final FileObject file=processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", _resource);
+			try(BufferedReader reader=new BufferedReader(file.openReader(true))){
+				reader.lines()
+						.map(line -> (line.indexOf('#')<0)? line : line.substring(0,line.indexOf('#')))
+						.map(String::trim)
+						.filter(line -> !line.isEmpty())
+						.forEach(reply::add);
+			}
+		}catch(IOException|IllegalArgumentException e){
+			// not registered by any previous compilation
+		}
+
+		return reply;
+	}
+
+	private void writeServiceFile(){
+
+		if(!this.generated.isEmpty()){
+			final String resource="META-INF/services/"+SERVICE_FACTORY_INDEX;
+			// incremental compilations only process the modified repositories, so the indexes already registered must be kept
+			final Set<String> registered=readServiceFile(resource);
+			registered.addAll(this.generated);
+			try{
+				final FileObject file=processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+				try(Writer writer=file.openWriter();
+						PrintWriter out=new PrintWriter(writer)){
+					registered.forEach(out::println);
+				}
+			}catch(IOException e){
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "service-repository-processor: unable to register "+this.generated+": "+e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.processor
+
+import org.bytemechanics.service.repository.processor.mocks.ClassSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.ImportedSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.ProcessorCompiler
+import org.bytemechanics.service.repository.processor.mocks.SampleRepositories
+import org.bytemechanics.service.repository.processor.mocks.SampleServiceImpl
+import org.bytemechanics.service.repository.processor.mocks.SampleServices
+import org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.other.OtherServiceImpl
+import spock.lang.Requires
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.nio.file.*
+import javax.tools.ToolProvider
+
+
+/**
+ * @author afarre
+ */
+@Requires({ ToolProvider.getSystemJavaCompiler()!=null })
+class NativeImageMetadataSpec extends Specification{
+
+	@Shared
+	Path output
+
+	def setupSpec(){
+		println(">>>>> NativeImageMetadataSpec >>>> setupSpec")
+		output=Files.createTempDirectory("service-repository-metadata")
+		ProcessorCompiler.compile(output,"ClassSampleRepository.java","SupplierSampleRepository.java","ImportedSampleRepository.java","SampleRepositories.java")
+	}
+
+	def cleanupSpec(){
+		output?.toFile()?.deleteDir()
+	}
+
+	def metadata(Class repository,String file){
+		def reply=output.resolve("META-INF").resolve("native-image").resolve("service-repository").resolve(repository.getName()).resolve(file).toFile()
+		return (reply.exists())? reply.text : null
+	}
+
+	@Unroll
+	def "Reflection metadata of #repository.simpleName should register the repository, its generated index #index and the implementations #implementations.simpleName"(){
+		println(">>>>> NativeImageMetadataSpec >>>> Reflection metadata of $repository.simpleName should register the repository, its generated index $index and the implementations $implementations.simpleName")
+
+		when:
+			def reply=metadata(repository,"reflect-config.json")
+
+		then:
+			reply!=null
+			reply.trim().startsWith("[")
+			reply.trim().endsWith("]")
+			reply.contains("{\"name\": \""+repository.getName()+"\", \"allPublicMethods\": true}")
+			reply.contains("{\"name\": \""+index+"\", \"allPublicConstructors\": true}")
+			implementations.every({ implementation -> reply.contains("{\"name\": \""+implementation.getName()+"\", \"allPublicConstructors\": true, \"queryAllPublicConstructors\": true}") })
+			reply.count("queryAllPublicConstructors")==implementations.size()
+
+		where:
+			repository						| index																			| implementations
+			ClassSampleRepository.class		| "org.bytemechanics.service.repository.processor.mocks.ClassSampleRepositoryFactories"		| [SampleServiceImpl.class]
+			SupplierSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepositoryFactories"	| []
+			ImportedSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.ImportedSampleRepositoryFactories"	| [OtherServiceImpl.class,SampleServices.Inner.class]
+			SampleRepositories.Nested.class	| "org.bytemechanics.service.repository.processor.mocks.SampleRepositories_NestedFactories"	| [SampleRepositories.Local.class,OtherServiceImpl.class]
+	}
+
+	@Unroll
+	def "Native image properties of #repository.simpleName should initialize at build time its generated index #index and the factories registry"(){
+		println(">>>>> NativeImageMetadataSpec >>>> Native image properties of $repository.simpleName should initialize at build time its generated index $index and the factories registry")
+
+		when:
+			def reply=metadata(repository,"native-image.properties")
+
+		then:
+			reply!=null
+			reply.contains("Args = --initialize-at-build-time="+index+",")
+			reply.contains("org.bytemechanics.service.repository.beans.GeneratedFactory")
+			reply.contains("org.bytemechanics.service.repository.beans.InstantiationEngine\$GeneratedFactoryIndex")
+
+		where:
+			repository						| index
+			ClassSampleRepository.class		| "org.bytemechanics.service.repository.processor.mocks.ClassSampleRepositoryFactories"
+			SupplierSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepositoryFactories"
+			ImportedSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.ImportedSampleRepositoryFactories"
+			SampleRepositories.Nested.class	| "org.bytemechanics.service.repository.processor.mocks.SampleRepositories_NestedFactories"
+	}
+}
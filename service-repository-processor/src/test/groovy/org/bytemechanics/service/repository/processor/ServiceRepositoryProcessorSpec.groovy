@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.processor
+
+import org.bytemechanics.service.repository.ServiceFactoryIndex
+import org.bytemechanics.service.repository.processor.mocks.ClassSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.ImportedSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.ProcessorCompiler
+import org.bytemechanics.service.repository.processor.mocks.SampleRepositories
+import org.bytemechanics.service.repository.processor.mocks.SampleServiceImpl
+import org.bytemechanics.service.repository.processor.mocks.SampleServices
+import org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepository
+import org.bytemechanics.service.repository.processor.mocks.other.OtherServiceImpl
+import spock.lang.Requires
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.nio.file.*
+import javax.tools.ToolProvider
+
+
+/**
+ * @author afarre
+ */
+@Requires({ ToolProvider.getSystemJavaCompiler()!=null })
+class ServiceRepositoryProcessorSpec extends Specification{
+
+	static final String SERVICE_FILE="META-INF/services/org.bytemechanics.service.repository.ServiceFactoryIndex"
+
+	@Shared
+	Path output
+	@Shared
+	URLClassLoader loader
+
+	def setupSpec(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> setupSpec")
+		output=Files.createTempDirectory("service-repository-processor")
+		ProcessorCompiler.compile(output,"ClassSampleRepository.java","SupplierSampleRepository.java","ImportedSampleRepository.java","SampleRepositories.java")
+		loader=new URLClassLoader([output.toUri().toURL()] as URL[],ServiceRepositoryProcessorSpec.class.getClassLoader())
+	}
+
+	def cleanupSpec(){
+		loader?.close()
+		output?.toFile()?.deleteDir()
+	}
+
+	def source(String index){
+		return output.resolve("generated-sources").resolve(index.replace('.',File.separator)+".java").toFile().text
+	}
+
+	@Unroll
+	def "Generated index #index of #repository.simpleName should create factories for the implementations #implementations.simpleName"(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> Generated index $index of $repository.simpleName should create factories for the implementations $implementations.simpleName")
+
+		when:
+			def reply=loader.loadClass(index).newInstance()
+
+		then:
+			reply instanceof ServiceFactoryIndex
+			reply.getRepository()==repository
+			reply.getFactories().collect({ factory -> factory.getImplementation() }).toSet()==implementations.toSet()
+			implementations.every({ implementation -> source(index).contains("args -> new "+implementation.getCanonicalName()+"(") })
+
+		where:
+			repository						| index																			| implementations
+			ClassSampleRepository.class		| "org.bytemechanics.service.repository.processor.mocks.ClassSampleRepositoryFactories"		| [SampleServiceImpl.class]
+			SupplierSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepositoryFactories"	| []
+			ImportedSampleRepository.class	| "org.bytemechanics.service.repository.processor.mocks.ImportedSampleRepositoryFactories"	| [OtherServiceImpl.class,SampleServices.Inner.class]
+			SampleRepositories.Nested.class	| "org.bytemechanics.service.repository.processor.mocks.SampleRepositories_NestedFactories"	| [SampleRepositories.Local.class,OtherServiceImpl.class]
+	}
+
+	def "Generated index of class based implementations should create a factory for each public constructor"(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> Generated index of class based implementations should create a factory for each public constructor")
+
+		when:
+			def reply=loader.loadClass("org.bytemechanics.service.repository.processor.mocks.ClassSampleRepositoryFactories").newInstance()
+
+		then:
+			reply.getFactories().collect({ factory -> factory.getParameterTypes().toList() })==[[],[String.class],[String.class,int.class]]
+			reply.getFactories()[2].supplier("SAMPLE_2ARG","2arg",2).get().getValue()==2
+	}
+
+	def "Generated index of supplier based implementations should not create any factory"(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> Generated index of supplier based implementations should not create any factory")
+
+		when:
+			def reply=source("org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepositoryFactories")
+
+		then:
+			!reply.contains("new GeneratedFactory")
+			reply.contains("return org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepository.class;")
+	}
+
+	def "Generated indexes should be registered as ServiceFactoryIndex"(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> Generated indexes should be registered as ServiceFactoryIndex")
+
+		when:
+			def reply=ServiceLoader.load(ServiceFactoryIndex.class,loader)
+									.findAll({ index -> index.getClass().getClassLoader()==loader })
+									.collect({ index -> index.getRepository() })
+
+		then:
+			reply.toSet()==[ClassSampleRepository.class,SupplierSampleRepository.class,ImportedSampleRepository.class,SampleRepositories.Nested.class].toSet()
+	}
+
+	def "Incremental compilations should keep the indexes registered by the previous ones"(){
+		println(">>>>> ServiceRepositoryProcessorSpec >>>> Incremental compilations should keep the indexes registered by the previous ones")
+
+		setup:
+			def incremental=Files.createTempDirectory("service-repository-incremental")
+
+		when:
+			ProcessorCompiler.compile(incremental,"ClassSampleRepository.java")
+			ProcessorCompiler.compile(incremental,"SupplierSampleRepository.java")
+			ProcessorCompiler.compile(incremental,"ClassSampleRepository.java")
+
+		then:
+			incremental.resolve(SERVICE_FILE).toFile().readLines()==["org.bytemechanics.service.repository.processor.mocks.ClassSampleRepositoryFactories","org.bytemechanics.service.repository.processor.mocks.SupplierSampleRepositoryFactories"]
+
+		cleanup:
+			incremental?.toFile()?.deleteDir()
+	}
+}
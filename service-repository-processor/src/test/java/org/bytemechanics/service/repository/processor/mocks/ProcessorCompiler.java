@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.processor.mocks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.processor.ServiceRepositoryProcessor;
+
+/**
+ * Compiles the sample repositories of this package from its sources running ServiceRepositoryProcessor, so only requires a JDK
+ * @author afarre
+ */
+public final class ProcessorCompiler {
+
+	/**
+	 * Folder with the sources of this package
+	 */
+	public static final Path SOURCES=Paths.get(System.getProperty("basedir",System.getProperty("user.dir")),"src","test","java").resolve(ProcessorCompiler.class.getPackage().getName().replace('.',File.separatorChar));
+
+	private ProcessorCompiler(){
+	}
+
+	private static String location(final Class<?> _class){
+		try{
+			return Paths.get(_class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+		}catch(URISyntaxException e){
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Compiles the given sources into _output (generated sources at _output/generated-sources) running ServiceRepositoryProcessor.
+	 * _output is also part of the classpath, so successive calls with the same _output behave as incremental compilations
+	 * @param _output compilation output folder
+	 * @param _sources sources relative to this package folder
+	 * @throws IOException if the output folders can not be created
+	 * @throws IllegalStateException if the compilation fails, with the compiler diagnostics as message
+	 */
+	public static void compile(final Path _output,final String... _sources) throws IOException{
+
+		final JavaCompiler compiler=ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector<JavaFileObject> diagnostics=new DiagnosticCollector<>();
+		final Path generated=Files.createDirectories(_output.resolve("generated-sources"));
+		final List<String> classpath=new ArrayList<>(Arrays.asList(_output.toString(),location(ServiceRepository.class),location(ProcessorCompiler.class)));
+		classpath.addAll(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+
+		try(StandardJavaFileManager files=compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)){
+			// processor loaded from its own path so it links against the compiler Trees API (tools.jar class loader on java 8)
+			final boolean reply=compiler.getTask(null, files, diagnostics, Arrays.asList("-classpath",String.join(File.pathSeparator,classpath)
+																						,"-processorpath",location(ServiceRepositoryProcessor.class)
+																						,"-processor",ServiceRepositoryProcessor.class.getName()
+																						,"-d",_output.toString()
+																						,"-s",generated.toString())
+												, null, files.getJavaFileObjects(Stream.of(_sources)
+																						.map(SOURCES::resolve)
+																						.map(Path::toFile)
+																						.toArray(File[]::new)))
+										.call();
+			if(!reply){
+				throw new IllegalStateException(diagnostics.getDiagnostics()
+																.stream()
+																	.map(Object::toString)
+																	.collect(Collectors.joining("\n")));
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.processor.mocks;
+
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Holder of nested repositories
+ * @author afarre
+ */
+public class SampleRepositories {
+
+	public static class Local implements SampleService {
+
+		@Override
+		public String getName() {
+			return "LOCAL";
+		}
+	}
+
+	public enum Nested implements ServiceRepository {
+
+		LOCAL(SampleService.class,Local.class),
+		QUALIFIED(SampleService.class,org.bytemechanics.service.repository.processor.mocks.other.OtherServiceImpl.class),
+		;
+
+		private final ServiceSupplier serviceSupplier;
+
+
+		<T> Nested(final Class<T> _adapter,final Class<? extends T> _implementation,final Object... _args){
+			this.serviceSupplier=ServiceSupplier.builder(_adapter)
+													.name(name())
+													.implementation(_implementation)
+													.args(_args)
+												.build();
+		}
+
+		@Override
+		public ServiceSupplier getServiceSupplier() {
+			return this.serviceSupplier;
+		}
+	}
+}
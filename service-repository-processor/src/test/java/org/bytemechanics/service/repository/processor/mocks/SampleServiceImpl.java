@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.processor.mocks;
+
+/**
+ *
+ * @author afarre
+ */
+public class SampleServiceImpl implements SampleService {
+
+	private final String name;
+	private final int value;
+
+
+	public SampleServiceImpl(){
+		this("",0);
+	}
+	public SampleServiceImpl(String _name){
+		this(_name,0);
+	}
+	public SampleServiceImpl(String _name,int _value){
+		this.name=_name;
+		this.value=_value;
+	}
+	private SampleServiceImpl(int _value){
+		this("",_value);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+	public int getValue() {
+		return value;
+	}
+}
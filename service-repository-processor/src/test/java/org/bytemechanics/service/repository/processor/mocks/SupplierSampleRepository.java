@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.processor.mocks;
+
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Repository declaring its implementations by supplier
+ * @author afarre
+ */
+public enum SupplierSampleRepository implements ServiceRepository {
+
+	SAMPLE_LAMBDA(SampleService.class,() -> new SampleServiceImpl("lambda")),
+	SAMPLE_REFERENCE(SampleService.class,SampleServiceImpl::new),
+	;
+
+	private final ServiceSupplier serviceSupplier;
+
+
+	<T> SupplierSampleRepository(final Class<T> _adapter,final Supplier<? extends T> _implementationSupplier){
+		this.serviceSupplier=ServiceSupplier.builder(_adapter)
+												.name(name())
+												.supplier(_implementationSupplier)
+											.build();
+	}
+
+	@Override
+	public ServiceSupplier getServiceSupplier() {
+		return this.serviceSupplier;
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository;
+
+import java.util.List;
+import org.bytemechanics.service.repository.beans.GeneratedFactory;
+
+/**
+ * Static index of reflection-free implementation factories, tipically generated at compile time by the service-repository-processor
+ * for each enum implementing ServiceRepository. Implementations are discovered through ServiceLoader 
+ * (META-INF/services/org.bytemechanics.service.repository.ServiceFactoryIndex)
+ * @author afarre
+ * @since 1.4.0
+ * @see GeneratedFactory
+ * @see java.util.ServiceLoader
+ */
+public interface ServiceFactoryIndex {
+
+	/**
+	 * Method to return the service repository indexed
+	 * @return service repository class
+	 */
+	public Class<? extends ServiceRepository> getRepository();
+	/**
+	 * Method to return all the factories available for the implementations referenced by the service repository
+	 * @return list of factories, one for each implementation public constructor
+	 */
+	public List<GeneratedFactory<?>> getFactories();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository;
+
+import org.bytemechanics.service.repository.beans.ServiceMetricsRegistry;
+import org.bytemechanics.service.repository.beans.StripedServiceMetrics;
+
+/**
+ * Metrics sink to record the per-service lookups, instantiations, failures and lifecycle durations, all keyed by the service name (ServiceSupplier#getName()).
+ * Sinks are registered with ServiceMetricsRegistry#register(ServiceMetrics), when none is registered nothing is measured.
+ * Implementations are called from the lookup hot path so must be lock-free and must not throw
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceMetricsRegistry
+ * @see StripedServiceMetrics
+ */
+public interface ServiceMetrics {
+
+	/**
+	 * Records a lookup (get or tryGet) of the service
+	 * @param _service service name
+	 */
+	public default void onGet(final String _service){}
+	/**
+	 * Records a new instance of the service
+	 * @param _service service name
+	 * @param _nanos instantiation duration in nanoseconds
+	 */
+	public default void onInstantiation(final String _service,final long _nanos){}
+	/**
+	 * Records a tryGet that could not obtain the service instance
+	 * @param _service service name
+	 * @param _failure failure cause
+	 */
+	public default void onTryGetFailure(final String _service,final Throwable _failure){}
+	/**
+	 * Records a service initialization
+	 * @param _service service name
+	 * @param _nanos initialization duration in nanoseconds
+	 * @param _success true if the initialization finished without errors
+	 */
+	public default void onInit(final String _service,final long _nanos,final boolean _success){}
+	/**
+	 * Records a service dispose
+	 * @param _service service name
+	 * @param _nanos dispose duration in nanoseconds
+	 * @param _success true if the dispose finished without errors
+	 */
+	public default void onDispose(final String _service,final long _nanos,final boolean _success){}
+}
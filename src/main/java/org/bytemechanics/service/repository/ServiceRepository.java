@@ -15,12 +15,35 @@
  */
 package org.bytemechanics.service.repository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.bytemechanics.service.repository.beans.ParallelServiceShutdown;
+import org.bytemechanics.service.repository.beans.ServiceDependencyGraph;
+import org.bytemechanics.service.repository.beans.ServiceFlightRecorder;
+import org.bytemechanics.service.repository.beans.ServiceFlightRecorder.Operation;
+import org.bytemechanics.service.repository.beans.ServiceLease;
+import org.bytemechanics.service.repository.beans.ServiceMetricsRegistry;
+import org.bytemechanics.service.repository.beans.ServiceScope;
+import org.bytemechanics.service.repository.beans.ServiceShutdownReport;
+import org.bytemechanics.service.repository.beans.ServiceStartupProfiler;
+import org.bytemechanics.service.repository.beans.ServiceStartupReport;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
 import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
 import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.exceptions.ServiceStartupException;
 import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
 
 /**
@@ -80,6 +103,15 @@ public interface ServiceRepository {
 	public default Class getAdapter(){
 		return getServiceSupplier().getAdapter();
 	}
+	/**
+	 * Method to return the names of the services that must be initialized before this one and disposed after it, the names are retrieved from the service supplier
+	 * @return names of the services this one depends on
+	 * @see ServiceSupplier#getDependencies() 
+	 * @since 1.4.0
+	 */
+	public default Set<String> getDependencies(){
+		return getServiceSupplier().getDependencies();
+	}
 	/**
 	 * Method to return if the service must be instantiated as singleton (only on instance in all virtual machine)
 	 * @return true if the this service is a singleton
@@ -87,6 +119,37 @@ public interface ServiceRepository {
 	public default boolean isSingleton(){
 		return getServiceSupplier().isSingleton();
 	}
+	/**
+	 * Method to return if the service is confined to threads (each thread has its own instance)
+	 * @return true if the this service is thread-confined
+	 * @see ServiceSupplier#isThreadConfined() 
+	 * @since 1.4.0
+	 */
+	public default boolean isThreadConfined(){
+		return getServiceSupplier().isThreadConfined();
+	}
+	/**
+	 * Method to obtain the service instance without arguments, note that if the service is a singleton always returns the same instance. This instance is obtained by calling ServiceSupplier#get()
+	 * Does not allocate any arguments array
+	 * @return the service instance as Object or null if the instance can not be obtained
+	 * @see ServiceSupplier#get() 
+	 * @since 1.4.0
+	 */
+	public default Object get(){
+		return getServiceSupplier().get();
+	}
+	/**
+	 * Method to obtain the service instance casted to the given _class without arguments, note that if the service is a singleton always returns the same instance. This instance is obtained by calling #get()
+	 * Does not allocate any arguments array
+	 * @param <T> type of the interface to implement
+	 * @param _class class to cast when service is returned
+	 * @return the service instance cast to _class
+	 * @see #get() 
+	 * @since 1.4.0
+	 */
+	public default <T> T get(final Class<T> _class){
+		return _class.cast(get());
+	}
 	/**
 	 * Method to obtain the service instance, note that if the service is a singleton always returns the same instance. This instance is obtained by calling ServiceSupplie#get()
 	 * @param _args arguments to use with constructor if instantiation is necessary
@@ -107,7 +170,29 @@ public interface ServiceRepository {
 	 * @since 1.2.0
 	 */
 	public default <T> T get(final Class<T> _class,final Object... _args){
-		return (T)get(_args);
+		return _class.cast(get(_args));
+	}
+	/**
+	 * Method to obtain the service instance without arguments, note that if the service is a singleton always returns the same instance. This instance is obtained by calling ServiceSupplier#tryGet()
+	 * Does not allocate any arguments array
+	 * @return the optional service instance as Object that can be empty if the instance can not be obtained
+	 * @see ServiceSupplier#tryGet() 
+	 * @since 1.4.0
+	 */
+	public default Optional<Object> tryGet(){
+		return getServiceSupplier().tryGet();
+	}
+	/**
+	 * Method to obtain the service instance casted to the given _class without arguments, note that if the service is a singleton always returns the same instance. This instance is obtained by calling #tryGet()
+	 * Does not allocate any arguments array
+	 * @param <T> type of the interface to implement
+	 * @param _class class to cast when service is returned
+	 * @return the optional service instance as Object that can be empty if the instance can not be obtained
+	 * @see #tryGet() 
+	 * @since 1.4.0
+	 */
+	public default <T> Optional<T> tryGet(final Class<T> _class){
+		return tryGet().map(_class::cast);
 	}
 	/**
 	 * Method to obtain the service instance, note that if the service is a singleton always returns the same instance. This instance is obtained by calling ServiceSupplie#tryGet()
@@ -129,8 +214,103 @@ public interface ServiceRepository {
 	 * @since 1.2.0
 	 */
 	public default <T> Optional<T> tryGet(final Class<T> _class,final Object... _args){
-		return tryGet(_args)
-				.map(object -> (T)object);
+		return tryGet(_args).map(_class::cast);
+	}
+	/**
+	 * Method to borrow a service instance that must be released once is no longer in use, the lease is obtained by calling ServiceSupplier#borrow()
+	 * @return the lease of the service instance
+	 * @see ServiceSupplier#borrow() 
+	 * @since 1.4.0
+	 */
+	public default ServiceLease<Object> borrow(){
+		return getServiceSupplier().borrow();
+	}
+	/**
+	 * Method to borrow a service instance casted to the given _class that must be released once is no longer in use
+	 * @param <T> type of the interface to implement
+	 * @param _class class to cast the leased instance
+	 * @return the lease of the service instance
+	 * @see #borrow() 
+	 * @since 1.4.0
+	 */
+	@SuppressWarnings("unchecked")
+	public default <T> ServiceLease<T> borrow(final Class<T> _class){
+
+		final ServiceLease<Object> reply=borrow();
+
+		try{
+			_class.cast(reply.get());
+		}catch(ClassCastException e){
+			reply.release();
+			throw e;
+		}
+
+		return (ServiceLease<T>)(ServiceLease)reply;
+	}
+	/**
+	 * Method to obtain the service instance of the given _scope, created once per scope and disposed when the scope closes. Singleton services return the shared instance
+	 * @param _scope scope that owns the instance
+	 * @return the scope service instance
+	 * @see ServiceScope#get(org.bytemechanics.service.repository.ServiceRepository) 
+	 * @since 1.4.0
+	 */
+	public default Object get(final ServiceScope _scope){
+		return _scope.get(this);
+	}
+	/**
+	 * Method to obtain the service instance of the given _scope casted to the given _class, created once per scope and disposed when the scope closes
+	 * @param <T> type of the interface to implement
+	 * @param _class class to cast the instance
+	 * @param _scope scope that owns the instance
+	 * @return the scope service instance
+	 * @see #get(org.bytemechanics.service.repository.beans.ServiceScope) 
+	 * @since 1.4.0
+	 */
+	public default <T> T get(final Class<T> _class,final ServiceScope _scope){
+		return _scope.get(this, _class);
+	}
+	/**
+	 * Method to obtain asynchronously the service instance, note that if the service is a singleton always returns the same instance. This instance is obtained by calling ServiceSupplier#getAsync()
+	 * @param _args arguments to use with constructor if instantiation is necessary
+	 * @return future of the service instance
+	 * @see ServiceSupplier#getAsync(java.lang.Object...) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Object> getAsync(final Object... _args){
+		return getServiceSupplier().getAsync(_args);
+	}
+	/**
+	 * Method to obtain asynchronously the service instance casted to the given _class, note that if the service is a singleton always returns the same instance. This instance is obtained by calling #getAsync()
+	 * @param _args arguments to use with constructor if instantiation is necessary
+	 * @param <T> type of the interface to implement
+	 * @param _class class to cast when service is returned
+	 * @return future of the service instance cast to _class
+	 * @see #getAsync(java.lang.Object...) 
+	 * @since 1.4.0
+	 */
+	public default <T> CompletableFuture<T> getAsync(final Class<T> _class,final Object... _args){
+		return getAsync(_args)
+				.thenApply(_class::cast);
+	}
+	/**
+	 * Service asynchronous initialization; invoque ServiceSupplier#initAsync().
+	 * @return future completed once the service is initialized, completed exceptionally with ServiceInitializationException when service can not be instantiated
+	 * @see ServiceSupplier#initAsync() 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> initAsync(){
+
+		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+
+		logger.finest(() -> SimpleFormat.format("service::factory::init::async::{}::begin",name()));
+		return getServiceSupplier().initAsync()
+						.whenComplete((result,failure) -> {
+							if(failure==null){
+								logger.finest(() -> SimpleFormat.format("service::factory::init::async::{}::end",name()));
+							}else{
+								logger.log(Level.SEVERE,failure,() -> SimpleFormat.format("service::factory::init::async::{}::fail::{}",name(),failure.getMessage()));
+							}
+						});
 	}
 	/**
 	 * Service initialization; invoque ServiceSupplier#init().
@@ -140,17 +320,27 @@ public interface ServiceRepository {
 	public default void init(){
 
 		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+		final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+		final long begin=(metrics!=null)? System.nanoTime() : 0;
+		final Object event=ServiceFlightRecorder.begin();
+		boolean success=false;
 
 		try{
 			logger.finest(() -> SimpleFormat.format("service::factory::init::{}::begin",name()));
 			getServiceSupplier().init();
+			success=true;
 			logger.finest(() -> SimpleFormat.format("service::factory::init::{}::end",name()));
 		}catch(ServiceInitializationException e){
 			logger.log(Level.SEVERE,e,() -> SimpleFormat.format("service::factory::init::{}::fail::{}",name(),e.getMessage()));
 			throw e;
 		}catch(RuntimeException e){
 			logger.log(Level.SEVERE,e,() -> SimpleFormat.format("service::factory::init::{}::fail::{}",name(),e.getMessage()));
-			throw new ServiceInitializationException(name(),e.getMessage(),e);
+			throw new ServiceInitializationException(name(),e.getMessage(),e,LightweightExceptions.isEnabled(getServiceSupplier()));
+		}finally{
+			if(metrics!=null){
+				metrics.onInit(name(), System.nanoTime()-begin, success);
+			}
+			ServiceFlightRecorder.end(event, getServiceSupplier(), Operation.INIT, success);
 		}
 	}
 	/**
@@ -161,49 +351,226 @@ public interface ServiceRepository {
 	public default void dispose(){
 		
 		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+		final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+		final long begin=(metrics!=null)? System.nanoTime() : 0;
+		final Object event=ServiceFlightRecorder.begin();
+		boolean success=false;
 
 		try{
 			logger.finest(() -> SimpleFormat.format("service::factory::dispose::{}::begin",name()));
 			getServiceSupplier().dispose();
+			success=true;
 			logger.finest(() -> SimpleFormat.format("service::factory::dispose::{}::end",name()));
 		}catch(ServiceDisposeException e){
 			logger.log(Level.SEVERE,e,() -> SimpleFormat.format("service::factory::dispose::{}::fail::{}",name(),e.getMessage()));
 			throw e;
 		}catch(Throwable e){
 			logger.log(Level.SEVERE,e,() -> SimpleFormat.format("service::factory::dispose::{}::fail::{}",name(),e.getMessage()));
-			throw new ServiceDisposeException(name(),e.getMessage(),e);
+			throw new ServiceDisposeException(name(),e.getMessage(),e,LightweightExceptions.isEnabled(getServiceSupplier()));
+		}finally{
+			if(metrics!=null){
+				metrics.onDispose(name(), System.nanoTime()-begin, success);
+			}
+			ServiceFlightRecorder.end(event, getServiceSupplier(), Operation.DISPOSE, success);
 		}
 	}
+	/**
+	 * Service hot-swap; invoque ServiceSupplier#swap(java.util.function.Supplier) publishing the new supplier atomically,
+	 * the previous singleton instance is disposed once the supplier configured grace period elapses
+	 * @param _supplier supplier of the new implementation
+	 * @return future completed once the previous singleton instance (if any) has been disposed
+	 * @see ServiceSupplier#swap(java.util.function.Supplier) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> swap(final Supplier _supplier){
+		Logger.getLogger(ServiceRepository.class.getName()).finest(() -> SimpleFormat.format("service::factory::swap::{}",name()));
+		return getServiceSupplier().swap(_supplier);
+	}
+	/**
+	 * Service hot-swap; invoque ServiceSupplier#swap(java.util.function.Supplier, long, java.util.concurrent.TimeUnit) publishing the new supplier atomically,
+	 * the previous singleton instance is disposed once the _gracePeriod elapses
+	 * @param _supplier supplier of the new implementation
+	 * @param _gracePeriod time to wait before dispose the previous singleton instance
+	 * @param _unit time unit of the grace period
+	 * @return future completed once the previous singleton instance (if any) has been disposed
+	 * @see ServiceSupplier#swap(java.util.function.Supplier, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> swap(final Supplier _supplier,final long _gracePeriod,final TimeUnit _unit){
+		Logger.getLogger(ServiceRepository.class.getName()).finest(() -> SimpleFormat.format("service::factory::swap::{}::{}{}",name(),_gracePeriod,_unit));
+		return getServiceSupplier().swap(_supplier, _gracePeriod, _unit);
+	}
 
 	
 	/**
-	 * Utility method to invoke init() method to all serviceFactories of the stream
+	 * Utility method to invoke init() method to all serviceFactories of the stream in dependency order.
+	 * Only the dependencies present in the stream are ordered, dependencies outside of it are ignored (expected to be already initialized)
 	 * @param _services Stream of ServiceRepository instances to initialize
-	 * @throws ServiceInitializationException when service can not be initialized
+	 * @throws ServiceInitializationException when service can not be initialized or exist some cyclic dependency
 	 * @see #init() 
+	 * @see #getDependencies() 
 	 */
 	public static void startup(final Stream<ServiceRepository> _services){
 
 		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
 
 		logger.finest("service::factory::startup::begin");
-		_services.forEach(ServiceRepository::init);
+		ServiceDependencyGraph.of(_services,true)
+				.getServices()
+					.forEach(ServiceRepository::init);
 		logger.finer("service::factory::startup::end");
 	}
 	/**
-	 * Utility method to invoke dispose() method to all serviceFactories of the stream
+	 * Utility method to invoke init() method to all serviceFactories of the stream in parallel using the given executor. 
+	 * Each service is initialized once all its dependencies has been initialized, services without dependencies between them are initialized concurrently.
+	 * As #startup(java.util.stream.Stream) dependencies outside of the stream are ignored (expected to be already initialized), cyclic dependencies fails before initializing any service. 
+	 * Services depending on a failed service are not initialized, all the failures are aggregated in a single ServiceStartupException
+	 * @param _services Stream of ServiceRepository instances to initialize
+	 * @param _executor executor to use to initialize the services
+	 * @throws ServiceInitializationException when exist some cyclic dependency
+	 * @throws ServiceStartupException when some service can not be initialized
+	 * @see #init() 
+	 * @see #getDependencies() 
+	 * @since 1.4.0
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public static void startup(final Stream<ServiceRepository> _services,final Executor _executor){
+
+		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+
+		logger.finest("service::factory::startup::parallel::begin");
+		final ServiceDependencyGraph graph=ServiceDependencyGraph.of(_services,true);
+		final Map<ServiceRepository,CompletableFuture<?>> pending=new LinkedHashMap<>();
+		for(ServiceRepository service:graph.getServices()){
+			final CompletableFuture<?>[] dependencies=graph.getDependencies(service)
+																.stream()
+																	.map(pending::get)
+																	.toArray(CompletableFuture[]::new);
+			pending.put(service,CompletableFuture.allOf(dependencies)
+												.handleAsync((result,failure) -> {
+																	if(failure!=null){
+																		throw new ServiceInitializationException(service.name(),"Unable to initialize because some dependency can not be initialized");
+																	}
+																	service.init();
+																	return service;
+																},_executor));
+		}
+		final List<ServiceInitializationException> failures=new ArrayList<>();
+		pending.forEach((service,future) -> {
+										try{
+											future.join();
+										}catch(Throwable e){
+											final Throwable cause=(e instanceof CompletionException)&&(e.getCause()!=null)? e.getCause() : e;
+											failures.add((cause instanceof ServiceInitializationException)? (ServiceInitializationException)cause : new ServiceInitializationException(service.name(),cause.getMessage(),cause));
+										}
+									});
+		if(!failures.isEmpty()){
+			logger.severe(() -> SimpleFormat.format("service::factory::startup::parallel::fail::{}",failures.size()));
+			throw new ServiceStartupException(failures);
+		}
+		logger.finer("service::factory::startup::parallel::end");
+	}
+	/**
+	 * Utility method to invoke init() method to all serviceFactories of the stream in dependency order measuring each initialization.
+	 * Failures does not interrupt the startup, the services depending on a failed service are skipped and dependencies outside of the stream are ignored
+	 * @param _services Stream of ServiceRepository instances to initialize
+	 * @return the report with the wall time, cpu time, allocated bytes, loaded classes and thread of each initialization and the critical path
+	 * @throws ServiceInitializationException when exist some cyclic dependency
+	 * @see #init() 
+	 * @see #getDependencies() 
+	 * @since 1.4.0
+	 */
+	public static ServiceStartupReport profileStartup(final Stream<ServiceRepository> _services){
+		return profileStartup(_services, Runnable::run);
+	}
+	/**
+	 * Utility method to invoke init() method to all serviceFactories of the stream in parallel using the given executor measuring each initialization.
+	 * Each service is initialized once all its dependencies has been initialized, services without dependencies between them are initialized concurrently.
+	 * Failures does not interrupt the startup, the services depending on a failed service are skipped and dependencies outside of the stream are ignored
+	 * @param _services Stream of ServiceRepository instances to initialize
+	 * @param _executor executor to use to initialize the services
+	 * @return the report with the wall time, cpu time, allocated bytes, loaded classes and thread of each initialization and the critical path
+	 * @throws ServiceInitializationException when exist some cyclic dependency
+	 * @see #init() 
+	 * @see #getDependencies() 
+	 * @see ServiceStartupReport#toJson() 
+	 * @see ServiceStartupReport#toTable() 
+	 * @since 1.4.0
+	 */
+	public static ServiceStartupReport profileStartup(final Stream<ServiceRepository> _services,final Executor _executor){
+
+		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+
+		logger.finest("service::factory::startup::profile::begin");
+		final ServiceStartupReport reply=new ServiceStartupProfiler(ServiceDependencyGraph.of(_services,true), _executor)
+																.execute();
+		logger.finer("service::factory::startup::profile::end");
+
+		return reply;
+	}
+	/**
+	 * Utility method to invoke dispose() method to all serviceFactories of the stream in reverse dependency order:
+	 * any service is disposed after all the services that depends on it, services without dependencies between them keep the stream order
 	 * @param _services Stream of ServiceRepository instances to dispose
 	 * @throws ServiceDisposeException when service can not be disposed
 	 * @see #dispose() 
+	 * @see #getDependencies() 
+	 * @see #disposeGraph(java.util.stream.Stream) 
 	 */
 	public static void shutdown(final Stream<ServiceRepository> _services){
 
 		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
 
 		logger.finest("service::factory::close::begin");
-		_services.forEach(ServiceRepository::dispose);
+		disposeGraph(_services)
+				.getDisposeOrder()
+					.forEach(ServiceRepository::dispose);
 		logger.finest("service::factory::close::end");
 	}
+	/**
+	 * Utility method to invoke dispose() method to all serviceFactories of the stream in parallel using the given executor.
+	 * Each service is disposed once all the services that depends on it has finished, services without dependencies between them are disposed concurrently.
+	 * Instead of raise the first failure, returns a report with the outcome of each service
+	 * @param _services Stream of ServiceRepository instances to dispose
+	 * @param _executor executor to use to dispose the services
+	 * @param _serviceTimeout maximum time to wait for each service dispose
+	 * @param _globalTimeout maximum time to wait for the complete shutdown
+	 * @param _unit time unit of the timeouts
+	 * @return report with the services disposed, failed, timed out or not started
+	 * @see #dispose() 
+	 * @see #getDependencies() 
+	 * @see ParallelServiceShutdown
+	 * @since 1.4.0
+	 */
+	public static ServiceShutdownReport shutdown(final Stream<ServiceRepository> _services,final Executor _executor,final long _serviceTimeout,final long _globalTimeout,final TimeUnit _unit){
+
+		final Logger logger=Logger.getLogger(ServiceRepository.class.getName());
+
+		logger.finest("service::factory::close::parallel::begin");
+		final ServiceShutdownReport reply=new ParallelServiceShutdown(disposeGraph(_services), _executor, _serviceTimeout, _globalTimeout, _unit)
+														.execute();
+		logger.finer(() -> SimpleFormat.format("service::factory::close::parallel::end::{}",reply));
+		
+		return reply;
+	}
+	/**
+	 * Utility method to build the dependency graph to use on dispose. Never fails: dependencies not present in the stream are ignored
+	 * and if exist some cyclic dependency the dependencies are discarded and the stream order is kept
+	 * @param _services Stream of ServiceRepository instances to dispose
+	 * @return the dependency graph
+	 * @since 1.4.0
+	 */
+	public static ServiceDependencyGraph disposeGraph(final Stream<ServiceRepository> _services){
+
+		final List<ServiceRepository> services=_services.collect(Collectors.toList());
+
+		try{
+			return ServiceDependencyGraph.of(services.stream(),true);
+		}catch(ServiceInitializationException e){
+			Logger.getLogger(ServiceRepository.class.getName()).warning(() -> SimpleFormat.format("service::factory::close::graph::fail::{}",e.getMessage()));
+			return ServiceDependencyGraph.unordered(services.stream());
+		}
+	}
 	/**
 	 * Utility method to invoke dispose() and init() methods to all serviceFactories of the stream in order to reset it's instances
 	 * @param _services Stream of ServiceRepository instances to reset
@@ -218,8 +585,15 @@ public interface ServiceRepository {
 
 		logger.finest("service::factory::reset::begin");
 		_services.forEach(service -> {
-										service.dispose();
-										service.init();
+										final Object event=ServiceFlightRecorder.begin();
+										boolean success=false;
+										try{
+											service.dispose();
+											service.init();
+											success=true;
+										}finally{
+											ServiceFlightRecorder.end(event, service.getServiceSupplier(), Operation.RESET, success);
+										}
 									});
 		logger.finer("service::factory::reset::end");
 	}	
@@ -15,17 +15,26 @@
  */
 package org.bytemechanics.service.repository;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.bytemechanics.service.repository.beans.ConstructorSupplier;
 import org.bytemechanics.service.repository.beans.DefaultServiceSupplier;
+import org.bytemechanics.service.repository.beans.InstantiationEngine;
+import org.bytemechanics.service.repository.beans.ServiceExecutors;
+import org.bytemechanics.service.repository.beans.ServiceLease;
+import org.bytemechanics.service.repository.beans.ServiceMetricsRegistry;
+import org.bytemechanics.service.repository.beans.SingletonInitializer;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
 import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
 import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
-import org.bytemechanics.service.repository.internal.commons.reflection.ObjectFactory;
 import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
 
 /**
@@ -56,6 +65,49 @@ public interface ServiceSupplier extends Supplier {
 	 * @return true if the this service is a singleton
 	 */
 	public boolean isSingleton();
+	/**
+	 * Method to return if the service is confined to threads (each thread has its own instance)
+	 * @return true if the this service is thread-confined, false by default
+	 * @since 1.4.0
+	 */
+	public default boolean isThreadConfined(){
+		return false;
+	}
+	/**
+	 * Method to return the names of the services that must be initialized before this one and disposed after it
+	 * @return names of the services this one depends on, empty by default
+	 * @since 1.4.0
+	 */
+	public default Set<String> getDependencies(){
+		return Collections.emptySet();
+	}
+	/**
+	 * Method to return the executor to use with the asynchronous operations of this service
+	 * @return the executor, by default the ServiceExecutors default one
+	 * @see ServiceExecutors#getDefault() 
+	 * @since 1.4.0
+	 */
+	public default Executor getExecutor(){
+		return ServiceExecutors.getDefault();
+	}
+	/**
+	 * Method to return the singleton initializer that coordinates the concurrent singleton initializations and disposes of this service
+	 * @return the singleton initializer, by default a shared one registered for this service supplier
+	 * @see SingletonInitializer#of(org.bytemechanics.service.repository.ServiceSupplier) 
+	 * @since 1.4.0
+	 */
+	public default SingletonInitializer getInitializer(){
+		return SingletonInitializer.of(this);
+	}
+	/**
+	 * Method to return if the exceptions of this service are always created in low-cost mode, regardless of the global mode
+	 * @return true to create the exceptions of this service without stack trace, by default false
+	 * @see LightweightExceptions#isEnabled(org.bytemechanics.service.repository.ServiceSupplier) 
+	 * @since 1.4.0
+	 */
+	public default boolean isLightweightExceptions(){
+		return false;
+	}
 	/**
 	 * Method to return the current supplier for this service
 	 * @return the Supplier for this service
@@ -81,6 +133,34 @@ public interface ServiceSupplier extends Supplier {
 	 * @since v1.3.0
 	 */
 	public void reset();
+	/**
+	 * Method to hot-swap the service implementation: publishes the new _supplier and clears the singleton instance, new callers obtain instances from the new supplier
+	 * and the previous singleton instance is disposed immediately
+	 * @param _supplier supplier of the new implementation
+	 * @return future completed once the previous singleton instance (if any) has been disposed
+	 * @see #swap(java.util.function.Supplier, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> swap(final Supplier _supplier){
+		return swap(_supplier, 0, TimeUnit.MILLISECONDS);
+	}
+	/**
+	 * Method to hot-swap the service implementation: publishes the new _supplier and clears the singleton instance, new callers obtain instances from the new supplier
+	 * while callers that already obtained the previous singleton instance can keep using it until it is disposed once the _gracePeriod elapses.
+	 * Any concurrent singleton initialization waits until the swap finishes
+	 * @param _supplier supplier of the new implementation
+	 * @param _gracePeriod time to wait before dispose the previous singleton instance
+	 * @param _unit time unit of the grace period
+	 * @return future completed once the previous singleton instance (if any) has been disposed, completed exceptionally with ServiceDisposeException if the dispose fails
+	 * @see SingletonInitializer#replace(org.bytemechanics.service.repository.ServiceSupplier, java.lang.Runnable, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> swap(final Supplier _supplier,final long _gracePeriod,final TimeUnit _unit){
+		return getInitializer().replace(this, () -> {
+												setSupplier(_supplier);
+												setInstance(null);
+											}, _gracePeriod, _unit);
+	}
 	/**
 	 * Method to return the new supplier for this service or if the _args it's not null nor empty otherwise returns the current supplier.
 	 * @param _args arguments to use to create the supplier (optional)
@@ -89,11 +169,7 @@ public interface ServiceSupplier extends Supplier {
 	 * @since 1.2.0
 	 */
 	public default Supplier provideSupplier(final Object... _args){
-		return (Supplier)Optional.ofNullable(_args)
-							.filter(arguments -> arguments.length>0)
-							.filter(arguments -> getImplementation()!=null)
-							.map(arguments -> generateSupplier(getName(),getImplementation(), arguments))
-							.orElse(getSupplier());
+		return ((_args!=null)&&(_args.length>0)&&(getImplementation()!=null))? InstantiationEngine.GENERATED.generateSupplier(getName(),getImplementation(),isLightweightExceptions(), _args) : getSupplier();
 	}
 
 	/**
@@ -107,6 +183,16 @@ public interface ServiceSupplier extends Supplier {
 	 */
 	public void setInstance(final Object _instance);	
 	
+	/**
+	 * Method to obtain the service instance without arguments, note that if the service is a singleton always returns the same instance.
+	 * Does not allocate any arguments array
+	 * @return the optional service instance as Object that can be empty if the instance can not be obtained
+	 * @see #tryGet(java.lang.Object...) 
+	 * @since 1.4.0
+	 */
+	public default Optional<Object> tryGet() {
+		return tryGet((Object[])null);
+	}
 	/**
 	 * Method to obtain the service instance, note that if the service is a singleton always returns the same instance.
 	 * if _args it's not null nor empty and doesn't exist any instance, a new supplier is generated with this new parameters and used ony for this occasion.
@@ -121,6 +207,10 @@ public interface ServiceSupplier extends Supplier {
 		try{
 			reply=Optional.ofNullable(get(_args));
 		}catch(Throwable e){
+			final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+			if(metrics!=null){
+				metrics.onTryGetFailure(getName(), e);
+			}
 			Logger.getLogger(this.getClass().getName()).log(Level.SEVERE,e,() -> SimpleFormat.format("service::supplier::service::{}::get::fail::{}",getName(),e.getMessage()));
 		}
 				
@@ -128,50 +218,80 @@ public interface ServiceSupplier extends Supplier {
 	}
 	
 	/**
-	 * Method to obtain the service instance, if is a singleton synchronized set the instance with #setInstance(instance) <br>
-	 * Note that if the service is a singleton always returns the same instance
+	 * Method to obtain the service instance, if is a singleton the instance is created only once through #getInitializer() and stored with #setInstance(instance) <br>
+	 * Note that if the service is a singleton always returns the same instance. Does not allocate any arguments array
 	 * @return the service instance as Object or null if the instance can not be obtained
 	 * @throws ServiceInitializationException when service can not be instantiated
 	 * @see Supplier#get() 
 	 */
 	@Override
 	public default Object get() {
-		return get(new Object[0]);
+		return get((Object[])null);
 	}
 
 	
 	/**
-	 * Method to obtain the service instance, if is a singleton synchronized set the instance with #setInstance(instance) <br>
+	 * Method to obtain the service instance, if is a singleton the instance is created only once through #getInitializer() and stored with #setInstance(instance) <br>
 	 * Note that if the service is a singleton always returns the same instance if _args it's not null nor empty and doesn't exist any instance,
 	 * a new supplier is generated with this new parameters and used ony for this occasion.
 	 * @param _args arguments to use to instance in case its not singleton and already instanced
 	 * @return the service instance as Object or null if the instance can not be obtained
 	 * @throws ServiceInitializationException when service can not be instantiated
+	 * @see SingletonInitializer#initialize(org.bytemechanics.service.repository.ServiceSupplier, java.lang.Object...) 
 	 */
-	@SuppressWarnings("DoubleCheckedLocking")
 	public default Object get(final Object... _args) {
 		
 		Object reply;
 
+		final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+		if(metrics!=null){
+			metrics.onGet(getName());
+		}
 		if(isSingleton()){
-			Object current=getInstance();
-			if(current==null){
-				synchronized(this){
-					current=getInstance();
-					if(current==null){
-						current=provideSupplier(_args).get();
-						setInstance(current);
-					}			
-				}
+			reply=getInstance();
+			if(reply==null){
+				reply=getInitializer().initialize(this, _args);
 			}
-			reply=current;
 		}else{
-			reply=provideSupplier(_args).get();
+			reply=ServiceMetricsRegistry.instantiate(getName(),provideSupplier(_args));
 		}
 				
 		return reply;
 	}
 	
+	/**
+	 * Method to borrow a service instance that must be released once is no longer in use. Pooled services recycle the released instances,
+	 * otherwise the lease just wraps the #get() instance and releasing it does nothing
+	 * @return the lease of the service instance
+	 * @throws ServiceInitializationException when service can not be instantiated
+	 * @see ServiceLease
+	 * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#pooled(int, int) 
+	 * @since 1.4.0
+	 */
+	public default ServiceLease<Object> borrow() {
+		return new ServiceLease<>(get(),instance -> {});
+	}
+	/**
+	 * Method to obtain asynchronously the service instance using the #getExecutor(). If is a singleton already instantiated returns a completed future,
+	 * if the singleton is being instantiated returns a future completed when the pending instantiation finishes.
+	 * @param _args arguments to use to instance in case its not singleton and already instanced
+	 * @return future of the service instance, completed exceptionally with ServiceInitializationException when service can not be instantiated
+	 * @see #get(java.lang.Object...) 
+	 * @see SingletonInitializer#initializeAsync(org.bytemechanics.service.repository.ServiceSupplier, java.util.concurrent.Executor, java.lang.Object...) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Object> getAsync(final Object... _args) {
+		return (isSingleton())? getInitializer().initializeAsync(this, getExecutor(), _args) : CompletableFuture.supplyAsync(() -> get(_args),getExecutor());
+	}
+	/**
+	 * Service asynchronous initialization; if is singleton then instantiate it by calling #getAsync(), otherwise does nothing
+	 * @return future completed once the service is initialized, completed exceptionally with ServiceInitializationException when service can not be instantiated
+	 * @see #getAsync(java.lang.Object...) 
+	 * @since 1.4.0
+	 */
+	public default CompletableFuture<Void> initAsync(){
+		return (isSingleton())? getAsync().thenApply(instance -> null) : CompletableFuture.completedFuture(null);
+	}
 	/**
 	 * Service initialization; if is singleton then instantiate it by calling #get(), otherwise does nothing
 	 * @throws ServiceInitializationException when service can not be instantiated
@@ -184,50 +304,37 @@ public interface ServiceSupplier extends Supplier {
 		}
 	}
 	/**
-	 * Synchronized service dispose. if is singleton use the disposeConsumer with the current instance and reset serviceSupplier
+	 * Service dispose. if is singleton use the disposeConsumer with the current instance through #getInitializer() and reset serviceSupplier,
+	 * any concurrent singleton initialization waits until dispose finishes
 	 * @throws ServiceDisposeException when service can not be disposed
 	 * @see ServiceSupplier#reset() 
 	 * @see ServiceSupplier#getDisposeConsumer() 
+	 * @see SingletonInitializer#dispose(org.bytemechanics.service.repository.ServiceSupplier) 
 	 */
-	@SuppressWarnings("UseSpecificCatch")
 	public default void dispose(){
 		
 		if(isSingleton()){
-			Object current=getInstance();
-			if(current!=null){
-				synchronized(this){
-					current=getInstance();
-					if(current!=null){
-						getDisposeConsumer()
-							.accept(current);
-					}			
-				}
-			}
+			getInitializer().dispose(this);
+		}else{
+			reset();
 		}
-		reset();
 	}
 	
 	
 	/**
-	 * Utility method to generate implementation suppplier from the class implementation
+	 * Utility method to generate implementation suppplier from the class implementation.
+	 * Uses the compile time generated factory if exist, otherwise the constructor is resolved only once when the supplier is generated and invoked through a cached MethodHandle on each get
 	 * @param <T> implementation class type
 	 * @param _name service name
 	 * @param _implementation implementation class
 	 * @param _attributes attributes to use when instantiate implementation class
 	 * @return Instance supplier of the service implementation
 	 * @see Supplier
+	 * @see ConstructorSupplier
+	 * @see InstantiationEngine#GENERATED
 	 */
 	public static <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final Object... _attributes){
-		return () -> ObjectFactory.of(_implementation)
-							.with(_attributes)
-							.supplier()
-							.get()
-							.orElseThrow(() -> new ServiceInitializationException(_name,SimpleFormat
-																	.format("Unable to instantiate service with class {} using constructor({})", 
-																		_implementation,
-																		Optional.ofNullable(_attributes)
-																				.map(Arrays::asList)
-																				.orElse(Collections.emptyList()))));
+		return InstantiationEngine.GENERATED.generateSupplier(_name,_implementation,_attributes);
 	}
 	/**
 	 * Utility method to generate consumer implementation if no consumer provided:
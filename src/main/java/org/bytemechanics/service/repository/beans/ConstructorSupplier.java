@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+
+/**
+ * Implementation supplier that resolves the constructor only once (at creation time) and invokes it through a cached MethodHandle.
+ * The resolved constructor and its MethodHandle are shared by all the suppliers of the same implementation and argument types,
+ * so suppliers created on each get(args) call do not repeat the reflective lookup
+ * @param <T> implementation class type
+ * @author afarre
+ * @since 1.4.0
+ */
+public class ConstructorSupplier<T> implements Supplier<T>{
+
+	/**
+	 * Message format to use when service can not be instantiated
+	 */
+	protected static final String MESSAGE="Unable to instantiate service with class {} using constructor({})";
+
+	/**
+	 * Resolved constructors (and its handles) of each implementation by argument types, misses included
+	 */
+	private static final ClassValue<ConcurrentMap<List<Class<?>>,Optional<Resolved>>> RESOLVED=new ClassValue<ConcurrentMap<List<Class<?>>,Optional<Resolved>>>(){
+		@Override
+		protected ConcurrentMap<List<Class<?>>,Optional<Resolved>> computeValue(final Class<?> _implementation) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final String name;
+	private final Class<T> implementation;
+	private final Object[] arguments;
+	private final boolean lightweight;
+	private final Constructor<T> constructor;
+	private final MethodHandle constructorHandle;
+
+
+	/**
+	 * Constructor supplier constructor, resolves the _implementation constructor that match with the given _arguments
+	 * @param _name service name
+	 * @param _implementation implementation class
+	 * @param _arguments arguments to use when instantiate implementation class
+	 */
+	public ConstructorSupplier(final String _name,final Class<T> _implementation,final Object... _arguments){
+		this(_name, _implementation, false, _arguments);
+	}
+	/**
+	 * Constructor supplier constructor, resolves the _implementation constructor that match with the given _arguments
+	 * @param _name service name
+	 * @param _implementation implementation class
+	 * @param _lightweight true to raise the initialization exceptions always in low-cost mode, otherwise only when enabled globally
+	 * @param _arguments arguments to use when instantiate implementation class
+	 * @see LightweightExceptions
+	 */
+	public ConstructorSupplier(final String _name,final Class<T> _implementation,final boolean _lightweight,final Object[] _arguments){
+		this.name=_name;
+		this.implementation=_implementation;
+		this.arguments=(_arguments!=null)? _arguments : new Object[0];
+		this.lightweight=_lightweight;
+		final Optional<Resolved<T>> resolved=resolve(_implementation, this.arguments);
+		this.constructor=resolved.map(Resolved::getConstructor)
+									.orElse(null);
+		this.constructorHandle=resolved.map(Resolved::getHandle)
+										.orElse(null);
+	}
+
+
+	/**
+	 * @return service name
+	 */
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return implementation class
+	 */
+	public Class<T> getImplementation() {
+		return implementation;
+	}
+	/**
+	 * @return arguments to use with the constructor
+	 */
+	public Object[] getArguments() {
+		return arguments;
+	}
+	/**
+	 * @return the resolved constructor if exist
+	 */
+	public Optional<Constructor<T>> getConstructor() {
+		return Optional.ofNullable(constructor);
+	}
+
+	/**
+	 * Instantiate the implementation using the cached constructor
+	 * @return new implementation instance
+	 * @throws ServiceInitializationException when no constructor matches the arguments or the constructor fails
+	 */
+	@Override
+	@SuppressWarnings({"unchecked", "UseSpecificCatch"})
+	public T get() {
+
+		if(this.constructorHandle==null){
+			throw unableToInstantiate(null);
+		}
+		try {
+			return (T)this.constructorHandle.invokeExact(this.arguments);
+		} catch (ServiceInitializationException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw unableToInstantiate(e);
+		}
+	}
+
+	/**
+	 * Build the initialization exception to raise when the implementation can not be instantiated
+	 * @param _cause underlaying cause (optional)
+	 * @return initialization exception
+	 */
+	protected ServiceInitializationException unableToInstantiate(final Throwable _cause){
+		return new ServiceInitializationException(this.name,_cause,this.lightweight||LightweightExceptions.isEnabled(),MESSAGE,this.implementation,Arrays.asList(this.arguments));
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static <T> Optional<Resolved<T>> resolve(final Class<T> _implementation,final Object[] _arguments){
+
+		if(_implementation==null){
+			return Optional.empty();
+		}
+
+		final List<Class<?>> types=new ArrayList<>(_arguments.length);
+		for(Object argument:_arguments){
+			types.add((argument!=null)? argument.getClass() : null);
+		}
+
+		return (Optional)RESOLVED.get(_implementation)
+									.computeIfAbsent(types,key -> findConstructor(_implementation, _arguments)
+																	.map(found -> new Resolved<>(found, toMethodHandle(found))));
+	}
+
+	/**
+	 * Find the first public constructor of _implementation compatible with the given _arguments. Exact match is preferred
+	 * @param <T> implementation class type
+	 * @param _implementation implementation class
+	 * @param _arguments arguments to use with the constructor
+	 * @return the optional constructor, empty if no one matches
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Optional<Constructor<T>> findConstructor(final Class<T> _implementation,final Object... _arguments){
+
+		final Object[] args=(_arguments!=null)? _arguments : new Object[0];
+
+		return Optional.ofNullable(_implementation)
+					.map(implementation -> (Constructor<T>[])implementation.getConstructors())
+					.flatMap(constructors -> Stream.of(constructors)
+														.filter(candidate -> isExactMatch(candidate, args))
+														.findFirst()
+														.map(Optional::of)
+														.orElseGet(() -> Stream.of(constructors)
+																				.filter(candidate -> isCompatible(candidate, args))
+																				.findFirst()));
+	}
+
+	private static boolean isExactMatch(final Constructor<?> _constructor,final Object[] _arguments){
+
+		final Class[] parameters=_constructor.getParameterTypes();
+		boolean reply=(parameters.length==_arguments.length);
+
+		for(int ic1=0;reply&&ic1<parameters.length;ic1++){
+			reply=(_arguments[ic1]!=null)&&(parameters[ic1]==_arguments[ic1].getClass());
+		}
+
+		return reply;
+	}
+	private static boolean isCompatible(final Constructor<?> _constructor,final Object[] _arguments){
+
+		final Class[] parameters=_constructor.getParameterTypes();
+		boolean reply=(parameters.length==_arguments.length);
+
+		for(int ic1=0;reply&&ic1<parameters.length;ic1++){
+			reply=(_arguments[ic1]==null)? !parameters[ic1].isPrimitive() : wrap(parameters[ic1]).isInstance(_arguments[ic1]);
+		}
+
+		return reply;
+	}
+	private static Class wrap(final Class _type){
+		return (_type.isPrimitive())? MethodType.methodType(_type).wrap().returnType() : _type;
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private static MethodHandle toMethodHandle(final Constructor<?> _constructor){
+
+		MethodHandle reply;
+
+		try {
+			reply=MethodHandles.publicLookup()
+							.unreflectConstructor(_constructor);
+		} catch (IllegalAccessException e) {
+			try{
+				_constructor.setAccessible(true);
+				reply=MethodHandles.lookup()
+								.unreflectConstructor(_constructor);
+			}catch(Exception e2){
+				return reflectiveHandle(_constructor);
+			}
+		}
+
+		return reply.asSpreader(Object[].class, _constructor.getParameterCount())
+					.asType(MethodType.methodType(Object.class, Object[].class));
+	}
+	private static MethodHandle reflectiveHandle(final Constructor<?> _constructor){
+		try {
+			return MethodHandles.publicLookup()
+							.findVirtual(Constructor.class, "newInstance", MethodType.methodType(Object.class, Object[].class))
+							.bindTo(_constructor);
+		} catch (NoSuchMethodException|IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Constructor resolved for some argument types and its spreader MethodHandle
+	 */
+	private static final class Resolved<T>{
+
+		private final Constructor<T> constructor;
+		private final MethodHandle handle;
+
+		Resolved(final Constructor<T> _constructor,final MethodHandle _handle){
+			this.constructor=_constructor;
+			this.handle=_handle;
+		}
+
+		Constructor<T> getConstructor() {
+			return constructor;
+		}
+		MethodHandle getHandle() {
+			return handle;
+		}
+	}
+}
@@ -15,11 +15,26 @@
  */
 package org.bytemechanics.service.repository.beans;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceMetrics;
 import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
 import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
 import org.bytemechanics.service.repository.exceptions.UnableToSetInstanceException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
 
 /**
  * Default Service supplier implementation
@@ -30,14 +45,45 @@ import org.bytemechanics.service.repository.exceptions.UnableToSetInstanceExcept
  */
 public class DefaultServiceSupplier implements ServiceSupplier{
 
+	private static final Object[] NO_ARGS=new Object[0];
+	private static final AtomicReferenceFieldUpdater<DefaultServiceSupplier,Version> STATE=AtomicReferenceFieldUpdater.newUpdater(DefaultServiceSupplier.class, Version.class, "state");
+
+	/**
+	 * Immutable published state: supplier and singleton instance are always read and replaced together
+	 */
+	private static final class Version{
+		private final long number;
+		private final Supplier supplier;
+		private final Object instance;
+		private final Optional<Object> published;
+
+		Version(final long _number,final Supplier _supplier,final Object _instance){
+			this.number=_number;
+			this.supplier=_supplier;
+			this.instance=_instance;
+			this.published=Optional.ofNullable(_instance);
+		}
+	}
+
 	private final String name;
 	private final Supplier originalSupplier;
-	private Supplier supplier;
 	private final Consumer disposeConsumer;
 	private final Class adapter;
 	private final Class implementation;
 	private final boolean singleton;
-	private volatile Object instance;
+	private final Set<String> dependencies;
+	private final Executor executor;
+	private final SingletonInitializer initializer;
+	private final ServicePool pool;
+	private final ThreadConfinedInstances threadInstances;
+	private final KeyedInstanceCache keyedInstances;
+	private final long swapGracePeriod;
+	private final boolean lightweightExceptions;
+	private final long refreshTimeToLive;
+	private final long refreshLead;
+	private final ServiceCircuitBreaker circuitBreaker;
+	private final LazyServiceProxy lazyProxy;
+	private volatile Version state;
 	
 	
 	/**
@@ -53,20 +99,84 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 	 * @since 1.2.0
 	 */
 	public <T> DefaultServiceSupplier(final String _name,final Class<T> _adapter,final boolean _isSingleton,final Supplier<? extends T> _supplier,final Consumer<? extends T> _disposeConsumer,final Class<? extends T> _implementation,final Object... _args){
-		this.name=_name;
-		this.adapter=_adapter;
-		this.singleton=_isSingleton;
-		this.supplier=_supplier;
-		this.implementation=_implementation;
-		if(this.supplier==null){
-			if(_implementation==null){
-				throw new ServiceInitializationException(_name,"Unable to create service supplier without supplier or implementation");
+		this(_name, _adapter, _isSingleton, _supplier, _disposeConsumer, InstantiationEngine.GENERATED, _implementation, _args);
+	}
+	/**
+	 * Constructor of service supplier
+	 * @param <T> adapter class type
+	 * @param _name Service name
+	 * @param _adapter interface class that _implementation must implement
+	 * @param _isSingleton  singleton flag
+	 * @param _supplier adapter class implementation supplier
+	 * @param _disposeConsumer dispose consumer
+	 * @param _engine engine to use to generate the supplier from _implementation when no _supplier is provided
+	 * @param _implementation implementation of the _adapter (optional)
+	 * @param _args arguments to use with the implementation if necessary
+	 * @since 1.4.0
+	 */
+	public <T> DefaultServiceSupplier(final String _name,final Class<T> _adapter,final boolean _isSingleton,final Supplier<? extends T> _supplier,final Consumer<? extends T> _disposeConsumer,final InstantiationEngine _engine,final Class<? extends T> _implementation,final Object... _args){
+		this(new DefaultServiceSupplierBuilder<>(_adapter)
+						.name(_name)
+						.singleton(_isSingleton)
+						.supplier(_supplier)
+						.disposeConsumer(_disposeConsumer)
+						.engine(_engine)
+						.implementation(_implementation)
+						.args(_args));
+	}
+	/**
+	 * Constructor of service supplier from the builder values
+	 * @param <T> adapter class type
+	 * @param _builder builder with all the service supplier values
+	 * @since 1.4.0
+	 */
+	protected <T> DefaultServiceSupplier(final DefaultServiceSupplierBuilder<T> _builder){
+		this.name=_builder.name;
+		this.lightweightExceptions=_builder.lightweightExceptions;
+		this.adapter=_builder.adapter;
+		this.singleton=_builder.singleton;
+		this.implementation=_builder.implementation;
+		if((_builder.supplier==null)&&(this.implementation==null)){
+			throw new ServiceInitializationException(this.name,"Unable to create service supplier without supplier or implementation");
+		}
+		this.originalSupplier=(_builder.supplier!=null)? _builder.supplier : ((_builder.engine!=null)? _builder.engine : InstantiationEngine.GENERATED).generateSupplier(this.name,this.implementation,this.lightweightExceptions,_builder.args);
+		this.disposeConsumer=(_builder.disposeConsumer!=null)? _builder.disposeConsumer : ServiceSupplier.generateConsumer(this.name);
+		this.dependencies=Collections.unmodifiableSet(new LinkedHashSet<>(_builder.dependencies));
+		this.executor=_builder.executor;
+		this.initializer=new SingletonInitializer();
+		if(_builder.poolMax>0){
+			if(this.singleton){
+				throw new ServiceInitializationException(this.name,"Singleton services can not be pooled");
+			}
+			this.pool=new ServicePool(this.name, this::getSupplier, this.disposeConsumer, _builder.poolValidator, _builder.poolMin, _builder.poolMax, _builder.poolIdleTimeout, _builder.poolBorrowTimeout);
+		}else{
+			this.pool=null;
+		}
+		if(_builder.threadConfined){
+			if(this.singleton||(this.pool!=null)){
+				throw new ServiceInitializationException(this.name,"Thread-confined services can not be singleton nor pooled");
+			}
+			this.threadInstances=new ThreadConfinedInstances(this.name, this.disposeConsumer);
+		}else{
+			this.threadInstances=null;
+		}
+		if(_builder.keyedMaximumSize>0){
+			if(this.singleton||(this.pool!=null)||(this.threadInstances!=null)){
+				throw new ServiceInitializationException(this.name,"Keyed services can not be singleton, pooled nor thread-confined");
 			}
-			this.supplier=ServiceSupplier.generateSupplier(this.name,this.implementation,_args);
+			this.keyedInstances=new KeyedInstanceCache(this.name, this.disposeConsumer, _builder.keyedMaximumSize, _builder.keyedTimeToLive, _builder.poolIdleTimeout);
+		}else{
+			this.keyedInstances=null;
 		}
-		this.originalSupplier=this.supplier;
-		this.disposeConsumer=(_disposeConsumer!=null)? _disposeConsumer : ServiceSupplier.generateConsumer(this.name);
-		this.instance=null;
+		if((_builder.refreshTimeToLive>0)&&(!this.singleton)){
+			throw new ServiceInitializationException(this.name,"Refresh-ahead services must be singleton");
+		}
+		this.swapGracePeriod=_builder.swapGracePeriod;
+		this.refreshTimeToLive=_builder.refreshTimeToLive;
+		this.refreshLead=Math.min(_builder.refreshLead,_builder.refreshTimeToLive);
+		this.circuitBreaker=(_builder.circuitFailureThreshold>0)? new ServiceCircuitBreaker(this.name, _builder.circuitFailureThreshold, _builder.circuitBackoff, _builder.circuitOpenTime, (_builder.failureLogInterval>=0)? _builder.failureLogInterval : _builder.circuitOpenTime) : null;
+		this.state=new Version(0, this.originalSupplier, null);
+		this.lazyProxy=(_builder.lazyProxy)? new LazyServiceProxy(this) : null;
 	}
 
 	/**
@@ -101,21 +211,117 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 	public boolean isSingleton() {
 		return singleton;
 	}
+	/**
+	 * @return thread-confined indicator flag
+	 * @see ServiceSupplier#isThreadConfined() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public boolean isThreadConfined() {
+		return threadInstances!=null;
+	}
+	/**
+	 * @return names of the services that must be initialized before this one
+	 * @see ServiceSupplier#getDependencies() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public Set<String> getDependencies() {
+		return dependencies;
+	}
+	/**
+	 * @return executor to use with the asynchronous operations, if none has been configured the ServiceExecutors default one
+	 * @see ServiceSupplier#getExecutor() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public Executor getExecutor() {
+		return (this.executor!=null)? this.executor : ServiceExecutors.getDefault();
+	}
+	/**
+	 * @return the instance pool if the service is pooled
+	 * @see DefaultServiceSupplierBuilder#pooled(int, int) 
+	 * @since 1.4.0
+	 */	
+	public Optional<ServicePool> getPool() {
+		return Optional.ofNullable(pool);
+	}
+	/**
+	 * @return the failure policy of tryGet if the service has a circuit breaker
+	 * @see DefaultServiceSupplierBuilder#circuitBreaker(int, long, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */	
+	public Optional<ServiceCircuitBreaker> getCircuitBreaker() {
+		return Optional.ofNullable(circuitBreaker);
+	}
+	/**
+	 * @return the lazy proxy returned while the singleton instance does not exist if the service is lazy
+	 * @see DefaultServiceSupplierBuilder#lazyProxy(boolean) 
+	 * @since 1.4.0
+	 */	
+	public Optional<LazyServiceProxy> getLazyProxy() {
+		return Optional.ofNullable(lazyProxy);
+	}
+	/**
+	 * @return singleton initializer of this service
+	 * @see ServiceSupplier#getInitializer() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public SingletonInitializer getInitializer() {
+		return initializer;
+	}
+	/**
+	 * @return low-cost exceptions indicator flag of this service
+	 * @see ServiceSupplier#isLightweightExceptions() 
+	 * @see DefaultServiceSupplierBuilder#lightweightExceptions(boolean) 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public boolean isLightweightExceptions() {
+		return lightweightExceptions;
+	}
 	/**
 	 * @return supplier
 	 * @see ServiceSupplier#getSupplier() 
 	 */	
 	@Override
 	public Supplier getSupplier() {
-		return supplier;
+		return this.state.supplier;
 	}
 	/**
+	 * Publishes atomically a new version with the given _supplier keeping the current instance
 	 * @see ServiceSupplier#setSupplier(java.util.function.Supplier) 
 	 * @since 1.2.0
 	 */	
 	@Override
 	public void setSupplier(final Supplier _supplier) {
-		this.supplier=_supplier;
+		STATE.updateAndGet(this, current -> new Version(current.number+1, _supplier, current.instance));
+	}
+	/**
+	 * @return number of the current published version, increased on each supplier replacement
+	 * @since 1.4.0
+	 */	
+	public long getVersion() {
+		return this.state.number;
+	}
+	/**
+	 * @param _unit time unit
+	 * @return time to live of the singleton instances in the given _unit, 0 if the instances never expire
+	 * @see DefaultServiceSupplierBuilder#refreshAhead(long, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */	
+	public long getRefreshTimeToLive(final TimeUnit _unit) {
+		return _unit.convert(this.refreshTimeToLive,TimeUnit.NANOSECONDS);
+	}
+	/**
+	 * @param _unit time unit
+	 * @return grace period before dispose the previous singleton instance once swapped or refreshed in the given _unit
+	 * @see DefaultServiceSupplierBuilder#swapGracePeriod(long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */	
+	public long getSwapGracePeriod(final TimeUnit _unit) {
+		return _unit.convert(this.swapGracePeriod,TimeUnit.NANOSECONDS);
 	}
 	/**
 	 * @see ServiceSupplier#getDisposeConsumer() 
@@ -127,22 +333,235 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 	}
 
 	/**
+	 * Restores the original supplier and closes the circuit breaker if any
 	 * @see ServiceSupplier#reset() 
 	 * @since 1.3.0
 	 */	
 	@Override
 	public void reset() {
-		this.supplier=this.originalSupplier;
-		this.instance=null;
+		STATE.updateAndGet(this, current -> new Version((current.supplier==this.originalSupplier)? current.number : current.number+1, this.originalSupplier, null));
+		if(this.circuitBreaker!=null){
+			this.circuitBreaker.reset();
+		}
+	}
+	/**
+	 * Publishes the new supplier and clears the singleton instance with a single atomic write, the previous singleton instance is disposed once
+	 * the configured grace period elapses. Pooled services discard the idle instances and the borrowed ones once released
+	 * @see ServiceSupplier#swap(java.util.function.Supplier) 
+	 * @see DefaultServiceSupplierBuilder#swapGracePeriod(long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public CompletableFuture<Void> swap(final Supplier _supplier) {
+		return swap(_supplier, this.swapGracePeriod, TimeUnit.NANOSECONDS);
+	}
+	/**
+	 * Publishes the new supplier and clears the singleton instance with a single atomic write, the previous singleton instance is disposed once
+	 * the _gracePeriod elapses. Pooled services discard the idle instances and the borrowed ones once released and the circuit breaker, if any, is closed
+	 * @see ServiceSupplier#swap(java.util.function.Supplier, long, java.util.concurrent.TimeUnit) 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public CompletableFuture<Void> swap(final Supplier _supplier,final long _gracePeriod,final TimeUnit _unit) {
+
+		final CompletableFuture<Void> reply=this.initializer.replace(this, () -> STATE.updateAndGet(this, current -> new Version(current.number+1, _supplier, null)), _gracePeriod, _unit);
+
+		if(this.pool!=null){
+			this.pool.clear();
+		}
+		if(this.circuitBreaker!=null){
+			this.circuitBreaker.reset();
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Singleton services already instantiated return the published instance with a single volatile read, without locking nor allocation,
+	 * otherwise as #get(java.lang.Object...) without arguments
+	 * @see ServiceSupplier#get() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public Object get() {
+		
+		if(this.singleton){
+			final Object current=this.state.instance;
+			if(current!=null){
+				final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+				if(metrics!=null){
+					metrics.onGet(this.name);
+				}
+				return current;
+			}
+		}
+		
+		return get(NO_ARGS);
+	}
+	/**
+	 * Singleton services already instantiated return the published instance with a single volatile read, without locking nor allocation,
+	 * thread-confined services return the current thread instance creating it if necessary, keyed services return the cached instance for the _args
+	 * creating it if necessary, otherwise as ServiceSupplier#get(java.lang.Object...).
+	 * Lazy proxy singletons not yet instantiated return the proxy immediately when no _args are provided.
+	 * Pooled services are rejected because the returned instance could never be released back to the pool, use #borrow() instead
+	 * @see ServiceSupplier#get(java.lang.Object...) 
+	 * @see SingletonInitializer#initialize(org.bytemechanics.service.repository.ServiceSupplier, java.lang.Object...) 
+	 * @see ThreadConfinedInstances#get(java.util.function.Supplier) 
+	 * @see KeyedInstanceCache#get(java.lang.Object[], java.util.function.Supplier) 
+	 * @throws ServiceInitializationException if the service is pooled
+	 * @since 1.4.0
+	 */	
+	@Override
+	public Object get(final Object... _args) {
+
+		final Object reply;
+
+		final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+		if(metrics!=null){
+			metrics.onGet(this.name);
+		}
+		if(this.singleton){
+			final Object current=this.state.instance;
+			if(current!=null){
+				reply=current;
+			}else if((this.lazyProxy!=null)&&((_args==null)||(_args.length==0))){
+				reply=this.lazyProxy.getProxy();
+			}else{
+				reply=this.initializer.initialize(this, _args);
+			}
+		}else if(this.threadInstances!=null){
+			reply=this.threadInstances.get(() -> provideSupplier(_args).get());
+		}else if(this.keyedInstances!=null){
+			reply=this.keyedInstances.get(_args, () -> provideSupplier(_args));
+		}else if(this.pool!=null){
+			throw new ServiceInitializationException(this.name,"Pooled services must be obtained with borrow()");
+		}else{
+			reply=ServiceMetricsRegistry.instantiate(this.name, provideSupplier(_args));
+		}
+
+		return reply;
+	}
+	/**
+	 * Singleton services already instantiated return the same optional published with the instance, without allocation,
+	 * services with circuit breaker obtain the instance through it, otherwise as ServiceSupplier#tryGet(java.lang.Object...)
+	 * @see ServiceSupplier#tryGet(java.lang.Object...) 
+	 * @see ServiceCircuitBreaker#execute(java.util.function.Supplier) 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public Optional<Object> tryGet(final Object... _args) {
+
+		if(this.singleton){
+			final Optional<Object> current=this.state.published;
+			if(current.isPresent()){
+				final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+				if(metrics!=null){
+					metrics.onGet(this.name);
+				}
+				return current;
+			}
+		}
+		if(this.circuitBreaker!=null){
+			return this.circuitBreaker.execute(() -> get(_args));
+		}
+
+		return ServiceSupplier.super.tryGet(_args);
+	}
+	/**
+	 * Pooled services borrow the instance from the pool, otherwise as ServiceSupplier#borrow()
+	 * @see ServiceSupplier#borrow() 
+	 * @see ServicePool#borrow() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public ServiceLease<Object> borrow() {
+		return (this.pool!=null)? this.pool.borrow() : ServiceSupplier.super.borrow();
+	}
+	/**
+	 * Pooled services creates the pool minimum instances, lazy proxy singletons start the instantiation in background without waiting for it,
+	 * otherwise as ServiceSupplier#init()
+	 * @see ServiceSupplier#init() 
+	 * @see ServicePool#prefill() 
+	 * @see #initAsync() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public void init() {
+		if(this.lazyProxy!=null){
+			initAsync();
+		}else{
+			ServiceSupplier.super.init();
+		}
+		if(this.pool!=null){
+			this.pool.prefill();
+		}
 	}
+	/**
+	 * Lazy proxy singletons start the instantiation in background with the service executor and return a completed future, failures are logged and
+	 * the instantiation is retried on the first proxy call, otherwise as ServiceSupplier#initAsync()
+	 * @see ServiceSupplier#initAsync() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public CompletableFuture<Void> initAsync() {
 
+		if(this.lazyProxy!=null){
+			this.initializer.initializeAsync(this, getExecutor())
+								.whenComplete((instance,failure) -> {
+									if(failure!=null){
+										Logger.getLogger(DefaultServiceSupplier.class.getName()).log(Level.SEVERE,failure,() -> SimpleFormat.format("service::supplier::lazy::{}::fail::{}",this.name,failure.getMessage()));
+									}
+								});
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return ServiceSupplier.super.initAsync();
+	}
+	/**
+	 * Pooled services destroys all the idle instances and the borrowed ones once released,
+	 * thread-confined services destroys the instances of all threads, keyed services destroys all the cached instances, otherwise as ServiceSupplier#dispose()
+	 * @see ServiceSupplier#dispose() 
+	 * @see ServicePool#clear() 
+	 * @see ThreadConfinedInstances#clear() 
+	 * @see KeyedInstanceCache#clear() 
+	 * @since 1.4.0
+	 */	
+	@Override
+	public void dispose() {
+		ServiceSupplier.super.dispose();
+		if(this.pool!=null){
+			this.pool.clear();
+		}
+		if(this.threadInstances!=null){
+			this.threadInstances.clear();
+		}
+		if(this.keyedInstances!=null){
+			this.keyedInstances.clear();
+		}
+	}
+	/**
+	 * @return the per-thread instances if the service is thread-confined
+	 * @see DefaultServiceSupplierBuilder#threadConfined(boolean) 
+	 * @since 1.4.0
+	 */	
+	public Optional<ThreadConfinedInstances> getThreadInstances() {
+		return Optional.ofNullable(threadInstances);
+	}
+	/**
+	 * @return the instances cache by arguments if the service is keyed
+	 * @see DefaultServiceSupplierBuilder#keyed(int) 
+	 * @since 1.4.0
+	 */	
+	public Optional<KeyedInstanceCache> getKeyedInstances() {
+		return Optional.ofNullable(keyedInstances);
+	}
 	/**
 	 * @return current service instance or null
 	 * @see ServiceSupplier#getInstance() 
 	 */	
 	@Override
 	public Object getInstance() {
-		return instance;
+		return this.state.instance;
 	}
 	/**
 	 * @param _instance instance to store
@@ -152,9 +571,26 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 	public void setInstance(final Object _instance) {
 		
 		if((_instance!=null)&&(!getAdapter().isAssignableFrom(_instance.getClass()))){
-			throw new UnableToSetInstanceException(_instance,getAdapter());
+			throw new UnableToSetInstanceException(this.name,_instance,getAdapter(),LightweightExceptions.isEnabled(this));
+		}
+		STATE.updateAndGet(this, current -> new Version(current.number, current.supplier, _instance));
+		if((_instance!=null)&&(this.refreshTimeToLive>0)){
+			scheduleRefresh(_instance, this.refreshTimeToLive-this.refreshLead);
+		}
+	}
+	private void scheduleRefresh(final Object _expiring,final long _delay){
+		ServiceExecutors.schedule(() -> getExecutor().execute(() -> refresh(_expiring)), _delay, TimeUnit.NANOSECONDS);
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private void refresh(final Object _expiring){
+		if(this.state.instance==_expiring){
+			try{
+				this.initializer.refresh(this, _expiring, this.swapGracePeriod, TimeUnit.NANOSECONDS);
+			}catch(Throwable e){
+				Logger.getLogger(DefaultServiceSupplier.class.getName()).log(Level.SEVERE,e,() -> SimpleFormat.format("service::supplier::refresh::{}::fail::{}",this.name,e.getMessage()));
+				scheduleRefresh(_expiring, (this.refreshLead>0)? this.refreshLead : this.refreshTimeToLive);
+			}
 		}
-		this.instance = _instance;
 	}
 	
 	/**
@@ -171,6 +607,26 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 		private boolean singleton;
 		private Consumer<? extends TYPE> disposeConsumer;
 		private Object[] args;
+		private InstantiationEngine engine;
+		private final Set<String> dependencies;
+		private Executor executor;
+		private int poolMin;
+		private int poolMax;
+		private long poolIdleTimeout;
+		private long poolBorrowTimeout;
+		private Predicate<? super TYPE> poolValidator;
+		private boolean threadConfined;
+		private int keyedMaximumSize;
+		private long keyedTimeToLive;
+		private long swapGracePeriod;
+		private long refreshTimeToLive;
+		private long refreshLead;
+		private int circuitFailureThreshold;
+		private long circuitBackoff;
+		private long circuitOpenTime;
+		private long failureLogInterval;
+		private boolean lightweightExceptions;
+		private boolean lazyProxy;
 	
 		public DefaultServiceSupplierBuilder(final Class<TYPE> _adapter){
 			this.name=null;
@@ -180,6 +636,26 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 			this.singleton=false;
 			this.args=new Object[0];
 			this.disposeConsumer=null;
+			this.engine=InstantiationEngine.GENERATED;
+			this.dependencies=new LinkedHashSet<>();
+			this.executor=null;
+			this.poolMin=0;
+			this.poolMax=0;
+			this.poolIdleTimeout=-1;
+			this.poolBorrowTimeout=-1;
+			this.poolValidator=null;
+			this.threadConfined=false;
+			this.keyedMaximumSize=0;
+			this.keyedTimeToLive=-1;
+			this.swapGracePeriod=0;
+			this.refreshTimeToLive=0;
+			this.refreshLead=0;
+			this.circuitFailureThreshold=0;
+			this.circuitBackoff=0;
+			this.circuitOpenTime=0;
+			this.failureLogInterval=-1;
+			this.lightweightExceptions=false;
+			this.lazyProxy=false;
 		}
 		
 		/**
@@ -228,6 +704,204 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 			this.implementation = _implementation;
 			return this;
 		}
+		/**
+		 * Sets the engine to use to generate the supplier from the implementation to the builder
+		 * @param _engine value
+		 * @return DefaultServiceSupplierBuilder
+		 * @see InstantiationEngine
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> engine(final InstantiationEngine _engine) {
+			this.engine = _engine;
+			return this;
+		}
+		/**
+		 * Adds the names of the services that must be initialized before this one (and disposed after it) to the builder
+		 * @param _services names of the services this one depends on
+		 * @return DefaultServiceSupplierBuilder
+		 * @see ServiceSupplier#getDependencies() 
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> dependsOn(final String... _services) {
+			if(_services!=null){
+				this.dependencies.addAll(Arrays.asList(_services));
+			}
+			return this;
+		}
+		/**
+		 * Sets the executor to use with the asynchronous operations to the builder
+		 * @param _executor value, if null the ServiceExecutors default one is used
+		 * @return DefaultServiceSupplierBuilder
+		 * @see ServiceExecutors#getDefault() 
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> executor(final Executor _executor) {
+			this.executor = _executor;
+			return this;
+		}
+		/**
+		 * Sets the service as pooled to the builder, instances are borrowed from a bounded pool and recycled when released.
+		 * Pooled services can only be obtained through ServiceSupplier#borrow(), any get call fails
+		 * @param _min minimum number of instances to keep (created on init)
+		 * @param _max maximum number of instances
+		 * @return DefaultServiceSupplierBuilder
+		 * @see ServiceSupplier#borrow() 
+		 * @see ServicePool
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> pooled(final int _min,final int _max) {
+			this.poolMin = _min;
+			this.poolMax = _max;
+			return this;
+		}
+		/**
+		 * Sets the service as keyed to the builder, instances are cached by the get arguments up to the given size evicting the least recently used
+		 * @param _maximumSize maximum number of cached instances
+		 * @return DefaultServiceSupplierBuilder
+		 * @see KeyedInstanceCache
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> keyed(final int _maximumSize) {
+			this.keyedMaximumSize = _maximumSize;
+			return this;
+		}
+		/**
+		 * Sets the maximum time since creation a keyed instance can be cached before be evicted to the builder
+		 * @param _timeToLive value, zero or negative to never expire
+		 * @param _unit time unit of _timeToLive
+		 * @return DefaultServiceSupplierBuilder
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> timeToLive(final long _timeToLive,final TimeUnit _unit) {
+			this.keyedTimeToLive = (_timeToLive>0)? _unit.toNanos(_timeToLive) : -1;
+			return this;
+		}
+		/**
+		 * Sets the maximum time a pooled or keyed instance can be idle before be evicted to the builder
+		 * @param _timeout value, zero or negative to never evict
+		 * @param _unit time unit of _timeout
+		 * @return DefaultServiceSupplierBuilder
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> idleTimeout(final long _timeout,final TimeUnit _unit) {
+			this.poolIdleTimeout = (_timeout>0)? _unit.toNanos(_timeout) : -1;
+			return this;
+		}
+		/**
+		 * Sets the maximum time to wait to borrow a pooled instance when all are in use to the builder
+		 * @param _timeout value, negative to wait indefinitely
+		 * @param _unit time unit of _timeout
+		 * @return DefaultServiceSupplierBuilder
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> borrowTimeout(final long _timeout,final TimeUnit _unit) {
+			this.poolBorrowTimeout = (_timeout>=0)? _unit.toNanos(_timeout) : -1;
+			return this;
+		}
+		/**
+		 * Sets the predicate to validate pooled instances before borrow them to the builder, invalid instances are destroyed
+		 * @param _validator value
+		 * @return DefaultServiceSupplierBuilder
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> validator(final Predicate<? super TYPE> _validator) {
+			this.poolValidator = _validator;
+			return this;
+		}
+		/**
+		 * Sets the thread-confined scope to the builder, each thread lazily creates and reuses its own instance
+		 * @param _threadConfined value
+		 * @return DefaultServiceSupplierBuilder
+		 * @see ThreadConfinedInstances
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> threadConfined(final boolean _threadConfined) {
+			this.threadConfined = _threadConfined;
+			return this;
+		}
+		/**
+		 * Sets the time to wait before dispose the previous singleton instance when the supplier is swapped or the instance refreshed to the builder
+		 * @param _gracePeriod value, zero or negative to dispose immediately
+		 * @param _unit time unit of _gracePeriod
+		 * @return DefaultServiceSupplierBuilder
+		 * @see DefaultServiceSupplier#swap(java.util.function.Supplier) 
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> swapGracePeriod(final long _gracePeriod,final TimeUnit _unit) {
+			this.swapGracePeriod = (_gracePeriod>0)? _unit.toNanos(_gracePeriod) : 0;
+			return this;
+		}
+		/**
+		 * Sets the singleton instance time to live to the builder, the replacement is built in background with the service executor _lead time before
+		 * the instance expires and published without blocking the callers, that keep obtaining the expiring instance meanwhile. Once published the expiring
+		 * instance is disposed after the swap grace period. If the rebuild fails the expiring instance is kept and the rebuild is retried each _lead time
+		 * @param _timeToLive value, zero or negative to never expire
+		 * @param _lead time before expiration to start the rebuild
+		 * @param _unit time unit of _timeToLive and _lead
+		 * @return DefaultServiceSupplierBuilder
+		 * @see #swapGracePeriod(long, java.util.concurrent.TimeUnit) 
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> refreshAhead(final long _timeToLive,final long _lead,final TimeUnit _unit) {
+			this.refreshTimeToLive = (_timeToLive>0)? _unit.toNanos(_timeToLive) : 0;
+			this.refreshLead = (_lead>0)? _unit.toNanos(_lead) : 0;
+			return this;
+		}
+		/**
+		 * Sets the failure policy of tryGet to the builder, each failure is cached during _backoff returning empty without retrying,
+		 * after _failureThreshold consecutive failures the circuit opens rejecting all calls during _openTime and then allows a single probe
+		 * @param _failureThreshold consecutive failures to open the circuit, zero or negative to disable the circuit breaker
+		 * @param _backoff time to reject the calls after each failure while the circuit is closed
+		 * @param _openTime time to reject the calls once the circuit is open
+		 * @param _unit time unit of _backoff and _openTime
+		 * @return DefaultServiceSupplierBuilder
+		 * @see ServiceCircuitBreaker
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> circuitBreaker(final int _failureThreshold,final long _backoff,final long _openTime,final TimeUnit _unit) {
+			this.circuitFailureThreshold = Math.max(0,_failureThreshold);
+			this.circuitBackoff = (_backoff>0)? _unit.toNanos(_backoff) : 0;
+			this.circuitOpenTime = (_openTime>0)? _unit.toNanos(_openTime) : 0;
+			return this;
+		}
+		/**
+		 * Sets the minimum time between two tryGet failures logged with stack trace to the builder, the failures in between are logged without it.
+		 * Only applies to services with circuit breaker, by default the circuit open time
+		 * @param _interval value, zero or negative to log all failures with stack trace
+		 * @param _unit time unit of _interval
+		 * @return DefaultServiceSupplierBuilder
+		 * @see #circuitBreaker(int, long, long, java.util.concurrent.TimeUnit) 
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> failureLogInterval(final long _interval,final TimeUnit _unit) {
+			this.failureLogInterval = (_interval>0)? _unit.toNanos(_interval) : 0;
+			return this;
+		}
+		/**
+		 * Sets the low-cost exceptions mode of this service to the builder, its exceptions are created without stack trace and with the message formatted
+		 * only when requested. Useful when the failures are expected and discarded, for example through tryGet
+		 * @param _lightweight value
+		 * @return DefaultServiceSupplierBuilder
+		 * @see LightweightExceptions
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> lightweightExceptions(final boolean _lightweight) {
+			this.lightweightExceptions = _lightweight;
+			return this;
+		}
+		/**
+		 * Sets the singleton as lazy proxy to the builder, while the singleton instance does not exist get returns immediately a proxy of the adapter interface
+		 * that forwards all calls to the instance. The instance is created in background on init or on the first proxy call, whatever happens first,
+		 * so the startup does not wait for it. Once the instance is published get returns it directly
+		 * @param _lazyProxy value
+		 * @return DefaultServiceSupplierBuilder
+		 * @see LazyServiceProxy
+		 * @since 1.4.0
+		 */
+		public DefaultServiceSupplierBuilder<TYPE> lazyProxy(final boolean _lazyProxy) {
+			this.lazyProxy = _lazyProxy;
+			return this;
+		}
 		/**
 		 * Sets the singleton to the builder
 		 * @param _singleton value
@@ -243,7 +917,7 @@ public class DefaultServiceSupplier implements ServiceSupplier{
 		 * @return DefaultServiceSupplier
 		 */
 		public DefaultServiceSupplier build() {
-			return new DefaultServiceSupplier(name, adapter, singleton, supplier,disposeConsumer,implementation,args);
+			return new DefaultServiceSupplier(this);
 		}
 	}
 
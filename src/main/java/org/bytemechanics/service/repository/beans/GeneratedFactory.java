@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Reflection-free factory for one implementation constructor, tipically generated at compile time as <code>args -&gt; new Implementation((Type)args[0],...)</code>
+ * @param <T> implementation class type
+ * @author afarre
+ * @since 1.4.0
+ * @see org.bytemechanics.service.repository.ServiceFactoryIndex
+ */
+public final class GeneratedFactory<T> {
+
+	/**
+	 * Direct constructor invocation
+	 * @param <T> implementation class type
+	 */
+	@FunctionalInterface
+	public static interface Instantiator<T>{
+		/**
+		 * Create a new instance
+		 * @param _args constructor arguments, already validated against the parameter types
+		 * @return new instance
+		 * @throws Exception any exception raised by the constructor
+		 */
+		public T newInstance(final Object[] _args) throws Exception;
+	}
+
+	private final Class<T> implementation;
+	private final Class[] parameterTypes;
+	private final Instantiator<T> instantiator;
+
+
+	/**
+	 * Generated factory constructor
+	 * @param _implementation implementation class
+	 * @param _parameterTypes constructor parameter types
+	 * @param _instantiator direct constructor invocation
+	 */
+	public GeneratedFactory(final Class<T> _implementation,final Class[] _parameterTypes,final Instantiator<T> _instantiator){
+		this.implementation=_implementation;
+		this.parameterTypes=_parameterTypes;
+		this.instantiator=_instantiator;
+	}
+
+
+	/**
+	 * @return implementation class
+	 */
+	public Class<T> getImplementation() {
+		return implementation;
+	}
+	/**
+	 * @return constructor parameter types
+	 */
+	public Class[] getParameterTypes() {
+		return parameterTypes.clone();
+	}
+
+	/**
+	 * Check if the given _args classes are exactly the constructor parameter types
+	 * @param _args arguments to check
+	 * @return true if the arguments classes are exactly the constructor parameter types
+	 */
+	public boolean matchesExactly(final Object... _args){
+
+		final Object[] args=(_args!=null)? _args : new Object[0];
+		boolean reply=(this.parameterTypes.length==args.length);
+
+		for(int ic1=0;reply&&ic1<this.parameterTypes.length;ic1++){
+			reply=(args[ic1]!=null)&&(this.parameterTypes[ic1]==args[ic1].getClass());
+		}
+
+		return reply;
+	}
+	/**
+	 * Check if the given _args can be used with this factory constructor
+	 * @param _args arguments to check
+	 * @return true if the arguments are compatible with the constructor parameter types
+	 */
+	public boolean matches(final Object... _args){
+
+		final Object[] args=(_args!=null)? _args : new Object[0];
+		boolean reply=(this.parameterTypes.length==args.length);
+
+		for(int ic1=0;reply&&ic1<this.parameterTypes.length;ic1++){
+			reply=(args[ic1]==null)? !this.parameterTypes[ic1].isPrimitive() 
+								: MethodType.methodType(this.parameterTypes[ic1]).wrap().returnType().isInstance(args[ic1]);
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Generate the supplier that creates new instances with the given _args
+	 * @param _name service name
+	 * @param _args arguments to use with the constructor
+	 * @return Instance supplier of the service implementation
+	 */
+	public Supplier<T> supplier(final String _name,final Object... _args){
+		return supplier(_name, false, _args);
+	}
+	/**
+	 * Generate the supplier that creates new instances with the given _args
+	 * @param _name service name
+	 * @param _lightweight true to raise the initialization exceptions always in low-cost mode, otherwise only when enabled globally
+	 * @param _args arguments to use with the constructor
+	 * @return Instance supplier of the service implementation
+	 * @see LightweightExceptions
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public Supplier<T> supplier(final String _name,final boolean _lightweight,final Object[] _args){
+
+		final Object[] args=(_args!=null)? _args : new Object[0];
+
+		return () -> {
+			try{
+				return this.instantiator.newInstance(args);
+			}catch(ServiceInitializationException e){
+				throw e;
+			}catch(Exception e){
+				throw new ServiceInitializationException(_name,e,_lightweight||LightweightExceptions.isEnabled(),ConstructorSupplier.MESSAGE,this.implementation,Arrays.asList(args));
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("GeneratedFactory[implementation={}, parameterTypes={}]",implementation,Arrays.asList(parameterTypes));
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceFactoryIndex;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Engines available to generate the implementation supplier when the service is defined by its implementation class
+ * @author afarre
+ * @since 1.4.0
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#engine(InstantiationEngine)
+ */
+public enum InstantiationEngine {
+
+	/**
+	 * Uses the reflection-free factories generated at compile time (see ServiceFactoryIndex) when available for the implementation and arguments,
+	 * otherwise falls back to METHOD_HANDLE. This is the default engine
+	 * @see ServiceFactoryIndex
+	 * @see GeneratedFactory
+	 */
+	GENERATED{
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final boolean _lightweight,final Object[] _args){
+			
+			final List<GeneratedFactory<?>> candidates=GeneratedFactoryIndex.INDEX.getOrDefault(_implementation,Collections.emptyList());
+
+			final Optional<GeneratedFactory<?>> exact=candidates.stream()
+																.filter(factory -> factory.matchesExactly(_args))
+																.findFirst();
+
+			return ((exact.isPresent())? exact : candidates.stream()
+																.filter(factory -> factory.matches(_args))
+																.findFirst())
+						.map(factory -> ((GeneratedFactory<T>)factory).supplier(_name,_lightweight,_args))
+						.orElseGet(() -> METHOD_HANDLE.generateSupplier(_name, _implementation, _lightweight, _args));
+		}
+	},
+	/**
+	 * Resolves the constructor once and invoke it through a cached MethodHandle
+	 * @see ConstructorSupplier
+	 */
+	METHOD_HANDLE{
+		@Override
+		public <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final boolean _lightweight,final Object[] _args){
+			return new ConstructorSupplier<>(_name,_implementation,_lightweight,_args);
+		}
+	},
+	/**
+	 * Resolves the constructor once and spins a real Supplier through LambdaMetafactory capturing the arguments,
+	 * equivalent to write <code>() -&gt; new Implementation(args)</code>. The spun factory is cached by implementation and constructor parameter types. As with hand written suppliers, any exception raised by the constructor is propagated as is.
+	 * Falls back to METHOD_HANDLE when the constructor is not reachable (non public or not visible from this class loader) or does not exist
+	 * @see LambdaMetafactory
+	 */
+	LAMBDA_METAFACTORY{
+		@Override
+		@SuppressWarnings({"unchecked", "UseSpecificCatch"})
+		public <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final boolean _lightweight,final Object[] _args){
+
+			final ConstructorSupplier<T> fallback=new ConstructorSupplier<>(_name,_implementation,_lightweight,_args);
+
+			return fallback.getConstructor()
+						.filter(InstantiationEngine::isLinkable)
+						.map(constructor -> {
+							try{
+								return (Supplier<T>)SpunSuppliers.get(constructor)
+														.invokeWithArguments(fallback.getArguments());
+							}catch(Throwable e){
+								Logger.getLogger(InstantiationEngine.class.getName()).log(Level.FINER,e,() -> SimpleFormat.format("service::supplier::{}::engine::{}::fallback::{}",_name,name(),e.getMessage()));
+								return null;
+							}
+						})
+						.orElse(fallback);
+		}
+	},
+	;
+
+	/**
+	 * Generate the supplier for the given _implementation using the given _args
+	 * @param <T> implementation class type
+	 * @param _name service name
+	 * @param _implementation implementation class
+	 * @param _args arguments to use when instantiate implementation class
+	 * @return Instance supplier of the service implementation
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceInitializationException (on get) when the implementation can not be instantiated
+	 */
+	public <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final Object... _args){
+		return generateSupplier(_name, _implementation, false, _args);
+	}
+	/**
+	 * Generate the supplier for the given _implementation using the given _args
+	 * @param <T> implementation class type
+	 * @param _name service name
+	 * @param _implementation implementation class
+	 * @param _lightweight true to raise the initialization exceptions always in low-cost mode, otherwise only when enabled globally
+	 * @param _args arguments to use when instantiate implementation class
+	 * @return Instance supplier of the service implementation
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceInitializationException (on get) when the implementation can not be instantiated
+	 * @see org.bytemechanics.service.repository.exceptions.LightweightExceptions
+	 */
+	public abstract <T> Supplier<T> generateSupplier(final String _name,final Class<T> _implementation,final boolean _lightweight,final Object[] _args);
+
+
+	/**
+	 * Lazy holder of all the ServiceFactoryIndex available, indexed by implementation
+	 */
+	private static final class GeneratedFactoryIndex{
+
+		static final Map<Class,List<GeneratedFactory<?>>> INDEX=load();
+
+		private static Map<Class,List<GeneratedFactory<?>>> load(){
+			
+			final Map<Class,List<GeneratedFactory<?>>> reply=new HashMap<>();
+			
+			try{
+				for(ServiceFactoryIndex index:ServiceLoader.load(ServiceFactoryIndex.class)){
+					index.getFactories()
+						.forEach(factory -> reply.computeIfAbsent(factory.getImplementation(), implementation -> new ArrayList<>())
+													.add(factory));
+				}
+			}catch(ServiceConfigurationError e){
+				Logger.getLogger(InstantiationEngine.class.getName()).log(Level.WARNING,e,() -> SimpleFormat.format("service::supplier::engine::{}::index::fail::{}",GENERATED.name(),e.getMessage()));
+			}
+
+			return Collections.unmodifiableMap(reply);
+		}
+	}
+
+	/**
+	 * Lambda factories already spun of each implementation by constructor parameter types, held by the implementation class so they do not pin its class loader
+	 */
+	private static final class SpunSuppliers{
+
+		static final ClassValue<ConcurrentMap<List<Class<?>>,MethodHandle>> CACHE=new ClassValue<ConcurrentMap<List<Class<?>>,MethodHandle>>(){
+			@Override
+			protected ConcurrentMap<List<Class<?>>,MethodHandle> computeValue(final Class<?> _implementation) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+
+		static MethodHandle get(final Constructor<?> _constructor) throws Throwable{
+
+			final ConcurrentMap<List<Class<?>>,MethodHandle> spun=CACHE.get(_constructor.getDeclaringClass());
+			final List<Class<?>> parameterTypes=Arrays.asList(_constructor.getParameterTypes());
+			MethodHandle reply=spun.get(parameterTypes);
+
+			if(reply==null){
+				reply=spinSupplier(_constructor);
+				final MethodHandle previous=spun.putIfAbsent(parameterTypes, reply);
+				reply=(previous!=null)? previous : reply;
+			}
+
+			return reply;
+		}
+	}
+
+	private static boolean isLinkable(final Constructor<?> _constructor){
+
+		final Class<?> implementation=_constructor.getDeclaringClass();
+		boolean reply=Modifier.isPublic(implementation.getModifiers())&&Modifier.isPublic(_constructor.getModifiers());
+
+		if(reply){
+			try {
+				reply=(Class.forName(implementation.getName(),false,InstantiationEngine.class.getClassLoader())==implementation);
+			} catch (ClassNotFoundException|LinkageError e) {
+				reply=false;
+			}
+		}
+
+		return reply;
+	}
+	private static MethodHandle spinSupplier(final Constructor<?> _constructor) throws Throwable{
+
+		final MethodHandles.Lookup lookup=MethodHandles.lookup();
+		final MethodHandle constructorHandle=lookup.unreflectConstructor(_constructor);
+		final CallSite site=LambdaMetafactory.metafactory(lookup
+															, "get"
+															, MethodType.methodType(Supplier.class,_constructor.getParameterTypes())
+															, MethodType.methodType(Object.class)
+															, constructorHandle
+															, MethodType.methodType(_constructor.getDeclaringClass()));
+		return site.getTarget();
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Cache of service instances keyed by the instantiation arguments (multiton). The cache is bounded by size with least recently used eviction,
+ * and instances can expire after a time to live since creation and/or an idle time since last access. Expiration is checked on each access and periodically
+ * in the shared scheduler, so expired instances are destroyed even if its arguments are never requested again. Evicted instances are destroyed with the dispose consumer.
+ * Instances are created outside the cache lock, so if two threads miss the same arguments at the same time only the first stored instance is kept and the other is destroyed
+ * @author afarre
+ * @since 1.4.0
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#keyed(int) 
+ */
+public final class KeyedInstanceCache {
+
+	private static final class Key{
+		private final Object[] args;
+		private final int hash;
+
+		Key(final Object[] _args){
+			this.args=(_args!=null)? _args.clone() : new Object[0];
+			this.hash=Arrays.deepHashCode(this.args);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		@Override
+		public boolean equals(final Object _other) {
+			return (this==_other)||((_other instanceof Key)&&(Arrays.deepEquals(this.args,((Key)_other).args)));
+		}
+	}
+	private static final class Entry{
+		private final Object instance;
+		private final long created;
+		private long lastAccess;
+
+		Entry(final Object _instance,final long _now){
+			this.instance=_instance;
+			this.created=_now;
+			this.lastAccess=_now;
+		}
+	}
+
+	private final String name;
+	private final Consumer destroyer;
+	private final int maximumSize;
+	private final long timeToLive;
+	private final long idleTimeout;
+	private final LinkedHashMap<Key,Entry> entries;
+	private final ReentrantLock lock;
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+
+	/**
+	 * Keyed cache constructor
+	 * @param _name service name
+	 * @param _destroyer consumer to destroy the evicted instances
+	 * @param _maximumSize maximum number of cached instances
+	 * @param _timeToLive maximum time in nanoseconds since creation, zero or negative to never expire
+	 * @param _idleTimeout maximum time in nanoseconds since last access, zero or negative to never expire
+	 * @throws ServiceInitializationException if _maximumSize is lower than 1
+	 */
+	public KeyedInstanceCache(final String _name,final Consumer _destroyer,final int _maximumSize,final long _timeToLive,final long _idleTimeout){
+		if(_maximumSize<1){
+			throw new ServiceInitializationException(_name,SimpleFormat.format("Invalid keyed cache maximum size {}",_maximumSize));
+		}
+		this.name=_name;
+		this.destroyer=_destroyer;
+		this.maximumSize=_maximumSize;
+		this.timeToLive=_timeToLive;
+		this.idleTimeout=_idleTimeout;
+		this.entries=new LinkedHashMap<>(16,0.75f,true);
+		this.lock=new ReentrantLock();
+		this.hits=new LongAdder();
+		this.misses=new LongAdder();
+		this.evictions=new LongAdder();
+		final long period=Math.min((_timeToLive>0)? _timeToLive : Long.MAX_VALUE,(_idleTimeout>0)? _idleTimeout : Long.MAX_VALUE);
+		if(period<Long.MAX_VALUE){
+			ServiceExecutors.schedulePeriodically(this, KeyedInstanceCache::cleanUp, Math.max(period,TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+		}
+	}
+
+
+	/**
+	 * @return maximum number of cached instances
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+	/**
+	 * @return number of cached instances
+	 */
+	public int getSize() {
+		this.lock.lock();
+		try{
+			return this.entries.size();
+		}finally{
+			this.lock.unlock();
+		}
+	}
+	/**
+	 * @return number of calls that returned a cached instance
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+	/**
+	 * @return number of calls that required a new instance
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+	/**
+	 * @return number of evicted instances (by size, time to live or idle time)
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the cached instance for the given _args creating it with the _factory if does not exist or has expired
+	 * @param _args instantiation arguments used as key
+	 * @param _factory provider of the supplier to create the instance for _args
+	 * @return the cached instance
+	 * @throws ServiceInitializationException when the instance can not be created
+	 */
+	public Object get(final Object[] _args,final Supplier<Supplier> _factory){
+
+		final Key key=new Key(_args);
+		final long now=System.nanoTime();
+		List<Entry> evicted=null;
+		Object reply=null;
+
+		this.lock.lock();
+		try{
+			final Entry entry=this.entries.get(key);
+			if(entry!=null){
+				if(isExpired(entry, now)){
+					this.entries.remove(key);
+					evicted=new ArrayList<>();
+					evicted.add(entry);
+				}else{
+					entry.lastAccess=now;
+					reply=entry.instance;
+				}
+			}
+		}finally{
+			this.lock.unlock();
+		}
+		if(reply!=null){
+			this.hits.increment();
+		}else{
+			this.misses.increment();
+			reply=store(key, ServiceMetricsRegistry.instantiate(this.name,_factory.get()), evicted);
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Destroys all the expired instances, called periodically while time to live or idle timeout are enabled
+	 */
+	public void cleanUp(){
+
+		final List<Entry> evicted=new ArrayList<>();
+		final long now=System.nanoTime();
+
+		this.lock.lock();
+		try{
+			for(Iterator<Entry> iterator=this.entries.values().iterator();iterator.hasNext();){
+				final Entry entry=iterator.next();
+				if(isExpired(entry, now)){
+					iterator.remove();
+					evicted.add(entry);
+				}
+			}
+		}finally{
+			this.lock.unlock();
+		}
+		evicted.forEach(this::evict);
+	}
+
+	/**
+	 * Destroys all the cached instances
+	 * @throws ServiceDisposeException if any instance can not be destroyed, only the first failure is thrown after all instances are destroyed
+	 */
+	@SuppressWarnings("unchecked")
+	public void clear(){
+
+		final List<Entry> removed;
+		RuntimeException failure=null;
+
+		this.lock.lock();
+		try{
+			removed=new ArrayList<>(this.entries.values());
+			this.entries.clear();
+		}finally{
+			this.lock.unlock();
+		}
+		for(Entry entry:removed){
+			try{
+				this.destroyer.accept(entry.instance);
+			}catch(RuntimeException e){
+				if(failure==null){
+					failure=e;
+				}else{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if(failure!=null){
+			throw failure;
+		}
+	}
+
+
+	private boolean isExpired(final Entry _entry,final long _now){
+		return ((this.timeToLive>0)&&(_now-_entry.created>this.timeToLive))
+				||((this.idleTimeout>0)&&(_now-_entry.lastAccess>this.idleTimeout));
+	}
+	private Object store(final Key _key,final Object _instance,final List<Entry> _evicted){
+
+		final List<Entry> evicted=(_evicted!=null)? _evicted : new ArrayList<>();
+		Object reply=_instance;
+
+		this.lock.lock();
+		try{
+			final Entry existing=this.entries.get(_key);
+			if((existing!=null)&&(!isExpired(existing, System.nanoTime()))){
+				reply=existing.instance;
+			}else{
+				this.entries.put(_key, new Entry(_instance,System.nanoTime()));
+				if(existing!=null){
+					evicted.add(existing);
+				}
+				for(Iterator<Entry> iterator=this.entries.values().iterator();(this.entries.size()>this.maximumSize)&&(iterator.hasNext());){
+					evicted.add(iterator.next());
+					iterator.remove();
+				}
+			}
+		}finally{
+			this.lock.unlock();
+		}
+		evicted.forEach(this::evict);
+		if(reply!=_instance){
+			destroy(_instance);
+		}
+
+		return reply;
+	}
+	private void evict(final Entry _entry){
+		this.evictions.increment();
+		Logger.getLogger(KeyedInstanceCache.class.getName()).finest(() -> SimpleFormat.format("service::keyed::{}::evict",this.name));
+		destroy(_entry.instance);
+	}
+	@SuppressWarnings({"unchecked","UseSpecificCatch"})
+	private void destroy(final Object _instance){
+		try{
+			this.destroyer.accept(_instance);
+		}catch(Throwable e){
+			Logger.getLogger(KeyedInstanceCache.class.getName()).log(Level.WARNING,e,() -> SimpleFormat.format("service::keyed::{}::evict::fail::{}",this.name,e.getMessage()));
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Lightweight proxy of a singleton service adapter interface that forwards every call to the current published singleton instance,
+ * instantiating it through the service SingletonInitializer on the first call if still does not exist. The proxy class is generated once per adapter and cached,
+ * once the instance is published each call costs a volatile read plus the reflective dispatch.
+ * equals and hashCode are the proxy identity ones and toString does not force the instantiation
+ * @author afarre
+ * @since 1.4.0
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#lazyProxy(boolean) 
+ */
+public final class LazyServiceProxy implements InvocationHandler{
+
+	private static final ClassValue<Constructor<?>> CONSTRUCTORS=new ClassValue<Constructor<?>>(){
+																			@Override
+																			@SuppressWarnings("deprecation")
+																			protected Constructor<?> computeValue(final Class<?> _adapter) {
+																				final ClassLoader loader=(_adapter.getClassLoader()!=null)? _adapter.getClassLoader() : LazyServiceProxy.class.getClassLoader();
+																				try {
+																					return Proxy.getProxyClass(loader, _adapter).getConstructor(InvocationHandler.class);
+																				} catch (NoSuchMethodException e) {
+																					throw new IllegalStateException(e);
+																				}
+																			}
+																		};
+
+	private final ServiceSupplier supplier;
+	private final Object proxy;
+
+
+	/**
+	 * Lazy proxy constructor
+	 * @param _supplier singleton service supplier to forward the calls to its instance
+	 * @throws ServiceInitializationException if the service is not a singleton or its adapter is not an interface
+	 */
+	public LazyServiceProxy(final ServiceSupplier _supplier){
+		if(!_supplier.isSingleton()){
+			throw new ServiceInitializationException(_supplier.getName(),"Lazy proxy services must be singleton");
+		}
+		if((_supplier.getAdapter()==null)||(!_supplier.getAdapter().isInterface())){
+			throw new ServiceInitializationException(_supplier.getName(),SimpleFormat.format("Lazy proxy services adapter must be an interface but {} found",_supplier.getAdapter()));
+		}
+		this.supplier=_supplier;
+		try {
+			this.proxy=CONSTRUCTORS.get(_supplier.getAdapter()).newInstance(this);
+		} catch (ReflectiveOperationException|IllegalArgumentException e) {
+			throw new ServiceInitializationException(_supplier.getName(),SimpleFormat.format("Unable to create lazy proxy of {}",_supplier.getAdapter()),e);
+		}
+	}
+
+
+	/**
+	 * @return the proxy implementing the service adapter
+	 */
+	public Object getProxy() {
+		return proxy;
+	}
+
+	/**
+	 * @param _candidate object to check
+	 * @return true if _candidate is a lazy service proxy
+	 */
+	public static boolean isProxy(final Object _candidate){
+		return (_candidate!=null)&&(Proxy.isProxyClass(_candidate.getClass()))&&(Proxy.getInvocationHandler(_candidate) instanceof LazyServiceProxy);
+	}
+
+	/**
+	 * Forward the call to the current singleton instance creating it if necessary
+	 * @see InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[]) 
+	 */
+	@Override
+	public Object invoke(final Object _proxy,final Method _method,final Object[] _args) throws Throwable {
+
+		if(_method.getDeclaringClass()==Object.class){
+			return invokeObjectMethod(_proxy, _method, _args);
+		}
+		Object target=this.supplier.getInstance();
+		if(target==null){
+			target=this.supplier.getInitializer().initialize(this.supplier);
+		}
+		try{
+			return _method.invoke(target, _args);
+		}catch(InvocationTargetException e){
+			throw e.getCause();
+		}
+	}
+
+	private Object invokeObjectMethod(final Object _proxy,final Method _method,final Object[] _args){
+
+		final Object reply;
+
+		switch(_method.getName()){
+			case "equals":
+				reply=(_proxy==_args[0]);
+				break;
+			case "hashCode":
+				reply=System.identityHashCode(_proxy);
+				break;
+			default:
+				final Object target=this.supplier.getInstance();
+				reply=(target!=null)? target.toString() : SimpleFormat.format("LazyServiceProxy[service={}, adapter={}]",this.supplier.getName(),this.supplier.getAdapter().getName());
+				break;
+		}
+
+		return reply;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.beans.ServiceShutdownReport.Outcome;
+import org.bytemechanics.service.repository.beans.ServiceShutdownReport.Result;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Parallel shutdown in reverse dependency order: each service is disposed once all the services that depends on it has finished
+ * (disposed, failed or timed out), services without dependencies between them are disposed concurrently.
+ * Note that a timed out dispose can not be interrupted, it keeps running in the executor but the shutdown does not wait for it.
+ * Once the global timeout elapses, the services whose dispose has not started yet are cancelled and never disposed
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#shutdown(java.util.stream.Stream, java.util.concurrent.Executor, long, long, java.util.concurrent.TimeUnit)
+ */
+public final class ParallelServiceShutdown {
+
+	private final ServiceDependencyGraph graph;
+	private final Executor executor;
+	private final long serviceTimeout;
+	private final long globalTimeout;
+	private final TimeUnit unit;
+
+
+	/**
+	 * Parallel shutdown constructor
+	 * @param _graph dependency graph of the services to dispose
+	 * @param _executor executor to use to dispose the services
+	 * @param _serviceTimeout maximum time to wait for each service dispose
+	 * @param _globalTimeout maximum time to wait for the complete shutdown
+	 * @param _unit time unit of the timeouts
+	 */
+	public ParallelServiceShutdown(final ServiceDependencyGraph _graph,final Executor _executor,final long _serviceTimeout,final long _globalTimeout,final TimeUnit _unit){
+		this.graph=_graph;
+		this.executor=_executor;
+		this.serviceTimeout=_serviceTimeout;
+		this.globalTimeout=_globalTimeout;
+		this.unit=_unit;
+	}
+
+
+	/**
+	 * Dispose all the services of the graph
+	 * @return the report with the outcome of each service dispose
+	 */
+	public ServiceShutdownReport execute(){
+
+		final ScheduledExecutorService timer=Executors.newSingleThreadScheduledExecutor(runnable -> {
+																								final Thread reply=new Thread(runnable,"service-repository-shutdown-timer");
+																								reply.setDaemon(true);
+																								return reply;
+																							});
+		final long begin=System.nanoTime();
+
+		try{
+			final Map<ServiceRepository,CompletableFuture<Result>> pending=new LinkedHashMap<>();
+			final Map<ServiceRepository,AtomicBoolean> started=new LinkedHashMap<>();
+			final List<ServiceRepository> services=this.graph.getServices();
+			for(ListIterator<ServiceRepository> iterator=services.listIterator(services.size());iterator.hasPrevious();){
+				final ServiceRepository service=iterator.previous();
+				final CompletableFuture<?>[] dependants=this.graph.getDependants(service)
+																	.stream()
+																		.map(pending::get)
+																		.toArray(CompletableFuture[]::new);
+				final AtomicBoolean claim=new AtomicBoolean(false);
+				started.put(service, claim);
+				pending.put(service,CompletableFuture.allOf(dependants)
+														.thenCompose(ignored -> (claim.compareAndSet(false, true))? dispose(service, timer) : CompletableFuture.completedFuture(new Result(service, Outcome.NOT_STARTED, 0, null))));
+			}
+			try {
+				CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[pending.size()]))
+									.get(this.globalTimeout, this.unit);
+			} catch (TimeoutException e) {
+				Logger.getLogger(ServiceRepository.class.getName()).severe(() -> SimpleFormat.format("service::factory::close::parallel::timeout::{}{}",this.globalTimeout,this.unit));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// never happens: every dispose result is completed normally
+			}
+			final long elapsed=System.nanoTime()-begin;
+			final List<Result> results=new ArrayList<>(pending.size());
+			// cancel all the services not started before complete any pending one, otherwise the completion would start its dependencies
+			final Map<ServiceRepository,Boolean> cancelled=new LinkedHashMap<>();
+			started.forEach((service,claim) -> cancelled.put(service, claim.compareAndSet(false, true)));
+			pending.forEach((service,future) -> {
+											future.complete(cancelled.get(service)? new Result(service, Outcome.NOT_STARTED, 0, null) : new Result(service, Outcome.TIMED_OUT, elapsed, null));
+											results.add(future.join());
+										});
+			return new ServiceShutdownReport(results);
+		}finally{
+			timer.shutdownNow();
+		}
+	}
+
+	@SuppressWarnings("UseSpecificCatch")
+	private CompletableFuture<Result> dispose(final ServiceRepository _service,final ScheduledExecutorService _timer){
+
+		final long begin=System.nanoTime();
+		final CompletableFuture<Result> reply=new CompletableFuture<>();
+
+		try{
+			this.executor.execute(() -> {
+									try{
+										_service.dispose();
+										reply.complete(new Result(_service, Outcome.DISPOSED, System.nanoTime()-begin, null));
+									}catch(ServiceDisposeException e){
+										reply.complete(new Result(_service, Outcome.FAILED, System.nanoTime()-begin, e));
+									}catch(Throwable e){
+										reply.complete(new Result(_service, Outcome.FAILED, System.nanoTime()-begin, new ServiceDisposeException(_service.name(), e.getMessage(), e)));
+									}
+								});
+			final ScheduledFuture<?> timeout=_timer.schedule(() -> reply.complete(new Result(_service, Outcome.TIMED_OUT, System.nanoTime()-begin, null)),this.serviceTimeout,this.unit);
+			reply.whenComplete((result,failure) -> timeout.cancel(false));
+		}catch(Throwable e){
+			reply.complete(new Result(_service, Outcome.FAILED, System.nanoTime()-begin, new ServiceDisposeException(_service.name(), e.getMessage(), e)));
+		}
+
+		return reply;
+	}
+}
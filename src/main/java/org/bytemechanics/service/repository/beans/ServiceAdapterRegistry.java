@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.exceptions.AmbiguousServiceAdapterException;
+import org.bytemechanics.service.repository.exceptions.UnknownServiceAdapterException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Index of the services of the registered repositories by its adapter class. The index is an immutable map rebuilt on each
+ * registration and published with a single volatile write, so lookups are a volatile read plus a hash lookup without any locking
+ * nor scanning of the repository values. Services are cast to the requested adapter with Class#cast, never unchecked
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#getAdapter() 
+ */
+public final class ServiceAdapterRegistry {
+
+	private static final Map<Class<?>,List<ServiceRepository>> REGISTERED=new LinkedHashMap<>();
+	private static final ServiceRepository[] NONE=new ServiceRepository[0];
+	private static volatile Map<Class<?>,ServiceRepository[]> index=Collections.emptyMap();
+
+	private ServiceAdapterRegistry(){}
+
+
+	/**
+	 * Register all the services of the given _repository, registering again the same repository has no effect
+	 * @param <R> repository enum type
+	 * @param _repository repository enum class
+	 */
+	public static <R extends Enum<R> & ServiceRepository> void register(final Class<R> _repository){
+		synchronized(REGISTERED){
+			REGISTERED.put(_repository, Collections.unmodifiableList(Arrays.asList(_repository.getEnumConstants())));
+			rebuild();
+		}
+		Logger.getLogger(ServiceAdapterRegistry.class.getName()).finer(() -> SimpleFormat.format("service::adapter-registry::register::{}",_repository.getName()));
+	}
+	/**
+	 * Unregister all the services of the given _repository
+	 * @param _repository repository enum class
+	 * @return true if the repository was registered
+	 */
+	public static boolean unregister(final Class<?> _repository){
+
+		final boolean reply;
+
+		synchronized(REGISTERED){
+			reply=(REGISTERED.remove(_repository)!=null);
+			rebuild();
+		}
+		Logger.getLogger(ServiceAdapterRegistry.class.getName()).finer(() -> SimpleFormat.format("service::adapter-registry::unregister::{}::{}",_repository.getName(),reply));
+
+		return reply;
+	}
+	/**
+	 * Unregister all the repositories
+	 */
+	public static void clear(){
+		synchronized(REGISTERED){
+			REGISTERED.clear();
+			rebuild();
+		}
+	}
+	private static void rebuild(){
+		final Map<Class<?>,ServiceRepository[]> reply=new HashMap<>();
+		REGISTERED.values()
+					.stream()
+						.flatMap(List::stream)
+						.filter(service -> service.getAdapter()!=null)
+						.collect(Collectors.groupingBy(ServiceRepository::getAdapter,LinkedHashMap::new,Collectors.toList()))
+						.forEach((adapter,services) -> reply.put(adapter, services.toArray(new ServiceRepository[services.size()])));
+		index=Collections.unmodifiableMap(reply);
+	}
+
+
+	/**
+	 * Method to return the service that provides the given _adapter
+	 * @param _adapter adapter class
+	 * @return the optional service that provides _adapter, empty if none registered
+	 * @throws AmbiguousServiceAdapterException if more than one registered service provides _adapter
+	 */
+	public static Optional<ServiceRepository> find(final Class<?> _adapter){
+		return Optional.ofNullable(resolve(_adapter));
+	}
+	/**
+	 * Method to return all the registered services that provides the given _adapter
+	 * @param _adapter adapter class
+	 * @return all the services that provides _adapter in registration order
+	 */
+	public static Stream<ServiceRepository> findAll(final Class<?> _adapter){
+		return Stream.of(index.getOrDefault(_adapter, NONE));
+	}
+	private static ServiceRepository resolve(final Class<?> _adapter){
+
+		final ServiceRepository[] services=index.get(_adapter);
+		final ServiceRepository reply;
+
+		if(services==null){
+			reply=null;
+		}else if(services.length==1){
+			reply=services[0];
+		}else{
+			throw new AmbiguousServiceAdapterException(_adapter, Stream.of(services)
+																		.map(ServiceRepository::name)
+																		.collect(Collectors.toList()));
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Method to obtain the instance of the service that provides the given _adapter without arguments. Does not allocate any arguments array
+	 * @param <T> adapter type
+	 * @param _adapter adapter class
+	 * @return the service instance
+	 * @throws UnknownServiceAdapterException if no registered service provides _adapter
+	 * @throws AmbiguousServiceAdapterException if more than one registered service provides _adapter
+	 * @see ServiceRepository#get() 
+	 */
+	public static <T> T lookup(final Class<T> _adapter){
+
+		final ServiceRepository service=resolve(_adapter);
+
+		if(service==null){
+			throw new UnknownServiceAdapterException(_adapter);
+		}
+
+		return _adapter.cast(service.get());
+	}
+	/**
+	 * Method to obtain the instance of the service that provides the given _adapter
+	 * @param <T> adapter type
+	 * @param _adapter adapter class
+	 * @param _args arguments to use with constructor if instantiation is necessary
+	 * @return the service instance
+	 * @throws UnknownServiceAdapterException if no registered service provides _adapter
+	 * @throws AmbiguousServiceAdapterException if more than one registered service provides _adapter
+	 * @see ServiceRepository#get(java.lang.Object...) 
+	 */
+	public static <T> T lookup(final Class<T> _adapter,final Object... _args){
+
+		final ServiceRepository service=resolve(_adapter);
+
+		if(service==null){
+			throw new UnknownServiceAdapterException(_adapter);
+		}
+
+		return _adapter.cast(service.get(_args));
+	}
+	/**
+	 * Method to obtain the instance of the service that provides the given _adapter without arguments. Does not allocate any arguments array
+	 * @param <T> adapter type
+	 * @param _adapter adapter class
+	 * @return the optional service instance, empty if no registered service provides _adapter or the instance can not be obtained
+	 * @throws AmbiguousServiceAdapterException if more than one registered service provides _adapter
+	 * @see ServiceRepository#tryGet() 
+	 */
+	public static <T> Optional<T> tryLookup(final Class<T> _adapter){
+
+		final ServiceRepository service=resolve(_adapter);
+
+		return (service==null)? Optional.empty() : service.tryGet().map(_adapter::cast);
+	}
+	/**
+	 * Method to obtain the instance of the service that provides the given _adapter
+	 * @param <T> adapter type
+	 * @param _adapter adapter class
+	 * @param _args arguments to use with constructor if instantiation is necessary
+	 * @return the optional service instance, empty if no registered service provides _adapter or the instance can not be obtained
+	 * @throws AmbiguousServiceAdapterException if more than one registered service provides _adapter
+	 * @see ServiceRepository#tryGet(java.lang.Object...) 
+	 */
+	public static <T> Optional<T> tryLookup(final Class<T> _adapter,final Object... _args){
+
+		final ServiceRepository service=resolve(_adapter);
+
+		return (service==null)? Optional.empty() : service.tryGet(_args).map(_adapter::cast);
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceMetrics;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Failure policy of the ServiceSupplier#tryGet(java.lang.Object...) instantiations. Each failure is cached during a backoff window where the calls
+ * return empty without retrying the instantiation, after _failureThreshold consecutive failures the circuit opens and rejects all calls during the open time,
+ * once elapsed a single probe call is allowed (half-open) that closes the circuit if succeeds or opens it again if fails.
+ * Failures are logged with the stack trace at most once each log interval, the failures in between are counted and logged without it
+ * @author afarre
+ * @since 1.4.0
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#circuitBreaker(int, long, long, java.util.concurrent.TimeUnit) 
+ */
+public final class ServiceCircuitBreaker {
+
+	/**
+	 * Circuit state
+	 */
+	public static enum State{
+		/** Calls are allowed, except during the backoff window after a failure */
+		CLOSED,
+		/** Calls are rejected until the open time elapses */
+		OPEN,
+		/** A single probe call is in progress, the rest are rejected */
+		HALF_OPEN,
+	}
+
+	private final String name;
+	private final int failureThreshold;
+	private final long backoff;
+	private final long openTime;
+	private final long logInterval;
+	private final LongAdder rejected;
+	private volatile State state;
+	private volatile int consecutiveFailures;
+	private volatile Throwable lastFailure;
+	private long retryAt;
+	private long loggedAt;
+	private long suppressed;
+	private long failures;
+
+
+	/**
+	 * Circuit breaker constructor
+	 * @param _name service name
+	 * @param _failureThreshold consecutive failures to open the circuit
+	 * @param _backoff time in nanoseconds to reject the calls after each failure while closed, zero or negative to retry immediately
+	 * @param _openTime time in nanoseconds to reject the calls once opened before allow a probe
+	 * @param _logInterval minimum time in nanoseconds between two failures logged with stack trace, zero or negative to log all
+	 * @throws ServiceInitializationException if _failureThreshold is lower than 1
+	 */
+	public ServiceCircuitBreaker(final String _name,final int _failureThreshold,final long _backoff,final long _openTime,final long _logInterval){
+		if(_failureThreshold<1){
+			throw new ServiceInitializationException(_name,SimpleFormat.format("Invalid circuit breaker failure threshold {}",_failureThreshold));
+		}
+		this.name=_name;
+		this.failureThreshold=_failureThreshold;
+		this.backoff=Math.max(0,_backoff);
+		this.openTime=Math.max(0,_openTime);
+		this.logInterval=Math.max(0,_logInterval);
+		this.rejected=new LongAdder();
+		this.state=State.CLOSED;
+		this.consecutiveFailures=0;
+		this.lastFailure=null;
+		this.failures=0;
+		this.suppressed=0;
+	}
+
+
+	/**
+	 * @return current circuit state
+	 */
+	public State getState() {
+		return state;
+	}
+	/**
+	 * @return number of consecutive failures since the last success
+	 */
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+	/**
+	 * @return number of calls rejected without trying the instantiation
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+	/**
+	 * @return total number of failures
+	 */
+	public synchronized long getFailures() {
+		return failures;
+	}
+	/**
+	 * @return last cached failure if the circuit is not recovered yet
+	 */
+	public Optional<Throwable> getLastFailure() {
+		return Optional.ofNullable(lastFailure);
+	}
+	/**
+	 * Close the circuit forgetting the cached failure
+	 */
+	public synchronized void reset() {
+		this.state=State.CLOSED;
+		this.consecutiveFailures=0;
+		this.lastFailure=null;
+	}
+
+
+	/**
+	 * Obtain the instance from _supplier if the circuit allows it, otherwise returns empty immediately without calling it
+	 * @param _supplier instance supplier
+	 * @return the optional instance, empty if the call has been rejected or failed
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public Optional<Object> execute(final Supplier<Object> _supplier){
+
+		Optional<Object> reply=Optional.empty();
+
+		if(allow()){
+			try{
+				reply=Optional.ofNullable(_supplier.get());
+				if((this.consecutiveFailures>0)||(this.state!=State.CLOSED)){
+					succeeded();
+				}
+			}catch(Throwable e){
+				failed(e);
+			}
+		}else{
+			this.rejected.increment();
+			final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+			if(metrics!=null){
+				metrics.onTryGetFailure(this.name, this.lastFailure);
+			}
+			Logger.getLogger(ServiceCircuitBreaker.class.getName()).finest(() -> SimpleFormat.format("service::supplier::service::{}::get::rejected::{}",this.name,this.state));
+		}
+
+		return reply;
+	}
+
+	private boolean allow(){
+
+		boolean reply=(this.state==State.CLOSED)&&(this.consecutiveFailures==0);
+
+		if(!reply){
+			synchronized(this){
+				final long now=System.nanoTime();
+				switch(this.state){
+					case CLOSED:
+						reply=(this.consecutiveFailures==0)||(now-this.retryAt>=0);
+						break;
+					case OPEN:
+						if(now-this.retryAt>=0){
+							this.state=State.HALF_OPEN;
+							Logger.getLogger(ServiceCircuitBreaker.class.getName()).finer(() -> SimpleFormat.format("service::supplier::service::{}::circuit::{}",this.name,State.HALF_OPEN));
+							reply=true;
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		}
+
+		return reply;
+	}
+
+	private synchronized void succeeded(){
+		if(this.state!=State.CLOSED){
+			Logger.getLogger(ServiceCircuitBreaker.class.getName()).info(() -> SimpleFormat.format("service::supplier::service::{}::circuit::{}",this.name,State.CLOSED));
+		}
+		reset();
+	}
+
+	private void failed(final Throwable _failure){
+
+		final ServiceMetrics metrics=ServiceMetricsRegistry.get();
+		if(metrics!=null){
+			metrics.onTryGetFailure(this.name, _failure);
+		}
+
+		final boolean opened;
+		final boolean log;
+		final long skipped;
+		synchronized(this){
+			final long now=System.nanoTime();
+			this.failures++;
+			this.lastFailure=_failure;
+			this.consecutiveFailures++;
+			opened=(this.state==State.HALF_OPEN)||(this.consecutiveFailures>=this.failureThreshold);
+			if(opened){
+				this.state=State.OPEN;
+				this.retryAt=now+this.openTime;
+			}else{
+				this.retryAt=now+this.backoff;
+			}
+			log=(this.failures==1)||(now-this.loggedAt>=this.logInterval);
+			skipped=this.suppressed;
+			if(log){
+				this.loggedAt=now;
+				this.suppressed=0;
+			}else{
+				this.suppressed++;
+			}
+		}
+		if(log){
+			Logger.getLogger(ServiceCircuitBreaker.class.getName()).log(Level.SEVERE,_failure,() -> SimpleFormat.format("service::supplier::service::{}::get::fail::{}::suppressed::{}",this.name,_failure.getMessage(),skipped));
+		}else{
+			Logger.getLogger(ServiceCircuitBreaker.class.getName()).finer(() -> SimpleFormat.format("service::supplier::service::{}::get::fail::{}",this.name,_failure.getMessage()));
+		}
+		if(opened){
+			Logger.getLogger(ServiceCircuitBreaker.class.getName()).warning(() -> SimpleFormat.format("service::supplier::service::{}::circuit::{}::{}ms",this.name,State.OPEN,TimeUnit.NANOSECONDS.toMillis(this.openTime)));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("ServiceCircuitBreaker[service={}, state={}, consecutiveFailures={}, rejected={}]",this.name,this.state,this.consecutiveFailures,getRejected());
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+
+/**
+ * Dependency graph (DAG) between services built from the declared ServiceRepository#getDependencies() names.
+ * Services are kept in dependency order: any service always appears after all the services it depends on,
+ * services without dependencies between them keep the original order.
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#getDependencies()
+ */
+public final class ServiceDependencyGraph {
+
+	private final List<ServiceRepository> services;
+	private final Map<ServiceRepository,List<ServiceRepository>> dependencies;
+	private final Map<ServiceRepository,List<ServiceRepository>> dependants;
+	private final List<ServiceRepository> disposeOrder;
+
+
+	private ServiceDependencyGraph(final List<ServiceRepository> _candidates,final List<ServiceRepository> _services,final Map<ServiceRepository,List<ServiceRepository>> _dependencies){
+		this.services=Collections.unmodifiableList(_services);
+		this.dependencies=_dependencies;
+		this.dependants=new LinkedHashMap<>();
+		_services.forEach(service -> this.dependants.put(service, new ArrayList<>()));
+		_services.forEach(service -> _dependencies.get(service)
+													.forEach(dependency -> this.dependants.get(dependency).add(service)));
+		final List<ServiceRepository> order=new ArrayList<>(_candidates.size());
+		final Map<ServiceRepository,Boolean> visited=new LinkedHashMap<>();
+		_candidates.forEach(service -> visitDependants(service, visited, order));
+		this.disposeOrder=Collections.unmodifiableList(order);
+	}
+
+
+	/**
+	 * @return all services in dependency order
+	 */
+	public List<ServiceRepository> getServices() {
+		return services;
+	}
+	/**
+	 * @return all services in dispose order: any service always appears after all the services that depends on it,
+	 * services without dependencies between them keep the original order
+	 */
+	public List<ServiceRepository> getDisposeOrder() {
+		return disposeOrder;
+	}
+	/**
+	 * @param _service service to retrieve its dependencies
+	 * @return services that _service depends on
+	 */
+	public List<ServiceRepository> getDependencies(final ServiceRepository _service) {
+		return Collections.unmodifiableList(this.dependencies.getOrDefault(_service,Collections.emptyList()));
+	}
+	/**
+	 * @param _service service to retrieve its dependants
+	 * @return services that depends on _service
+	 */
+	public List<ServiceRepository> getDependants(final ServiceRepository _service) {
+		return Collections.unmodifiableList(this.dependants.getOrDefault(_service,Collections.emptyList()));
+	}
+
+
+	/**
+	 * Build the dependency graph of the given services
+	 * @param _services services to include in the graph
+	 * @return the dependency graph
+	 * @throws ServiceInitializationException if some service depends on a service not present in _services or if exist any dependency cycle
+	 */
+	public static ServiceDependencyGraph of(final Stream<? extends ServiceRepository> _services){
+		return of(_services, false);
+	}
+	/**
+	 * Build the dependency graph of the given services
+	 * @param _services services to include in the graph
+	 * @param _ignoreUnknown if true the dependencies not present in _services are ignored, so only the present ones are ordered
+	 * @return the dependency graph
+	 * @throws ServiceInitializationException if exist any dependency cycle or some service depends on a service not present in _services and _ignoreUnknown is false
+	 */
+	public static ServiceDependencyGraph of(final Stream<? extends ServiceRepository> _services,final boolean _ignoreUnknown){
+
+		final List<ServiceRepository> candidates=_services.collect(Collectors.toList());
+		final Map<String,List<ServiceRepository>> byName=candidates.stream()
+																	.collect(Collectors.groupingBy(ServiceRepository::name,LinkedHashMap::new,Collectors.toList()));
+		final Map<ServiceRepository,List<ServiceRepository>> dependencies=new LinkedHashMap<>();
+
+		for(ServiceRepository service:candidates){
+			final List<ServiceRepository> serviceDependencies=new ArrayList<>();
+			for(String dependency:service.getDependencies()){
+				final List<ServiceRepository> found=byName.get(dependency);
+				if(found!=null){
+					serviceDependencies.addAll(found);
+				}else if(!_ignoreUnknown){
+					throw new ServiceInitializationException(service.name(),"Unknown dependency "+dependency);
+				}
+			}
+			dependencies.put(service, serviceDependencies);
+		}
+
+		final List<ServiceRepository> sorted=new ArrayList<>(candidates.size());
+		final Map<ServiceRepository,Boolean> visited=new LinkedHashMap<>();
+		for(ServiceRepository service:candidates){
+			visit(service, dependencies, visited, new LinkedList<>(), sorted);
+		}
+
+		return new ServiceDependencyGraph(candidates, sorted, dependencies);
+	}
+	/**
+	 * Build a graph of the given services without any dependency between them, keeping the original order
+	 * @param _services services to include in the graph
+	 * @return the graph without dependencies
+	 */
+	public static ServiceDependencyGraph unordered(final Stream<? extends ServiceRepository> _services){
+
+		final List<ServiceRepository> candidates=_services.collect(Collectors.toList());
+		final Map<ServiceRepository,List<ServiceRepository>> dependencies=new LinkedHashMap<>();
+		candidates.forEach(service -> dependencies.put(service, new ArrayList<>()));
+
+		return new ServiceDependencyGraph(candidates, candidates, dependencies);
+	}
+
+	private static void visit(final ServiceRepository _service,final Map<ServiceRepository,List<ServiceRepository>> _dependencies,final Map<ServiceRepository,Boolean> _visited,final LinkedList<ServiceRepository> _path,final List<ServiceRepository> _sorted){
+
+		final Boolean state=_visited.get(_service);
+
+		if(Boolean.FALSE.equals(state)){
+			final String cycle=Stream.concat(_path.subList(_path.indexOf(_service),_path.size()).stream(),Stream.of(_service))
+										.map(ServiceRepository::name)
+										.collect(Collectors.joining(" -> "));
+			throw new ServiceInitializationException(_service.name(),"Cyclic dependency "+cycle);
+		}
+		if(state==null){
+			_visited.put(_service, Boolean.FALSE);
+			_path.addLast(_service);
+			for(ServiceRepository dependency:_dependencies.get(_service)){
+				visit(dependency, _dependencies, _visited, _path, _sorted);
+			}
+			_path.removeLast();
+			_visited.put(_service, Boolean.TRUE);
+			_sorted.add(_service);
+		}
+	}
+	private void visitDependants(final ServiceRepository _service,final Map<ServiceRepository,Boolean> _visited,final List<ServiceRepository> _order){
+		if(_visited.putIfAbsent(_service, Boolean.TRUE)==null){
+			this.dependants.get(_service)
+								.forEach(dependant -> visitDependants(dependant, _visited, _order));
+			_order.add(_service);
+		}
+	}
+}
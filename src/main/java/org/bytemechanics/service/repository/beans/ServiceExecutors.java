@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Holder of the default executor used by the asynchronous service operations when no executor is configured for the service.
+ * By default uses a virtual thread per task executor when the running virtual machine supports it, otherwise the ForkJoinPool common pool
+ * @author afarre
+ * @since 1.4.0
+ * @see org.bytemechanics.service.repository.ServiceSupplier#getAsync(java.lang.Object...) 
+ */
+public final class ServiceExecutors {
+
+	private static volatile Executor defaultExecutor=null;
+
+	private ServiceExecutors(){}
+
+	/**
+	 * Lazy holder of the platform executor
+	 */
+	private static final class PlatformExecutor{
+		static final Executor INSTANCE=create();
+
+		@SuppressWarnings("UseSpecificCatch")
+		private static Executor create(){
+			try{
+				return (ExecutorService)MethodHandles.publicLookup()
+												.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+												.invoke();
+			}catch(Throwable e){
+				Logger.getLogger(ServiceExecutors.class.getName()).log(Level.FINEST,"service::executors::virtual-threads::unavailable");
+				return ForkJoinPool.commonPool();
+			}
+		}
+	}
+
+	/**
+	 * Lazy holder of the shared scheduler
+	 */
+	private static final class Scheduler{
+		static final ScheduledExecutorService INSTANCE=Executors.newSingleThreadScheduledExecutor(runnable -> {
+																											final Thread reply=new Thread(runnable,"service-repository-scheduler");
+																											reply.setDaemon(true);
+																											return reply;
+																										});
+	}
+
+	/**
+	 * Method to return the default executor for the asynchronous service operations
+	 * @return the configured default executor or the platform one (virtual threads if available) if none has been configured
+	 */
+	public static Executor getDefault(){
+		final Executor reply=defaultExecutor;
+		return (reply!=null)? reply : PlatformExecutor.INSTANCE;
+	}
+	/**
+	 * Method to replace the default executor for the asynchronous service operations
+	 * @param _executor new default executor, null to restore the platform one
+	 */
+	public static void setDefault(final Executor _executor){
+		defaultExecutor=_executor;
+	}
+
+	/**
+	 * Method to run the given _task once the _delay elapses in a shared daemon scheduler, or immediately in the current thread if _delay is not positive.
+	 * The task runs in the scheduler thread, so it must be short, any blocking work should be scheduled with #schedule(Runnable, long, TimeUnit, Executor)
+	 * @param _task task to run
+	 * @param _delay delay before run the task
+	 * @param _unit time unit of the delay
+	 * @return future completed once the task finishes, completed exceptionally if the task fails
+	 * @since 1.4.0
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public static CompletableFuture<Void> schedule(final Runnable _task,final long _delay,final TimeUnit _unit){
+
+		final CompletableFuture<Void> reply=new CompletableFuture<>();
+		final Runnable task=() -> {
+								try{
+									_task.run();
+									reply.complete(null);
+								}catch(Throwable e){
+									reply.completeExceptionally(e);
+								}
+							};
+
+		if(_delay>0){
+			Scheduler.INSTANCE.schedule(task, _delay, _unit);
+		}else{
+			task.run();
+		}
+
+		return reply;
+	}
+	/**
+	 * Method to run the given _task in the _executor once the _delay elapses, or immediately in the current thread if _delay is not positive.
+	 * The shared daemon scheduler only triggers the task, so a slow or blocking _task does not delay the other scheduled tasks
+	 * @param _task task to run
+	 * @param _delay delay before run the task
+	 * @param _unit time unit of the delay
+	 * @param _executor executor where the task runs
+	 * @return future completed once the task finishes, completed exceptionally if the task fails or the _executor rejects it
+	 * @since 1.4.0
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public static CompletableFuture<Void> schedule(final Runnable _task,final long _delay,final TimeUnit _unit,final Executor _executor){
+
+		final CompletableFuture<Void> reply=new CompletableFuture<>();
+		final Runnable task=() -> {
+								try{
+									_task.run();
+									reply.complete(null);
+								}catch(Throwable e){
+									reply.completeExceptionally(e);
+								}
+							};
+
+		if(_delay>0){
+			Scheduler.INSTANCE.schedule(() -> {
+											try{
+												_executor.execute(task);
+											}catch(Throwable e){
+												reply.completeExceptionally(e);
+											}
+										}, _delay, _unit);
+		}else{
+			task.run();
+		}
+
+		return reply;
+	}
+	/**
+	 * Method to run periodically the given _task over the _target in the shared daemon scheduler while the _target is reachable.
+	 * The _target is weakly referenced, so the scheduling does not keep it alive, once collected the periodic task is cancelled.
+	 * Failures are logged and does not cancel the next executions
+	 * @param <T> target type
+	 * @param _target target of the task
+	 * @param _task task to run (must not capture the _target)
+	 * @param _period period between executions
+	 * @param _unit time unit of the period
+	 * @return the scheduled future to cancel the periodic task
+	 * @since 1.4.0
+	 */
+	public static <T> ScheduledFuture<?> schedulePeriodically(final T _target,final Consumer<T> _task,final long _period,final TimeUnit _unit){
+		
+		final PeriodicTask<T> task=new PeriodicTask<>(_target, _task);
+		final ScheduledFuture<?> reply=Scheduler.INSTANCE.scheduleAtFixedRate(task, _period, _period, _unit);
+		task.future=reply;
+		
+		return reply;
+	}
+
+	/**
+	 * Periodic task over a weakly referenced target
+	 */
+	private static final class PeriodicTask<T> implements Runnable{
+
+		private final WeakReference<T> target;
+		private final Consumer<T> task;
+		private volatile ScheduledFuture<?> future;
+
+		PeriodicTask(final T _target,final Consumer<T> _task){
+			this.target=new WeakReference<>(_target);
+			this.task=_task;
+		}
+
+		@Override
+		@SuppressWarnings("UseSpecificCatch")
+		public void run() {
+			final T current=this.target.get();
+			if(current!=null){
+				try{
+					this.task.accept(current);
+				}catch(Throwable e){
+					Logger.getLogger(ServiceExecutors.class.getName()).log(Level.WARNING,e,() -> SimpleFormat.format("service::executors::periodic::fail::{}",e.getMessage()));
+				}
+			}else if(this.future!=null){
+				this.future.cancel(false);
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Java Flight Recorder bridge of the service lifecycle. When the running virtual machine does not include the flight recorder
+ * the instrumented code does nothing more than a null check, when it is not recording the service lifecycle event
+ * only checks the cached event type enablement, no event is allocated in both cases
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceLifecycleEvent
+ */
+public final class ServiceFlightRecorder {
+
+	/**
+	 * Recorded lifecycle operations
+	 */
+	public static enum Operation{
+		/** Service initialization */
+		INIT,
+		/** Service dispose */
+		DISPOSE,
+		/** Service reset (dispose and init) */
+		RESET,
+		/** Singleton instance creation */
+		CREATE,
+		/** Wait for a singleton instance creation in progress in another thread */
+		WAIT,
+		/** Background rebuild of an expiring singleton instance */
+		REFRESH,
+	}
+
+	private static final boolean AVAILABLE=isAvailable();
+
+	private ServiceFlightRecorder(){}
+
+	@SuppressWarnings("UseSpecificCatch")
+	private static boolean isAvailable(){
+		try{
+			Class.forName("jdk.jfr.EventFactory");
+			Class.forName(ServiceLifecycleEvent.class.getName(),true,ServiceFlightRecorder.class.getClassLoader());
+			return true;
+		}catch(Throwable e){
+			Logger.getLogger(ServiceFlightRecorder.class.getName()).log(Level.FINEST,"service::flight-recorder::unavailable");
+			return false;
+		}
+	}
+
+	/**
+	 * Method to return if the running virtual machine includes the flight recorder
+	 * @return true if the lifecycle events can be recorded
+	 */
+	public static boolean isEnabled(){
+		return AVAILABLE;
+	}
+
+	/**
+	 * Method to start a lifecycle event
+	 * @return the started event or null if the flight recorder is not available or the event is not enabled
+	 */
+	public static Object begin(){
+		return (AVAILABLE)? ServiceLifecycleEvent.start() : null;
+	}
+	/**
+	 * Method to finish and commit (if the recording thresholds requires it) a lifecycle event
+	 * @param _event event returned by #begin(), if null does nothing
+	 * @param _supplier service supplier of the operation
+	 * @param _operation lifecycle operation
+	 * @param _success true if the operation finished correctly
+	 */
+	public static void end(final Object _event,final ServiceSupplier _supplier,final Operation _operation,final boolean _success){
+		if(_event!=null){
+			ServiceLifecycleEvent.finish(_event, _supplier, _operation, _success);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.concurrent.TimeUnit;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Snapshot of the state of a service exposed through ServiceRepositoryMXBean
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepositoryMXBean#getServices() 
+ */
+public final class ServiceInfo {
+
+	private final String name;
+	private final String adapter;
+	private final boolean singleton;
+	private final boolean live;
+	private final long creationTimestamp;
+	private final long creationTime;
+	private final String circuitState;
+
+
+	/**
+	 * Service info constructor
+	 * @param _name service name
+	 * @param _adapter adapter class name
+	 * @param _singleton true if the service is a singleton
+	 * @param _live true if the singleton instance exist
+	 * @param _creationTimestamp epoch milliseconds of the singleton instance creation, 0 if unknown
+	 * @param _creationTime microseconds spent creating the singleton instance, 0 if unknown
+	 * @param _circuitState circuit breaker state name, null if the service has no circuit breaker
+	 */
+	public ServiceInfo(final String _name,final String _adapter,final boolean _singleton,final boolean _live,final long _creationTimestamp,final long _creationTime,final String _circuitState){
+		this.name=_name;
+		this.adapter=_adapter;
+		this.singleton=_singleton;
+		this.live=_live;
+		this.creationTimestamp=_creationTimestamp;
+		this.creationTime=_creationTime;
+		this.circuitState=_circuitState;
+	}
+
+
+	/**
+	 * @return service name
+	 */
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return adapter class name
+	 */
+	public String getAdapter() {
+		return adapter;
+	}
+	/**
+	 * @return true if the service is a singleton
+	 */
+	public boolean isSingleton() {
+		return singleton;
+	}
+	/**
+	 * @return true if the singleton instance exist
+	 */
+	public boolean isLive() {
+		return live;
+	}
+	/**
+	 * @return epoch milliseconds of the singleton instance creation, 0 if unknown
+	 */
+	public long getCreationTimestamp() {
+		return creationTimestamp;
+	}
+	/**
+	 * @return microseconds spent creating the singleton instance, 0 if unknown
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+	/**
+	 * @return circuit breaker state name, null if the service has no circuit breaker
+	 * @see ServiceCircuitBreaker#getState() 
+	 */
+	public String getCircuitState() {
+		return circuitState;
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("ServiceInfo[name={}, adapter={}, singleton={}, live={}, creationTimestamp={}, creationTime={}us, circuitState={}]",name,adapter,singleton,live,creationTimestamp,creationTime,circuitState);
+	}
+
+
+	/**
+	 * Build the current state snapshot of the given _service
+	 * @param _service service to inspect
+	 * @return the service info
+	 */
+	public static ServiceInfo of(final ServiceRepository _service){
+
+		final ServiceSupplier supplier=_service.getServiceSupplier();
+		final boolean live=(supplier.getInstance()!=null);
+		final SingletonInitializer initializer=(live)? supplier.getInitializer() : null;
+		final ServiceCircuitBreaker circuitBreaker=(supplier instanceof DefaultServiceSupplier)? ((DefaultServiceSupplier)supplier).getCircuitBreaker().orElse(null) : null;
+
+		return new ServiceInfo(_service.name()
+								,(supplier.getAdapter()!=null)? supplier.getAdapter().getName() : null
+								,supplier.isSingleton()
+								,live
+								,(initializer!=null)? initializer.getCreationTimestamp() : 0
+								,(initializer!=null)? initializer.getCreationTime(TimeUnit.MICROSECONDS) : 0
+								,(circuitBreaker!=null)? circuitBreaker.getState().name() : null);
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Lease of a service instance borrowed from a pool, the instance must be returned by calling #close() (or #release()) once is no longer in use.
+ * Designed to be used with try-with-resources:<br>
+ * <code>
+ * try(ServiceLease&lt;Parser&gt; lease=MyServiceRepository.PARSER.borrow(Parser.class)){<br>
+ * &nbsp;&nbsp;&nbsp;lease.get().parse(...);<br>
+ * }<br>
+ * </code>
+ * @param <T> type of the leased instance
+ * @author afarre
+ * @since 1.4.0
+ * @see ServicePool
+ */
+public final class ServiceLease<T> implements AutoCloseable{
+
+	private final T instance;
+	private final Consumer<T> releaser;
+	private final AtomicBoolean released;
+
+
+	/**
+	 * Lease constructor
+	 * @param _instance leased instance
+	 * @param _releaser consumer to call once the lease is released
+	 */
+	public ServiceLease(final T _instance,final Consumer<T> _releaser){
+		this.instance=_instance;
+		this.releaser=_releaser;
+		this.released=new AtomicBoolean(false);
+	}
+
+
+	/**
+	 * @return the leased instance
+	 * @throws IllegalStateException if the lease has been already released
+	 */
+	public T get(){
+		if(this.released.get()){
+			throw new IllegalStateException("Lease already released");
+		}
+		return this.instance;
+	}
+	/**
+	 * @return true if the lease has been already released
+	 */
+	public boolean isReleased(){
+		return this.released.get();
+	}
+	/**
+	 * Returns the instance to its pool, further calls does nothing
+	 */
+	public void release(){
+		if(this.released.compareAndSet(false, true)){
+			this.releaser.accept(this.instance);
+		}
+	}
+	/**
+	 * Returns the instance to its pool, further calls does nothing
+	 * @see #release() 
+	 */
+	@Override
+	public void close(){
+		release();
+	}
+}
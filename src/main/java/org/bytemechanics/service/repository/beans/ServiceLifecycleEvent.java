@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.beans.ServiceFlightRecorder.Operation;
+
+/**
+ * Java Flight Recorder event of a service lifecycle operation, the duration and the thread are recorded by the event itself.
+ * The event is defined at runtime through jdk.jfr.EventFactory and accessed with method handles, so this library does not need
+ * the flight recorder API to compile and still runs on virtual machines without it.
+ * This class must only be touched through ServiceFlightRecorder that checks the flight recorder availability before
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceFlightRecorder
+ */
+public final class ServiceLifecycleEvent{
+
+	/** Event name */
+	public static final String NAME="org.bytemechanics.service.repository.ServiceLifecycle";
+
+	private static final String JFR="jdk.jfr.";
+	private static final int SERVICE=0;
+	private static final int ADAPTER=1;
+	private static final int IMPLEMENTATION=2;
+	private static final int OPERATION=3;
+	private static final int OUTCOME=4;
+
+	private static final MethodHandle IS_ENABLED;
+	private static final MethodHandle NEW_EVENT;
+	private static final MethodHandle BEGIN;
+	private static final MethodHandle END;
+	private static final MethodHandle SHOULD_COMMIT;
+	private static final MethodHandle SET;
+	private static final MethodHandle COMMIT;
+
+	static{
+		try{
+			final MethodHandles.Lookup lookup=MethodHandles.publicLookup();
+			final Class<?> annotationElement=Class.forName(JFR+"AnnotationElement");
+			final Class<?> valueDescriptor=Class.forName(JFR+"ValueDescriptor");
+			final Class<?> eventFactory=Class.forName(JFR+"EventFactory");
+			final Class<?> eventType=Class.forName(JFR+"EventType");
+			final Class<?> event=Class.forName(JFR+"Event");
+			final MethodHandle annotation=lookup.findConstructor(annotationElement, MethodType.methodType(void.class, Class.class, Object.class));
+			final MethodHandle field=lookup.findConstructor(valueDescriptor, MethodType.methodType(void.class, Class.class, String.class, List.class));
+			final Class<?> label=Class.forName(JFR+"Label");
+
+			final List<Object> annotations=Arrays.asList(annotation.invoke(Class.forName(JFR+"Name"),NAME)
+														,annotation.invoke(label,"Service Lifecycle")
+														,annotation.invoke(Class.forName(JFR+"Description"),"Service repository lifecycle operation: init, dispose, reset, singleton creation, wait for an in-flight singleton creation or background singleton refresh")
+														,annotation.invoke(Class.forName(JFR+"Category"),new String[]{"Byte Mechanics","Service Repository"})
+														,annotation.invoke(Class.forName(JFR+"StackTrace"),Boolean.FALSE));
+			final Object[] fields=(Object[])Array.newInstance(valueDescriptor, 5);
+			fields[SERVICE]=field.invoke(String.class,"service",Collections.singletonList(annotation.invoke(label,"Service")));
+			fields[ADAPTER]=field.invoke(Class.class,"adapter",Collections.singletonList(annotation.invoke(label,"Adapter")));
+			fields[IMPLEMENTATION]=field.invoke(Class.class,"implementation",Collections.singletonList(annotation.invoke(label,"Implementation")));
+			fields[OPERATION]=field.invoke(String.class,"operation",Collections.singletonList(annotation.invoke(label,"Operation")));
+			fields[OUTCOME]=field.invoke(String.class,"outcome",Collections.singletonList(annotation.invoke(label,"Outcome")));
+			final Object factory=lookup.findStatic(eventFactory, "create", MethodType.methodType(eventFactory, List.class, List.class))
+											.invoke(annotations,Arrays.asList(fields));
+			final Object type=lookup.findVirtual(eventFactory, "getEventType", MethodType.methodType(eventType))
+											.invoke(factory);
+
+			IS_ENABLED=lookup.findVirtual(eventType, "isEnabled", MethodType.methodType(boolean.class))
+											.bindTo(type)
+											.asType(MethodType.methodType(boolean.class));
+			NEW_EVENT=lookup.findVirtual(eventFactory, "newEvent", MethodType.methodType(event))
+											.bindTo(factory)
+											.asType(MethodType.methodType(Object.class));
+			BEGIN=lookup.findVirtual(event, "begin", MethodType.methodType(void.class))
+											.asType(MethodType.methodType(void.class, Object.class));
+			END=lookup.findVirtual(event, "end", MethodType.methodType(void.class))
+											.asType(MethodType.methodType(void.class, Object.class));
+			SHOULD_COMMIT=lookup.findVirtual(event, "shouldCommit", MethodType.methodType(boolean.class))
+											.asType(MethodType.methodType(boolean.class, Object.class));
+			SET=lookup.findVirtual(event, "set", MethodType.methodType(void.class, int.class, Object.class))
+											.asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+			COMMIT=lookup.findVirtual(event, "commit", MethodType.methodType(void.class))
+											.asType(MethodType.methodType(void.class, Object.class));
+		}catch(Throwable e){
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private ServiceLifecycleEvent(){}
+
+
+	/**
+	 * Starts a new event only if the event type is enabled (some recording is running with it), without allocating anything otherwise
+	 * @return the started event or null if the event type is not enabled
+	 */
+	static Object start(){
+		try{
+			Object reply=null;
+			if((boolean)IS_ENABLED.invokeExact()){
+				reply=(Object)NEW_EVENT.invokeExact();
+				BEGIN.invokeExact(reply);
+			}
+			return reply;
+		}catch(Throwable e){
+			throw new IllegalStateException(e);
+		}
+	}
+	static void finish(final Object _event,final ServiceSupplier _supplier,final Operation _operation,final boolean _success){
+		try{
+			END.invokeExact(_event);
+			if((boolean)SHOULD_COMMIT.invokeExact(_event)){
+				SET.invokeExact(_event,SERVICE,(Object)_supplier.getName());
+				SET.invokeExact(_event,ADAPTER,(Object)_supplier.getAdapter());
+				SET.invokeExact(_event,IMPLEMENTATION,(Object)_supplier.getImplementation());
+				SET.invokeExact(_event,OPERATION,(Object)_operation.name());
+				SET.invokeExact(_event,OUTCOME,(Object)((_success)? "SUCCESS" : "FAILURE"));
+				COMMIT.invokeExact(_event);
+			}
+		}catch(Throwable e){
+			throw new IllegalStateException(e);
+		}
+	}
+}
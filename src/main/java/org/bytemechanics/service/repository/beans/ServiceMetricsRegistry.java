@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceMetrics;
+
+/**
+ * Holder of the registered metrics sink. Instrumented code reads the sink once and skips all the measurement when none is registered
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceMetrics
+ */
+public final class ServiceMetricsRegistry {
+
+	private static volatile ServiceMetrics current=null;
+
+	private ServiceMetricsRegistry(){}
+
+	/**
+	 * Method to register the metrics sink, replacing the previous one
+	 * @param _metrics metrics sink, null to disable the metrics
+	 */
+	public static void register(final ServiceMetrics _metrics){
+		current=_metrics;
+	}
+	/**
+	 * Method to unregister the current metrics sink
+	 */
+	public static void unregister(){
+		current=null;
+	}
+	/**
+	 * Method to return the registered metrics sink
+	 * @return the registered sink or null if none
+	 */
+	public static ServiceMetrics get(){
+		return current;
+	}
+
+	/**
+	 * Utility method to obtain a new instance from the _supplier recording the instantiation duration if exist any registered sink
+	 * @param _service service name
+	 * @param _supplier instance supplier
+	 * @return the new instance
+	 */
+	public static Object instantiate(final String _service,final Supplier _supplier){
+
+		final ServiceMetrics metrics=current;
+		final Object reply;
+
+		if(metrics==null){
+			reply=_supplier.get();
+		}else{
+			final long begin=System.nanoTime();
+			reply=_supplier.get();
+			metrics.onInstantiation(_service, System.nanoTime()-begin);
+		}
+
+		return reply;
+	}
+}
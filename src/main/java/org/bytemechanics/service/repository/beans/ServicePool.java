@@ -0,0 +1,282 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Bounded pool of service instances for expensive non thread-safe services.
+ * Instances are created on demand up to the maximum, recycled on release (most recently used first), validated before each borrow
+ * and evicted when idle for longer than the idle timeout while the pool keeps more than the minimum (checked on each release and periodically
+ * in the shared scheduler). Discarded instances are destroyed with the dispose consumer
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceLease
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#pooled(int, int) 
+ */
+public final class ServicePool {
+
+	private static final class Entry{
+		private final Object instance;
+		private final int generation;
+		private long lastUsed;
+
+		Entry(final Object _instance,final int _generation){
+			this.instance=_instance;
+			this.generation=_generation;
+			this.lastUsed=System.nanoTime();
+		}
+	}
+
+	private final String name;
+	private final Supplier<Supplier> factory;
+	private final Consumer destroyer;
+	private final Predicate validator;
+	private final int min;
+	private final int max;
+	private final long idleTimeout;
+	private final long borrowTimeout;
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<Entry> idle;
+	private final AtomicInteger live;
+	private final AtomicInteger generation;
+
+
+	/**
+	 * Pool constructor
+	 * @param _name service name
+	 * @param _factory provider of the current service supplier to use to create new instances
+	 * @param _destroyer consumer to destroy discarded instances
+	 * @param _validator predicate to validate instances before borrow, invalid instances are destroyed
+	 * @param _min minimum number of instances to keep
+	 * @param _max maximum number of instances
+	 * @param _idleTimeout maximum idle time in nanoseconds before eviction, zero or negative to never evict
+	 * @param _borrowTimeout maximum time in nanoseconds to wait for an instance, negative to wait indefinitely
+	 * @throws ServiceInitializationException if _min is negative or _max is lower than 1 or lower than _min
+	 */
+	public ServicePool(final String _name,final Supplier<Supplier> _factory,final Consumer _destroyer,final Predicate _validator,final int _min,final int _max,final long _idleTimeout,final long _borrowTimeout){
+		if((_min<0)||(_max<1)||(_max<_min)){
+			throw new ServiceInitializationException(_name,SimpleFormat.format("Invalid pool bounds min {} max {}",_min,_max));
+		}
+		this.name=_name;
+		this.factory=_factory;
+		this.destroyer=_destroyer;
+		this.validator=(_validator!=null)? _validator : (instance -> true);
+		this.min=_min;
+		this.max=_max;
+		this.idleTimeout=_idleTimeout;
+		this.borrowTimeout=_borrowTimeout;
+		this.permits=new Semaphore(_max,true);
+		this.idle=new LinkedBlockingDeque<>();
+		this.live=new AtomicInteger(0);
+		this.generation=new AtomicInteger(0);
+		if(_idleTimeout>0){
+			ServiceExecutors.schedulePeriodically(this, ServicePool::evict, Math.max(_idleTimeout,TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+		}
+	}
+
+
+	/**
+	 * @return minimum number of instances to keep
+	 */
+	public int getMin() {
+		return min;
+	}
+	/**
+	 * @return maximum number of instances
+	 */
+	public int getMax() {
+		return max;
+	}
+	/**
+	 * @return number of instances currently alive (idle or borrowed)
+	 */
+	public int getLive() {
+		return live.get();
+	}
+	/**
+	 * @return number of idle instances
+	 */
+	public int getIdle() {
+		return idle.size();
+	}
+	/**
+	 * @return number of borrowed instances
+	 */
+	public int getBorrowed() {
+		return this.max-this.permits.availablePermits();
+	}
+
+	/**
+	 * Creates instances until the pool reaches the minimum. Each instance reserves its slot before being created and holds a permit meanwhile,
+	 * so concurrent borrows never push the pool beyond the minimum nor the maximum; stops when all the permits are in use
+	 * @throws ServiceInitializationException if any instance can not be created
+	 */
+	public void prefill(){
+		for(int current=this.live.get();(current<this.min)&&(this.permits.tryAcquire());current=this.live.get()){
+			try{
+				if(this.live.compareAndSet(current, current+1)){
+					this.idle.offerLast(create());
+				}
+			}finally{
+				this.permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Borrows an instance from the pool, reusing an idle valid one if exist otherwise creating a new one.
+	 * If all the instances are borrowed waits until one is released or the borrow timeout elapses
+	 * @return the lease of the borrowed instance
+	 * @throws ServiceInitializationException if the instance can not be created or the borrow timeout elapses
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public ServiceLease<Object> borrow(){
+
+		acquire();
+		try{
+			Entry entry=this.idle.pollFirst();
+			while((entry!=null)&&(!isValid(entry))){
+				destroySilently(entry);
+				entry=this.idle.pollFirst();
+			}
+			if(entry==null){
+				this.live.incrementAndGet();
+				entry=create();
+			}
+			final Entry borrowed=entry;
+			return new ServiceLease<>(borrowed.instance,instance -> release(borrowed));
+		}catch(Throwable e){
+			this.permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Destroys all the idle instances and marks the borrowed ones to be destroyed when released
+	 * @throws ServiceDisposeException if any instance can not be destroyed, only the first failure is thrown after all instances are destroyed
+	 */
+	public void clear(){
+
+		RuntimeException failure=null;
+
+		this.generation.incrementAndGet();
+		for(Entry entry=this.idle.pollFirst();entry!=null;entry=this.idle.pollFirst()){
+			try{
+				destroy(entry);
+			}catch(RuntimeException e){
+				if(failure==null){
+					failure=e;
+				}else{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if(failure!=null){
+			throw failure;
+		}
+	}
+
+	/**
+	 * Destroys the idle instances that exceed the idle timeout while the pool keeps more instances than the minimum
+	 */
+	public void evict(){
+
+		if(this.idleTimeout>0){
+			final long now=System.nanoTime();
+			for(Iterator<Entry> iterator=this.idle.descendingIterator();iterator.hasNext()&&(this.live.get()>this.min);){
+				final Entry entry=iterator.next();
+				if((now-entry.lastUsed>this.idleTimeout)&&(this.idle.removeLastOccurrence(entry))){
+					destroySilently(entry);
+				}
+			}
+		}
+	}
+
+
+	private void acquire(){
+		try{
+			if(this.borrowTimeout<0){
+				this.permits.acquire();
+			}else if(!this.permits.tryAcquire(this.borrowTimeout,TimeUnit.NANOSECONDS)){
+				throw new ServiceInitializationException(this.name,SimpleFormat.format("Unable to borrow instance, all {} pooled instances are in use",this.max));
+			}
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new ServiceInitializationException(this.name,"Interrupted while waiting to borrow instance",e);
+		}
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private boolean isValid(final Entry _entry){
+		try{
+			return (_entry.generation==this.generation.get())&&(this.validator.test(_entry.instance));
+		}catch(Throwable e){
+			Logger.getLogger(ServicePool.class.getName()).log(Level.FINE,e,() -> SimpleFormat.format("service::pool::{}::validate::fail::{}",this.name,e.getMessage()));
+			return false;
+		}
+	}
+	private Entry create(){
+		final int current=this.generation.get();
+		final Object instance;
+		try{
+			instance=ServiceMetricsRegistry.instantiate(this.name,this.factory.get());
+		}catch(RuntimeException|Error e){
+			this.live.decrementAndGet();
+			throw e;
+		}
+		Logger.getLogger(ServicePool.class.getName()).finest(() -> SimpleFormat.format("service::pool::{}::create::{}",this.name,this.live.get()));
+		return new Entry(instance,current);
+	}
+	private void release(final Entry _entry){
+		try{
+			if(_entry.generation==this.generation.get()){
+				_entry.lastUsed=System.nanoTime();
+				this.idle.offerFirst(_entry);
+			}else{
+				destroySilently(_entry);
+			}
+		}finally{
+			this.permits.release();
+		}
+		evict();
+	}
+	@SuppressWarnings("unchecked")
+	private void destroy(final Entry _entry){
+		this.live.decrementAndGet();
+		Logger.getLogger(ServicePool.class.getName()).finest(() -> SimpleFormat.format("service::pool::{}::destroy::{}",this.name,this.live.get()));
+		this.destroyer.accept(_entry.instance);
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private void destroySilently(final Entry _entry){
+		try{
+			destroy(_entry);
+		}catch(Throwable e){
+			Logger.getLogger(ServicePool.class.getName()).log(Level.WARNING,e,() -> SimpleFormat.format("service::pool::{}::destroy::fail::{}",this.name,e.getMessage()));
+		}
+	}
+}
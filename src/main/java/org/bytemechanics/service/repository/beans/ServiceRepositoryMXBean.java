@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.List;
+
+/**
+ * Management interface of a service repository enum, registered through ServiceRepositoryManagement#register(java.lang.Class)
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepositoryManagement
+ */
+public interface ServiceRepositoryMXBean {
+
+	/**
+	 * @return repository enum class name
+	 */
+	public String getRepository();
+	/**
+	 * @return current state of all the services of the repository in declaration order
+	 */
+	public List<ServiceInfo> getServices();
+	/**
+	 * @return names of the services with a live singleton instance
+	 */
+	public List<String> getLiveServices();
+
+	/**
+	 * Initialize the service
+	 * @param _service service name
+	 * @see org.bytemechanics.service.repository.ServiceRepository#init() 
+	 */
+	public void init(String _service);
+	/**
+	 * Dispose the service
+	 * @param _service service name
+	 * @see org.bytemechanics.service.repository.ServiceRepository#dispose() 
+	 */
+	public void dispose(String _service);
+	/**
+	 * Dispose and initialize again the service
+	 * @param _service service name
+	 * @see org.bytemechanics.service.repository.ServiceRepository#reset(java.util.stream.Stream) 
+	 */
+	public void reset(String _service);
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * JMX management of a service repository enum, exposes the state of each service and its lifecycle operations
+ * with the object name org.bytemechanics.service.repository:type=ServiceRepository,name=&lt;repository enum class name&gt;.
+ * Operation failures are reported with IllegalStateException carrying only the failure message, so any JMX client can deserialize them
+ * @author afarre
+ * @since 1.4.0
+ * @param <T> repository enum type
+ * @see ServiceRepositoryMXBean
+ */
+public final class ServiceRepositoryManagement<T extends Enum<T> & ServiceRepository> implements ServiceRepositoryMXBean{
+
+	/** JMX domain */
+	public static final String DOMAIN="org.bytemechanics.service.repository";
+
+	private final Class<T> repository;
+
+
+	/**
+	 * Service repository management constructor
+	 * @param _repository repository enum class
+	 */
+	public ServiceRepositoryManagement(final Class<T> _repository){
+		this.repository=_repository;
+	}
+
+
+	/**
+	 * @see ServiceRepositoryMXBean#getRepository() 
+	 */
+	@Override
+	public String getRepository() {
+		return this.repository.getName();
+	}
+	/**
+	 * @see ServiceRepositoryMXBean#getServices() 
+	 */
+	@Override
+	public List<ServiceInfo> getServices() {
+		return Collections.unmodifiableList(Stream.of(this.repository.getEnumConstants())
+													.map(ServiceInfo::of)
+													.collect(Collectors.toList()));
+	}
+	/**
+	 * @see ServiceRepositoryMXBean#getLiveServices() 
+	 */
+	@Override
+	public List<String> getLiveServices() {
+		return Collections.unmodifiableList(Stream.of(this.repository.getEnumConstants())
+													.filter(service -> service.getServiceSupplier().getInstance()!=null)
+													.map(ServiceRepository::name)
+													.collect(Collectors.toList()));
+	}
+
+	/**
+	 * @see ServiceRepositoryMXBean#init(java.lang.String) 
+	 */
+	@Override
+	public void init(final String _service) {
+		execute(_service, "init", ServiceRepository::init);
+	}
+	/**
+	 * @see ServiceRepositoryMXBean#dispose(java.lang.String) 
+	 */
+	@Override
+	public void dispose(final String _service) {
+		execute(_service, "dispose", ServiceRepository::dispose);
+	}
+	/**
+	 * @see ServiceRepositoryMXBean#reset(java.lang.String) 
+	 */
+	@Override
+	public void reset(final String _service) {
+		execute(_service, "reset", service -> ServiceRepository.reset(Stream.of(service)));
+	}
+
+	private void execute(final String _service,final String _operation,final Consumer<ServiceRepository> _action){
+
+		final ServiceRepository service=find(_service)
+											.orElseThrow(() -> new IllegalArgumentException(SimpleFormat.format("Unknown service {} in {}",_service,this.repository.getName())));
+
+		Logger.getLogger(ServiceRepositoryManagement.class.getName()).fine(() -> SimpleFormat.format("service::management::{}::{}",_operation,_service));
+		try{
+			_action.accept(service);
+		}catch(RuntimeException e){
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+	private Optional<ServiceRepository> find(final String _service){
+		return Arrays.stream(this.repository.getEnumConstants())
+						.filter(service -> service.name().equals(_service))
+						.map(service -> (ServiceRepository)service)
+						.findFirst();
+	}
+
+
+	/**
+	 * Returns the JMX object name of the given _repository
+	 * @param _repository repository enum class
+	 * @return the object name
+	 */
+	public static ObjectName objectName(final Class<?> _repository){
+		try{
+			return new ObjectName(SimpleFormat.format("{}:type=ServiceRepository,name={}",DOMAIN,_repository.getName()));
+		}catch(MalformedObjectNameException e){
+			throw new IllegalArgumentException(e.getMessage(),e);
+		}
+	}
+	/**
+	 * Register in the platform MBean server the management bean of the given _repository, replacing any previous one
+	 * @param <R> repository enum type
+	 * @param _repository repository enum class
+	 * @return the registered object name
+	 * @throws IllegalStateException if the bean can not be registered
+	 */
+	public static <R extends Enum<R> & ServiceRepository> ObjectName register(final Class<R> _repository){
+
+		final MBeanServer server=ManagementFactory.getPlatformMBeanServer();
+		final ObjectName reply=objectName(_repository);
+
+		try{
+			if(server.isRegistered(reply)){
+				server.unregisterMBean(reply);
+			}
+			server.registerMBean(new ServiceRepositoryManagement<>(_repository), reply);
+			Logger.getLogger(ServiceRepositoryManagement.class.getName()).finer(() -> SimpleFormat.format("service::management::register::{}",reply));
+		}catch(JMException e){
+			throw new IllegalStateException(SimpleFormat.format("Unable to register {}: {}",reply,e.getMessage()),e);
+		}
+
+		return reply;
+	}
+	/**
+	 * Unregister from the platform MBean server the management bean of the given _repository if registered
+	 * @param _repository repository enum class
+	 * @return true if the bean was registered
+	 */
+	public static boolean unregister(final Class<?> _repository){
+
+		final MBeanServer server=ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name=objectName(_repository);
+		boolean reply=false;
+
+		try{
+			if(server.isRegistered(name)){
+				server.unregisterMBean(name);
+				reply=true;
+			}
+		}catch(JMException e){
+			Logger.getLogger(ServiceRepositoryManagement.class.getName()).finer(() -> SimpleFormat.format("service::management::unregister::{}::fail::{}",name,e.getMessage()));
+		}
+
+		return reply;
+	}
+}
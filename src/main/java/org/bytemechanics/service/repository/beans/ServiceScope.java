@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Lifetime scope of service instances (per request, job, tenant session...). Each service resolved through the scope is created once per scope
+ * and tracked, closing the scope disposes all its instances in one pass in reverse creation order after closing its child scopes.
+ * Singleton services are shared and never disposed by the scope, pooled services are borrowed and released on close, any other service
+ * instance is owned by the scope and destroyed with its dispose consumer. Designed to be used with try-with-resources:<br>
+ * <code>
+ * try(ServiceScope scope=ServiceScope.open("request")){<br>
+ * &nbsp;&nbsp;&nbsp;MyServiceRepository.PARSER.get(Parser.class,scope).parse(...);<br>
+ * }<br>
+ * </code>
+ * The scope is thread-safe and does not rely on thread locals, so it can be shared with the subtasks forked from the owner thread (virtual threads included).
+ * Lookups of already created instances are a single concurrent map read, concurrent first lookups of the same service create only one instance
+ * and the rest wait for it without holding any monitor
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#get(org.bytemechanics.service.repository.beans.ServiceScope) 
+ */
+public final class ServiceScope implements AutoCloseable{
+
+	private static final AtomicLong SEQUENCE=new AtomicLong();
+
+	private static final class Tracked{
+		private final String service;
+		private final Runnable disposer;
+
+		Tracked(final String _service,final Runnable _disposer){
+			this.service=_service;
+			this.disposer=_disposer;
+		}
+	}
+
+	private final String name;
+	private final ServiceScope parent;
+	private final Map<ServiceRepository,CompletableFuture<Object>> instances;
+	private final ConcurrentLinkedDeque<Tracked> tracked;
+	private final Set<ServiceScope> children;
+	private final AtomicBoolean closed;
+
+
+	private ServiceScope(final String _name,final ServiceScope _parent){
+		this.name=_name;
+		this.parent=_parent;
+		this.instances=new ConcurrentHashMap<>();
+		this.tracked=new ConcurrentLinkedDeque<>();
+		this.children=ConcurrentHashMap.newKeySet();
+		this.closed=new AtomicBoolean(false);
+	}
+
+
+	/**
+	 * @return scope name
+	 */
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return parent scope if this is a child scope
+	 */
+	public Optional<ServiceScope> getParent() {
+		return Optional.ofNullable(parent);
+	}
+	/**
+	 * @return true if the scope has been already closed
+	 */
+	public boolean isClosed() {
+		return this.closed.get();
+	}
+	/**
+	 * @return number of instances currently tracked by this scope (excluding child scopes)
+	 */
+	public int size() {
+		return this.tracked.size();
+	}
+
+	/**
+	 * Open a child scope closed automatically (before this scope instances) when this scope closes
+	 * @param _name child scope name
+	 * @return the child scope
+	 * @throws IllegalStateException if this scope has been already closed
+	 */
+	public ServiceScope openChild(final String _name){
+
+		final ServiceScope reply=new ServiceScope(_name, this);
+
+		this.children.add(reply);
+		if(isClosed()){
+			this.children.remove(reply);
+			throw new IllegalStateException(SimpleFormat.format("Scope {} already closed",this.name));
+		}
+		Logger.getLogger(ServiceScope.class.getName()).finer(() -> SimpleFormat.format("service::scope::{}::child::{}",this.name,_name));
+
+		return reply;
+	}
+
+	/**
+	 * Obtain the instance of the given _service for this scope, creating it on the first call
+	 * @param _service service to resolve
+	 * @return the scope instance of _service, the shared one if it is a singleton
+	 * @throws IllegalStateException if this scope has been already closed
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceInitializationException when service can not be instantiated
+	 */
+	public Object get(final ServiceRepository _service){
+
+		if(isClosed()){
+			throw new IllegalStateException(SimpleFormat.format("Scope {} already closed",this.name));
+		}
+
+		CompletableFuture<Object> reply=this.instances.get(_service);
+
+		if(reply==null){
+			final CompletableFuture<Object> created=new CompletableFuture<>();
+			reply=this.instances.putIfAbsent(_service, created);
+			if(reply==null){
+				reply=created;
+				create(_service, created);
+			}
+		}
+
+		return join(reply);
+	}
+	/**
+	 * Obtain the instance of the given _service for this scope casted to the given _class, creating it on the first call
+	 * @param <T> type of the interface to implement
+	 * @param _service service to resolve
+	 * @param _class class to cast the instance
+	 * @return the scope instance of _service, the shared one if it is a singleton
+	 * @throws IllegalStateException if this scope has been already closed
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceInitializationException when service can not be instantiated
+	 * @see #get(org.bytemechanics.service.repository.ServiceRepository) 
+	 */
+	public <T> T get(final ServiceRepository _service,final Class<T> _class){
+		return _class.cast(get(_service));
+	}
+
+	@SuppressWarnings({"UseSpecificCatch","unchecked"})
+	private void create(final ServiceRepository _service,final CompletableFuture<Object> _future){
+
+		final ServiceSupplier supplier=_service.getServiceSupplier();
+
+		try{
+			final Object instance;
+			final Tracked entry;
+			if(supplier.isSingleton()){
+				instance=supplier.get();
+				entry=null;
+			}else if((supplier instanceof DefaultServiceSupplier)&&(((DefaultServiceSupplier)supplier).getPool().isPresent())){
+				final ServiceLease<Object> lease=supplier.borrow();
+				instance=lease.get();
+				entry=new Tracked(_service.name(), lease::release);
+			}else{
+				instance=ServiceMetricsRegistry.instantiate(_service.name(), supplier.provideSupplier());
+				final Consumer destroyer=(supplier.getDisposeConsumer()!=null)? supplier.getDisposeConsumer() : ServiceSupplier.generateConsumer(_service.name());
+				entry=new Tracked(_service.name(), () -> destroyer.accept(instance));
+			}
+			if(entry!=null){
+				this.tracked.addLast(entry);
+				if(isClosed()&&this.tracked.removeLastOccurrence(entry)){
+					entry.disposer.run();
+					throw new IllegalStateException(SimpleFormat.format("Scope {} already closed",this.name));
+				}
+			}
+			Logger.getLogger(ServiceScope.class.getName()).finest(() -> SimpleFormat.format("service::scope::{}::create::{}",this.name,_service.name()));
+			_future.complete(instance);
+		}catch(Throwable e){
+			this.instances.remove(_service, _future);
+			_future.completeExceptionally(e);
+		}
+	}
+
+	private static Object join(final CompletableFuture<Object> _future){
+		try{
+			return _future.join();
+		}catch(CompletionException e){
+			final Throwable cause=e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error){
+				throw (Error)cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Close the child scopes and dispose all the tracked instances in reverse creation order, further calls does nothing.
+	 * All instances are disposed even if some of them fails
+	 * @throws ServiceDisposeException with the first dispose failure, the rest are added as suppressed
+	 */
+	@Override
+	@SuppressWarnings("UseSpecificCatch")
+	public void close(){
+
+		if(this.closed.compareAndSet(false, true)){
+			Logger.getLogger(ServiceScope.class.getName()).finer(() -> SimpleFormat.format("service::scope::{}::close::begin",this.name));
+			final List<ServiceDisposeException> failures=new ArrayList<>();
+			for(Iterator<ServiceScope> iterator=this.children.iterator();iterator.hasNext();){
+				final ServiceScope child=iterator.next();
+				iterator.remove();
+				try{
+					child.close();
+				}catch(ServiceDisposeException e){
+					failures.add(e);
+				}
+			}
+			Tracked entry;
+			while((entry=this.tracked.pollLast())!=null){
+				try{
+					entry.disposer.run();
+				}catch(ServiceDisposeException e){
+					failures.add(e);
+				}catch(Throwable e){
+					failures.add(new ServiceDisposeException(entry.service, e.getMessage(), e));
+				}
+			}
+			this.instances.clear();
+			if(this.parent!=null){
+				this.parent.children.remove(this);
+			}
+			Logger.getLogger(ServiceScope.class.getName()).finer(() -> SimpleFormat.format("service::scope::{}::close::end::{}",this.name,failures.size()));
+			if(!failures.isEmpty()){
+				final ServiceDisposeException reply=failures.get(0);
+				failures.stream()
+							.skip(1)
+							.forEach(reply::addSuppressed);
+				throw reply;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("ServiceScope[name={}, closed={}, instances={}, children={}]",this.name,isClosed(),size(),this.children.size());
+	}
+
+
+	/**
+	 * Open a new root scope with a generated name
+	 * @return the new scope
+	 */
+	public static ServiceScope open(){
+		return open("scope-"+SEQUENCE.incrementAndGet());
+	}
+	/**
+	 * Open a new root scope
+	 * @param _name scope name
+	 * @return the new scope
+	 */
+	public static ServiceScope open(final String _name){
+		Logger.getLogger(ServiceScope.class.getName()).finer(() -> SimpleFormat.format("service::scope::{}::open",_name));
+		return new ServiceScope(_name, null);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Structured result of a parallel shutdown with the outcome of each service dispose
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#shutdown(java.util.stream.Stream, java.util.concurrent.Executor, long, long, java.util.concurrent.TimeUnit)
+ */
+public final class ServiceShutdownReport {
+
+	/**
+	 * Dispose outcome
+	 */
+	public static enum Outcome{
+		/** Service disposed correctly */
+		DISPOSED,
+		/** Service dispose failed */
+		FAILED,
+		/** Service dispose does not finish in time */
+		TIMED_OUT,
+		/** Service dispose never started because the global timeout elapsed before, the service has not been disposed */
+		NOT_STARTED,
+	}
+
+	/**
+	 * Dispose result of a single service
+	 */
+	public static final class Result{
+
+		private final ServiceRepository service;
+		private final Outcome outcome;
+		private final long elapsedNanos;
+		private final ServiceDisposeException failure;
+
+		/**
+		 * Dispose result constructor
+		 * @param _service disposed service
+		 * @param _outcome dispose outcome
+		 * @param _elapsedNanos dispose elapsed time in nanoseconds
+		 * @param _failure dispose failure if outcome is FAILED
+		 */
+		public Result(final ServiceRepository _service,final Outcome _outcome,final long _elapsedNanos,final ServiceDisposeException _failure){
+			this.service=_service;
+			this.outcome=_outcome;
+			this.elapsedNanos=_elapsedNanos;
+			this.failure=_failure;
+		}
+
+		/**
+		 * @return disposed service
+		 */
+		public ServiceRepository getService() {
+			return service;
+		}
+		/**
+		 * @return dispose outcome
+		 */
+		public Outcome getOutcome() {
+			return outcome;
+		}
+		/**
+		 * @param _unit time unit
+		 * @return dispose elapsed time in the given _unit
+		 */
+		public long getElapsed(final TimeUnit _unit) {
+			return _unit.convert(elapsedNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @return dispose failure if outcome is FAILED
+		 */
+		public Optional<ServiceDisposeException> getFailure() {
+			return Optional.ofNullable(failure);
+		}
+
+		@Override
+		public String toString() {
+			return SimpleFormat.format("{}::{}::{}ms",service.name(),outcome,getElapsed(TimeUnit.MILLISECONDS));
+		}
+	}
+
+
+	private final List<Result> results;
+
+
+	/**
+	 * Shutdown report constructor
+	 * @param _results results of all services in dispose order
+	 */
+	public ServiceShutdownReport(final List<Result> _results){
+		this.results=Collections.unmodifiableList(_results);
+	}
+
+
+	/**
+	 * @return results of all services
+	 */
+	public List<Result> getResults() {
+		return results;
+	}
+	/**
+	 * @param _outcome outcome to filter
+	 * @return names of the services that finished with the given _outcome
+	 */
+	public List<String> getServices(final Outcome _outcome) {
+		return this.results.stream()
+						.filter(result -> result.getOutcome()==_outcome)
+						.map(result -> result.getService().name())
+						.collect(Collectors.toList());
+	}
+	/**
+	 * @return true if all services has been disposed correctly
+	 */
+	public boolean isSuccessful() {
+		return this.results.stream()
+						.allMatch(result -> result.getOutcome()==Outcome.DISPOSED);
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("ServiceShutdownReport[disposed={}, failed={}, timedOut={}, notStarted={}]",getServices(Outcome.DISPOSED),getServices(Outcome.FAILED),getServices(Outcome.TIMED_OUT),getServices(Outcome.NOT_STARTED));
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.beans.ServiceStartupReport.Outcome;
+import org.bytemechanics.service.repository.beans.ServiceStartupReport.Result;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Profiled startup in dependency order: each service is initialized once all its dependencies has been initialized, services without dependencies
+ * between them are initialized concurrently when the executor allows it. Each initialization is measured (wall time, cpu time, allocated bytes
+ * and loaded classes) in the thread that runs it and the critical path is computed from the declared dependencies.
+ * The loaded classes counter is global to the virtual machine, so it is only reported for the initializations that did not overlap with any other one
+ * (always the case with a sequential executor).
+ * Failures does not interrupt the startup, the services depending on a failed service are skipped and all the outcomes are reported
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#profileStartup(java.util.stream.Stream, java.util.concurrent.Executor) 
+ */
+public final class ServiceStartupProfiler {
+
+	private final ServiceDependencyGraph graph;
+	private final Executor executor;
+	private final ThreadMXBean threads;
+	private final ClassLoadingMXBean classes;
+	private final AtomicInteger running;
+	private final AtomicLong started;
+
+
+	/**
+	 * Profiled startup constructor
+	 * @param _graph dependency graph of the services to initialize
+	 * @param _executor executor to use to initialize the services
+	 */
+	public ServiceStartupProfiler(final ServiceDependencyGraph _graph,final Executor _executor){
+		this.graph=_graph;
+		this.executor=_executor;
+		this.threads=ManagementFactory.getThreadMXBean();
+		this.classes=ManagementFactory.getClassLoadingMXBean();
+		this.running=new AtomicInteger(0);
+		this.started=new AtomicLong(0);
+	}
+
+
+	/**
+	 * Initialize all the services of the graph
+	 * @return the report with the measures of each service initialization
+	 */
+	public ServiceStartupReport execute(){
+
+		final long begin=System.nanoTime();
+		final Map<ServiceRepository,CompletableFuture<Result>> pending=new LinkedHashMap<>();
+
+		for(ServiceRepository service:this.graph.getServices()){
+			final List<CompletableFuture<Result>> dependencies=this.graph.getDependencies(service)
+																			.stream()
+																				.map(pending::get)
+																				.collect(Collectors.toList());
+			pending.put(service,CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[dependencies.size()]))
+												.thenApplyAsync(ignored -> initialize(service, dependencies, begin), this.executor));
+		}
+		final List<Result> results=new ArrayList<>(pending.size());
+		pending.values()
+					.forEach(future -> results.add(future.join()));
+		final long elapsed=System.nanoTime()-begin;
+		final ServiceStartupReport reply=new ServiceStartupReport(results, criticalPath(results), elapsed);
+		Logger.getLogger(ServiceRepository.class.getName()).fine(() -> SimpleFormat.format("service::factory::startup::profile::{}",reply));
+
+		return reply;
+	}
+
+	private Result initialize(final ServiceRepository _service,final List<CompletableFuture<Result>> _dependencies,final long _origin){
+		return (_dependencies.stream()
+								.allMatch(dependency -> dependency.join().getOutcome()==Outcome.INITIALIZED))? 
+					profile(_service, _origin) 
+					: new Result(_service, Outcome.SKIPPED, null, System.nanoTime()-_origin, 0, 0, 0, 0, null);
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private Result profile(final ServiceRepository _service,final long _origin){
+
+		final long ticket=this.started.incrementAndGet();
+		final boolean alone=(this.running.incrementAndGet()==1);
+		final long cpuBegin=cpuTime();
+		final long allocatedBegin=allocatedBytes();
+		final long classesBegin=this.classes.getTotalLoadedClassCount();
+		final long begin=System.nanoTime();
+		Outcome outcome=Outcome.INITIALIZED;
+		ServiceInitializationException failure=null;
+
+		try{
+			_service.init();
+		}catch(ServiceInitializationException e){
+			outcome=Outcome.FAILED;
+			failure=e;
+		}catch(Throwable e){
+			outcome=Outcome.FAILED;
+			failure=new ServiceInitializationException(_service.name(),e.getMessage(),e);
+		}
+		final long wall=System.nanoTime()-begin;
+		final long cpu=(cpuBegin<0)? -1 : cpuTime()-cpuBegin;
+		final long allocated=(allocatedBegin<0)? -1 : allocatedBytes()-allocatedBegin;
+		final long loaded=this.classes.getTotalLoadedClassCount()-classesBegin;
+		// no other initialization was running when this one started nor has started since
+		final boolean exclusive=alone&&(this.started.get()==ticket);
+		this.running.decrementAndGet();
+
+		return new Result(_service, outcome, Thread.currentThread().getName(), begin-_origin, wall, cpu, allocated, (exclusive)? loaded : -1, failure);
+	}
+	private long cpuTime(){
+		return (this.threads.isCurrentThreadCpuTimeSupported()&&this.threads.isThreadCpuTimeEnabled())? this.threads.getCurrentThreadCpuTime() : -1;
+	}
+	private long allocatedBytes(){
+
+		long reply=-1;
+
+		if(this.threads instanceof com.sun.management.ThreadMXBean){
+			final com.sun.management.ThreadMXBean extended=(com.sun.management.ThreadMXBean)this.threads;
+			if(extended.isThreadAllocatedMemorySupported()&&extended.isThreadAllocatedMemoryEnabled()){
+				reply=extended.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+
+		return reply;
+	}
+
+	private List<Result> criticalPath(final List<Result> _results){
+
+		final Map<ServiceRepository,Result> byService=new HashMap<>();
+		final Map<ServiceRepository,Long> finish=new HashMap<>();
+		final Map<ServiceRepository,ServiceRepository> previous=new HashMap<>();
+		ServiceRepository last=null;
+
+		_results.forEach(result -> byService.put(result.getService(), result));
+		for(ServiceRepository service:this.graph.getServices()){
+			long start=0;
+			for(ServiceRepository dependency:this.graph.getDependencies(service)){
+				final long dependencyFinish=finish.get(dependency);
+				if(dependencyFinish>start){
+					start=dependencyFinish;
+					previous.put(service, dependency);
+				}
+			}
+			final long current=start+byService.get(service).getWallTime(TimeUnit.NANOSECONDS);
+			finish.put(service, current);
+			if((last==null)||(current>finish.get(last))){
+				last=service;
+			}
+		}
+
+		final List<Result> reply=new ArrayList<>();
+		for(ServiceRepository service=last;service!=null;service=previous.get(service)){
+			reply.add(byService.get(service));
+		}
+		Collections.reverse(reply);
+
+		return reply;
+	}
+}
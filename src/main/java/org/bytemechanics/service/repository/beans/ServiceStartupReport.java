@@ -0,0 +1,330 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Structured result of a profiled startup with the measures of each service initialization and the critical path
+ * (the chain of declared dependencies with the longest accumulated initialization time, that bounds the parallel startup time)
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceRepository#profileStartup(java.util.stream.Stream, java.util.concurrent.Executor) 
+ */
+public final class ServiceStartupReport {
+
+	/**
+	 * Initialization outcome
+	 */
+	public static enum Outcome{
+		/** Service initialized correctly */
+		INITIALIZED,
+		/** Service initialization failed */
+		FAILED,
+		/** Service not initialized because some dependency failed or has been skipped */
+		SKIPPED,
+	}
+
+	/**
+	 * Initialization measures of a single service
+	 */
+	public static final class Result{
+
+		private final ServiceRepository service;
+		private final Outcome outcome;
+		private final String thread;
+		private final long startNanos;
+		private final long wallNanos;
+		private final long cpuNanos;
+		private final long allocatedBytes;
+		private final long loadedClasses;
+		private final ServiceInitializationException failure;
+
+		/**
+		 * Initialization result constructor
+		 * @param _service initialized service
+		 * @param _outcome initialization outcome
+		 * @param _thread name of the thread that run the initialization
+		 * @param _startNanos nanoseconds since the startup begin when the initialization started
+		 * @param _wallNanos initialization wall time in nanoseconds
+		 * @param _cpuNanos initialization cpu time in nanoseconds, -1 if not supported by the virtual machine
+		 * @param _allocatedBytes bytes allocated by the initialization thread, -1 if not supported by the virtual machine
+		 * @param _loadedClasses classes loaded by the virtual machine during the initialization, -1 if it overlapped with other initializations
+		 * @param _failure initialization failure if outcome is FAILED
+		 */
+		public Result(final ServiceRepository _service,final Outcome _outcome,final String _thread,final long _startNanos,final long _wallNanos,final long _cpuNanos,final long _allocatedBytes,final long _loadedClasses,final ServiceInitializationException _failure){
+			this.service=_service;
+			this.outcome=_outcome;
+			this.thread=_thread;
+			this.startNanos=_startNanos;
+			this.wallNanos=_wallNanos;
+			this.cpuNanos=_cpuNanos;
+			this.allocatedBytes=_allocatedBytes;
+			this.loadedClasses=_loadedClasses;
+			this.failure=_failure;
+		}
+
+		/**
+		 * @return initialized service
+		 */
+		public ServiceRepository getService() {
+			return service;
+		}
+		/**
+		 * @return initialization outcome
+		 */
+		public Outcome getOutcome() {
+			return outcome;
+		}
+		/**
+		 * @return name of the thread that run the initialization, null if skipped
+		 */
+		public String getThread() {
+			return thread;
+		}
+		/**
+		 * @param _unit time unit
+		 * @return time since the startup begin when the initialization started in the given _unit
+		 */
+		public long getStart(final TimeUnit _unit) {
+			return _unit.convert(startNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @param _unit time unit
+		 * @return initialization wall time in the given _unit
+		 */
+		public long getWallTime(final TimeUnit _unit) {
+			return _unit.convert(wallNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @param _unit time unit
+		 * @return initialization cpu time in the given _unit, -1 if not supported by the virtual machine
+		 */
+		public long getCpuTime(final TimeUnit _unit) {
+			return (cpuNanos<0)? -1 : _unit.convert(cpuNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @return bytes allocated by the initialization thread, -1 if not supported by the virtual machine
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+		/**
+		 * @return classes loaded by the virtual machine during the initialization, -1 if not measurable because the initialization
+		 * overlapped with other ones (the virtual machine counter is global)
+		 */
+		public long getLoadedClasses() {
+			return loadedClasses;
+		}
+		/**
+		 * @return initialization failure if outcome is FAILED
+		 */
+		public Optional<ServiceInitializationException> getFailure() {
+			return Optional.ofNullable(failure);
+		}
+
+		@Override
+		public String toString() {
+			return SimpleFormat.format("{}::{}::{}ms",service.name(),outcome,getWallTime(TimeUnit.MILLISECONDS));
+		}
+	}
+
+
+	private final List<Result> results;
+	private final List<Result> criticalPath;
+	private final long elapsedNanos;
+
+
+	/**
+	 * Startup report constructor
+	 * @param _results results of all services in dependency order
+	 * @param _criticalPath results of the critical path services from the first initialized to the last
+	 * @param _elapsedNanos startup wall time in nanoseconds
+	 */
+	public ServiceStartupReport(final List<Result> _results,final List<Result> _criticalPath,final long _elapsedNanos){
+		this.results=Collections.unmodifiableList(_results);
+		this.criticalPath=Collections.unmodifiableList(_criticalPath);
+		this.elapsedNanos=_elapsedNanos;
+	}
+
+
+	/**
+	 * @return results of all services in dependency order
+	 */
+	public List<Result> getResults() {
+		return results;
+	}
+	/**
+	 * @return results of the critical path services from the first initialized to the last
+	 */
+	public List<Result> getCriticalPath() {
+		return criticalPath;
+	}
+	/**
+	 * @param _unit time unit
+	 * @return accumulated initialization wall time of the critical path in the given _unit
+	 */
+	public long getCriticalPathTime(final TimeUnit _unit) {
+		return _unit.convert(this.criticalPath.stream()
+												.mapToLong(result -> result.wallNanos)
+												.sum(),TimeUnit.NANOSECONDS);
+	}
+	/**
+	 * @param _unit time unit
+	 * @return startup wall time in the given _unit
+	 */
+	public long getElapsed(final TimeUnit _unit) {
+		return _unit.convert(elapsedNanos,TimeUnit.NANOSECONDS);
+	}
+	/**
+	 * @param _outcome outcome to filter
+	 * @return names of the services that finished with the given _outcome
+	 */
+	public List<String> getServices(final Outcome _outcome) {
+		return this.results.stream()
+						.filter(result -> result.getOutcome()==_outcome)
+						.map(result -> result.getService().name())
+						.collect(Collectors.toList());
+	}
+	/**
+	 * @return all the initialization failures
+	 */
+	public List<ServiceInitializationException> getFailures() {
+		return this.results.stream()
+						.map(result -> result.failure)
+						.filter(failure -> failure!=null)
+						.collect(Collectors.toList());
+	}
+	/**
+	 * @return true if all services has been initialized correctly
+	 */
+	public boolean isSuccessful() {
+		return this.results.stream()
+						.allMatch(result -> result.getOutcome()==Outcome.INITIALIZED);
+	}
+
+	/**
+	 * Export the report as JSON
+	 * @return JSON document with the startup elapsed time, the critical path and the measures of each service (times in microseconds)
+	 */
+	public String toJson() {
+
+		final StringBuilder reply=new StringBuilder();
+
+		reply.append("{\"elapsedMicros\":").append(getElapsed(TimeUnit.MICROSECONDS))
+				.append(",\"criticalPathMicros\":").append(getCriticalPathTime(TimeUnit.MICROSECONDS))
+				.append(",\"criticalPath\":[")
+				.append(this.criticalPath.stream()
+											.map(result -> quote(result.getService().name()))
+											.collect(Collectors.joining(",")))
+				.append("],\"services\":[");
+		for(int ic1=0;ic1<this.results.size();ic1++){
+			final Result result=this.results.get(ic1);
+			reply.append((ic1>0)? "," : "")
+					.append("{\"name\":").append(quote(result.getService().name()))
+					.append(",\"outcome\":").append(quote(result.getOutcome().name()))
+					.append(",\"thread\":").append(quote(result.getThread()))
+					.append(",\"startMicros\":").append(result.getStart(TimeUnit.MICROSECONDS))
+					.append(",\"wallMicros\":").append(result.getWallTime(TimeUnit.MICROSECONDS))
+					.append(",\"cpuMicros\":").append(result.getCpuTime(TimeUnit.MICROSECONDS))
+					.append(",\"allocatedBytes\":").append(result.getAllocatedBytes())
+					.append(",\"loadedClasses\":").append((result.getLoadedClasses()<0)? "null" : String.valueOf(result.getLoadedClasses()))
+					.append(",\"failure\":").append(quote(result.getFailure().map(Throwable::getMessage).orElse(null)))
+					.append('}');
+		}
+		reply.append("]}");
+
+		return reply.toString();
+	}
+	private static String quote(final String _value){
+
+		if(_value==null){
+			return "null";
+		}
+
+		final StringBuilder reply=new StringBuilder(_value.length()+2).append('"');
+
+		for(char character:_value.toCharArray()){
+			switch(character){
+				case '"':	reply.append("\\\"");
+							break;
+				case '\\':	reply.append("\\\\");
+							break;
+				case '\n':	reply.append("\\n");
+							break;
+				case '\r':	reply.append("\\r");
+							break;
+				case '\t':	reply.append("\\t");
+							break;
+				default:	if(character<0x20){
+								reply.append(String.format("\\u%04x",(int)character));
+							}else{
+								reply.append(character);
+							}
+			}
+		}
+
+		return reply.append('"').toString();
+	}
+
+	/**
+	 * Export the report as a human readable table sorted by dependency order, services in the critical path are marked with *
+	 * @return table with one row per service (times in milliseconds)
+	 */
+	public String toTable() {
+
+		final int width=Math.max(7,this.results.stream()
+												.mapToInt(result -> result.getService().name().length())
+												.max()
+												.orElse(0));
+		final String row="%1s %-"+width+"s %-11s %10s %10s %10s %12s %8s  %s%n";
+		final StringBuilder reply=new StringBuilder();
+
+		reply.append(String.format(row,"","SERVICE","OUTCOME","START(ms)","WALL(ms)","CPU(ms)","ALLOC(KB)","CLASSES","THREAD"));
+		for(Result result:this.results){
+			reply.append(String.format(row
+										,this.criticalPath.contains(result)? "*" : ""
+										,result.getService().name()
+										,result.getOutcome()
+										,result.getStart(TimeUnit.MILLISECONDS)
+										,result.getWallTime(TimeUnit.MILLISECONDS)
+										,(result.getCpuTime(TimeUnit.MILLISECONDS)<0)? "n/a" : String.valueOf(result.getCpuTime(TimeUnit.MILLISECONDS))
+										,(result.getAllocatedBytes()<0)? "n/a" : String.valueOf(result.getAllocatedBytes()/1024)
+										,(result.getLoadedClasses()<0)? "n/a" : String.valueOf(result.getLoadedClasses())
+										,(result.getThread()!=null)? result.getThread() : ""));
+		}
+		reply.append(String.format("elapsed: %dms, critical path: %dms (%s)%n"
+										,getElapsed(TimeUnit.MILLISECONDS)
+										,getCriticalPathTime(TimeUnit.MILLISECONDS)
+										,this.criticalPath.stream()
+															.map(result -> result.getService().name())
+															.collect(Collectors.joining(" -> "))));
+
+		return reply.toString();
+	}
+
+	@Override
+	public String toString() {
+		return SimpleFormat.format("ServiceStartupReport[elapsed={}ms, initialized={}, failed={}, skipped={}, criticalPath={}]",getElapsed(TimeUnit.MILLISECONDS),getServices(Outcome.INITIALIZED),getServices(Outcome.FAILED),getServices(Outcome.SKIPPED),this.criticalPath);
+	}
+}
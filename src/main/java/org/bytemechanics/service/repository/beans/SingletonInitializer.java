@@ -0,0 +1,358 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.beans.ServiceFlightRecorder.Operation;
+import org.bytemechanics.service.repository.exceptions.LightweightExceptions;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Singleton initialization protocol without monitors: the first caller publishes an in-flight phase (initialization or dispose) with a single CAS,
+ * runs it and completes it, any concurrent caller parks waiting for the phase to complete instead of blocking in a monitor, so virtual threads
+ * waiting for a slow singleton constructor do not pin their carriers. Waiters of a failed initialization receive the first caller exception without
+ * retrying the constructor, the next caller after the failure starts a new initialization
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceSupplier#get(java.lang.Object...) 
+ * @see ServiceSupplier#dispose() 
+ */
+public final class SingletonInitializer {
+
+	private static final Map<ServiceSupplier,SingletonInitializer> REGISTRY=Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * In-flight phase
+	 */
+	private static final class Phase extends CompletableFuture<Object>{
+		private final boolean dispose;
+		private volatile Thread owner;
+
+		Phase(final boolean _dispose,final Thread _owner){
+			this.dispose=_dispose;
+			this.owner=_owner;
+		}
+	}
+
+	private final AtomicReference<Phase> pending;
+	private volatile long creationTimestamp;
+	private volatile long creationNanos;
+
+
+	/**
+	 * Singleton initializer constructor
+	 */
+	public SingletonInitializer(){
+		this.pending=new AtomicReference<>();
+		this.creationTimestamp=0;
+		this.creationNanos=0;
+	}
+
+
+	/**
+	 * @return epoch milliseconds when the current singleton instance was created by this initializer, 0 if none has been created since the last dispose
+	 */
+	public long getCreationTimestamp() {
+		return creationTimestamp;
+	}
+	/**
+	 * @param _unit time unit
+	 * @return time spent creating the current singleton instance in the given _unit, 0 if none has been created since the last dispose
+	 */
+	public long getCreationTime(final TimeUnit _unit) {
+		return _unit.convert(creationNanos,TimeUnit.NANOSECONDS);
+	}
+
+
+	/**
+	 * Returns the singleton instance of _supplier, if does not exist is created in the current thread or, if another thread is already creating it, waits for it
+	 * @param _supplier singleton service supplier
+	 * @param _args arguments to use to instance if necessary
+	 * @return the singleton instance
+	 * @throws ServiceInitializationException when service can not be instantiated or when the singleton construction requires itself
+	 */
+	public Object initialize(final ServiceSupplier _supplier,final Object... _args){
+
+		Object reply=_supplier.getInstance();
+		// completion is tracked apart from the instance because the supplier can return null
+		boolean done=(reply!=null);
+
+		while(!done){
+			final Phase running=this.pending.get();
+			if(running!=null){
+				if(running.owner==Thread.currentThread()){
+					throw new ServiceInitializationException(_supplier.getName(),"Recursive singleton initialization",null,LightweightExceptions.isEnabled(_supplier));
+				}
+				final Object event=ServiceFlightRecorder.begin();
+				boolean success=false;
+				try{
+					reply=await(running);
+					success=true;
+				}finally{
+					ServiceFlightRecorder.end(event, _supplier, Operation.WAIT, success);
+				}
+				if(running.dispose){
+					reply=_supplier.getInstance();
+					done=(reply!=null);
+				}else{
+					done=true;
+				}
+			}else{
+				final Phase candidate=new Phase(false,Thread.currentThread());
+				if(this.pending.compareAndSet(null, candidate)){
+					reply=run(_supplier, candidate, _args);
+					done=true;
+				}
+			}
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Returns a future of the singleton instance of _supplier, if does not exist the creation is submitted to _executor,
+	 * if another thread is already creating it the returned future is completed once the creation finishes
+	 * @param _supplier singleton service supplier
+	 * @param _executor executor to use to create the instance
+	 * @param _args arguments to use to instance if necessary
+	 * @return future of the singleton instance
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public CompletableFuture<Object> initializeAsync(final ServiceSupplier _supplier,final Executor _executor,final Object... _args){
+
+		CompletableFuture<Object> reply=null;
+
+		while(reply==null){
+			final Object current=_supplier.getInstance();
+			final Phase running=this.pending.get();
+			if(current!=null){
+				reply=CompletableFuture.completedFuture(current);
+			}else if(running!=null){
+				reply=(running.dispose)? running.thenCompose(ignored -> initializeAsync(_supplier, _executor, _args)) : running.thenApply(instance -> instance);
+			}else{
+				final Phase candidate=new Phase(false,null);
+				if(this.pending.compareAndSet(null, candidate)){
+					try{
+						_executor.execute(() -> {
+												candidate.owner=Thread.currentThread();
+												try{
+													run(_supplier, candidate, _args);
+												}catch(Throwable e){
+													// already propagated through the candidate future
+												}
+											});
+					}catch(Throwable e){
+						this.pending.compareAndSet(candidate, null);
+						candidate.completeExceptionally(e);
+					}
+					reply=candidate.thenApply(instance -> instance);
+				}
+			}
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Disposes the singleton instance of _supplier (if exist) with its dispose consumer and resets it. Waits for any in-flight initialization
+	 * before and any concurrent initialization waits until the dispose finishes
+	 * @param _supplier singleton service supplier
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceDisposeException when service can not be disposed
+	 * @see ServiceSupplier#reset() 
+	 */
+	@SuppressWarnings("unchecked")
+	public void dispose(final ServiceSupplier _supplier){
+		exclusive(() -> {
+						final Object current=_supplier.getInstance();
+						if(current!=null){
+							_supplier.getDisposeConsumer()
+										.accept(current);
+						}
+						_supplier.reset();
+						this.creationTimestamp=0;
+						this.creationNanos=0;
+						return null;
+					});
+	}
+
+	/**
+	 * Replaces atomically the current singleton instance of _supplier: once any in-flight initialization or dispose finishes runs _publish
+	 * (that must leave the supplier without instance), any concurrent initialization waits until the replacement finishes and then creates the instance
+	 * with the new state. The previous instance is not disposed until the _gracePeriod elapses, so callers that already obtained it can keep using it,
+	 * then it is disposed with the supplier executor
+	 * @param _supplier singleton service supplier
+	 * @param _publish action that publishes the new supplier state
+	 * @param _gracePeriod time to wait before dispose the previous instance
+	 * @param _unit time unit of the grace period
+	 * @return future completed once the previous instance (if any) has been disposed, completed exceptionally with ServiceDisposeException if the dispose fails
+	 * @see ServiceSupplier#swap(java.util.function.Supplier, long, java.util.concurrent.TimeUnit) 
+	 */
+	public CompletableFuture<Void> replace(final ServiceSupplier _supplier,final Runnable _publish,final long _gracePeriod,final TimeUnit _unit){
+
+		final Object previous=exclusive(() -> {
+											final Object reply=_supplier.getInstance();
+											_publish.run();
+											this.creationTimestamp=0;
+											this.creationNanos=0;
+											return reply;
+										});
+
+		return (previous==null)? CompletableFuture.completedFuture(null) : ServiceExecutors.schedule(() -> retire(_supplier, previous), _gracePeriod, _unit, _supplier.getExecutor());
+	}
+
+	/**
+	 * Rebuilds in the current thread the singleton instance of _supplier without blocking the callers, that keep obtaining the _expiring instance
+	 * until the replacement is published. The replacement is published only if _expiring is still the current instance (otherwise it has been disposed,
+	 * swapped or refreshed concurrently and the replacement is disposed), then the _expiring instance is disposed with the supplier executor once the _gracePeriod elapses
+	 * @param _supplier singleton service supplier
+	 * @param _expiring instance to replace
+	 * @param _gracePeriod time to wait before dispose the _expiring instance
+	 * @param _unit time unit of the grace period
+	 * @return true if the replacement has been published
+	 * @throws ServiceInitializationException when the replacement can not be instantiated, the _expiring instance is kept
+	 * @see org.bytemechanics.service.repository.beans.DefaultServiceSupplier.DefaultServiceSupplierBuilder#refreshAhead(long, long, java.util.concurrent.TimeUnit) 
+	 */
+	public boolean refresh(final ServiceSupplier _supplier,final Object _expiring,final long _gracePeriod,final TimeUnit _unit){
+
+		final Object event=ServiceFlightRecorder.begin();
+		boolean success=false;
+
+		try{
+			final long begin=System.nanoTime();
+			final Object replacement=ServiceMetricsRegistry.instantiate(_supplier.getName(),_supplier.getSupplier());
+			final long elapsed=System.nanoTime()-begin;
+			final boolean reply=(Boolean)exclusive(() -> {
+													if(_supplier.getInstance()!=_expiring){
+														return Boolean.FALSE;
+													}
+													this.creationNanos=elapsed;
+													this.creationTimestamp=System.currentTimeMillis();
+													_supplier.setInstance(replacement);
+													return Boolean.TRUE;
+												});
+			ServiceExecutors.schedule(() -> retire(_supplier, (reply)? _expiring : replacement), (reply)? _gracePeriod : 0, _unit, _supplier.getExecutor());
+			success=true;
+			return reply;
+		}catch(ServiceInitializationException e){
+			throw e;
+		}catch(RuntimeException e){
+			throw new ServiceInitializationException(_supplier.getName(),e.getMessage(),e,LightweightExceptions.isEnabled(_supplier));
+		}finally{
+			ServiceFlightRecorder.end(event, _supplier, Operation.REFRESH, success);
+		}
+	}
+
+	@SuppressWarnings({"UseSpecificCatch","unchecked"})
+	private static void retire(final ServiceSupplier _supplier,final Object _instance){
+		try{
+			_supplier.getDisposeConsumer()
+						.accept(_instance);
+		}catch(ServiceDisposeException e){
+			Logger.getLogger(SingletonInitializer.class.getName()).log(Level.SEVERE,e,() -> SimpleFormat.format("service::supplier::retire::{}::fail::{}",_supplier.getName(),e.getMessage()));
+			throw e;
+		}catch(Throwable e){
+			Logger.getLogger(SingletonInitializer.class.getName()).log(Level.SEVERE,e,() -> SimpleFormat.format("service::supplier::retire::{}::fail::{}",_supplier.getName(),e.getMessage()));
+			throw new ServiceDisposeException(_supplier.getName(),e.getMessage(),e,LightweightExceptions.isEnabled(_supplier));
+		}
+	}
+	@SuppressWarnings("UseSpecificCatch")
+	private Object exclusive(final Supplier<Object> _action){
+
+		final Phase candidate=new Phase(true,Thread.currentThread());
+
+		while(!this.pending.compareAndSet(null, candidate)){
+			final Phase running=this.pending.get();
+			if(running!=null){
+				try{
+					running.join();
+				}catch(Throwable e){
+					// initialization failure belongs to the initialization callers
+				}
+			}
+		}
+		try{
+			return _action.get();
+		}finally{
+			this.pending.compareAndSet(candidate, null);
+			candidate.complete(null);
+		}
+	}
+
+	private Object run(final ServiceSupplier _supplier,final Phase _phase,final Object... _args){
+		try{
+			Object reply=_supplier.getInstance();
+			if(reply==null){
+				final Object event=ServiceFlightRecorder.begin();
+				final long begin=System.nanoTime();
+				boolean success=false;
+				try{
+					reply=ServiceMetricsRegistry.instantiate(_supplier.getName(),_supplier.provideSupplier(_args));
+					this.creationNanos=System.nanoTime()-begin;
+					this.creationTimestamp=System.currentTimeMillis();
+					_supplier.setInstance(reply);
+					success=true;
+				}finally{
+					ServiceFlightRecorder.end(event, _supplier, Operation.CREATE, success);
+				}
+			}
+			this.pending.compareAndSet(_phase, null);
+			_phase.complete(reply);
+			return reply;
+		}catch(Throwable e){
+			this.pending.compareAndSet(_phase, null);
+			_phase.completeExceptionally(e);
+			throw e;
+		}
+	}
+	private static Object await(final Phase _phase){
+		try{
+			return _phase.join();
+		}catch(CompletionException e){
+			final Throwable cause=e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error){
+				throw (Error)cause;
+			}
+			throw e;
+		}
+	}
+
+
+	/**
+	 * Returns the shared initializer of the given _supplier, used by the ServiceSupplier implementations that does not keep its own one
+	 * @param _supplier service supplier
+	 * @return the initializer of _supplier
+	 * @see ServiceSupplier#getInitializer() 
+	 */
+	public static SingletonInitializer of(final ServiceSupplier _supplier){
+		return REGISTRY.computeIfAbsent(_supplier, supplier -> new SingletonInitializer());
+	}
+}
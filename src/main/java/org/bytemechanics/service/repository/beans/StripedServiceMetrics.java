@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.bytemechanics.service.repository.ServiceMetrics;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Default lock-free metrics sink based on striped counters (LongAdder) per service name. Instantiation latencies are recorded
+ * in a power of two histogram (bucket i counts the durations between 2^i and 2^(i+1) nanoseconds).
+ * Statistics can be scraped at any moment with #getStatistics()
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceMetricsRegistry#register(org.bytemechanics.service.repository.ServiceMetrics) 
+ */
+public class StripedServiceMetrics implements ServiceMetrics{
+
+	/** Number of buckets of the instantiation latency histogram */
+	public static final int BUCKETS=64;
+
+	private static final class Counters{
+		private final LongAdder gets=new LongAdder();
+		private final LongAdder instantiations=new LongAdder();
+		private final LongAdder instantiationNanos=new LongAdder();
+		private final LongAdder[] histogram=new LongAdder[BUCKETS];
+		private final LongAdder tryGetFailures=new LongAdder();
+		private final LongAdder inits=new LongAdder();
+		private final LongAdder initFailures=new LongAdder();
+		private final LongAdder initNanos=new LongAdder();
+		private final LongAdder disposes=new LongAdder();
+		private final LongAdder disposeFailures=new LongAdder();
+		private final LongAdder disposeNanos=new LongAdder();
+
+		Counters(){
+			for(int ic1=0;ic1<BUCKETS;ic1++){
+				this.histogram[ic1]=new LongAdder();
+			}
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the metrics of a service
+	 */
+	public static final class Statistics{
+
+		private final String service;
+		private final long gets;
+		private final long instantiations;
+		private final long instantiationNanos;
+		private final long[] histogram;
+		private final long tryGetFailures;
+		private final long inits;
+		private final long initFailures;
+		private final long initNanos;
+		private final long disposes;
+		private final long disposeFailures;
+		private final long disposeNanos;
+
+		private Statistics(final String _service,final Counters _counters){
+			this.service=_service;
+			this.gets=_counters.gets.sum();
+			this.instantiations=_counters.instantiations.sum();
+			this.instantiationNanos=_counters.instantiationNanos.sum();
+			this.histogram=new long[BUCKETS];
+			for(int ic1=0;ic1<BUCKETS;ic1++){
+				this.histogram[ic1]=_counters.histogram[ic1].sum();
+			}
+			this.tryGetFailures=_counters.tryGetFailures.sum();
+			this.inits=_counters.inits.sum();
+			this.initFailures=_counters.initFailures.sum();
+			this.initNanos=_counters.initNanos.sum();
+			this.disposes=_counters.disposes.sum();
+			this.disposeFailures=_counters.disposeFailures.sum();
+			this.disposeNanos=_counters.disposeNanos.sum();
+		}
+
+		/**
+		 * @return service name
+		 */
+		public String getService() {
+			return service;
+		}
+		/**
+		 * @return number of lookups
+		 */
+		public long getGets() {
+			return gets;
+		}
+		/**
+		 * @return number of instances created
+		 */
+		public long getInstantiations() {
+			return instantiations;
+		}
+		/**
+		 * @param _unit time unit
+		 * @return accumulated instantiation time
+		 */
+		public long getInstantiationTime(final TimeUnit _unit) {
+			return _unit.convert(instantiationNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @return instantiation latency histogram, bucket i counts the durations between 2^i and 2^(i+1) nanoseconds
+		 */
+		public long[] getInstantiationHistogram() {
+			return histogram.clone();
+		}
+		/**
+		 * Approximated instantiation latency percentile
+		 * @param _percentile percentile between 0 and 100
+		 * @return upper bound in nanoseconds of the histogram bucket that contains the percentile, 0 if no instantiation has been recorded
+		 */
+		public long getInstantiationPercentile(final double _percentile) {
+
+			long reply=0;
+
+			final long target=(long)Math.ceil(this.instantiations*Math.max(0,Math.min(100,_percentile))/100.0d);
+			long accumulated=0;
+			for(int ic1=0;(ic1<BUCKETS)&&(this.instantiations>0);ic1++){
+				accumulated+=this.histogram[ic1];
+				if((accumulated>=target)&&(this.histogram[ic1]>0)){
+					reply=(ic1>=62)? Long.MAX_VALUE : (1L<<(ic1+1));
+					break;
+				}
+			}
+
+			return reply;
+		}
+		/**
+		 * @return number of tryGet calls that could not obtain the instance
+		 */
+		public long getTryGetFailures() {
+			return tryGetFailures;
+		}
+		/**
+		 * @return number of initializations
+		 */
+		public long getInits() {
+			return inits;
+		}
+		/**
+		 * @return number of failed initializations
+		 */
+		public long getInitFailures() {
+			return initFailures;
+		}
+		/**
+		 * @param _unit time unit
+		 * @return accumulated initialization time
+		 */
+		public long getInitTime(final TimeUnit _unit) {
+			return _unit.convert(initNanos,TimeUnit.NANOSECONDS);
+		}
+		/**
+		 * @return number of disposes
+		 */
+		public long getDisposes() {
+			return disposes;
+		}
+		/**
+		 * @return number of failed disposes
+		 */
+		public long getDisposeFailures() {
+			return disposeFailures;
+		}
+		/**
+		 * @param _unit time unit
+		 * @return accumulated dispose time
+		 */
+		public long getDisposeTime(final TimeUnit _unit) {
+			return _unit.convert(disposeNanos,TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public String toString() {
+			return SimpleFormat.format("{}[gets={}, instantiations={}, p50={}ns, p99={}ns, tryGetFailures={}, inits={}, initFailures={}, disposes={}, disposeFailures={}]"
+											,service,gets,instantiations,getInstantiationPercentile(50),getInstantiationPercentile(99),tryGetFailures,inits,initFailures,disposes,disposeFailures);
+		}
+	}
+
+
+	private final ConcurrentHashMap<String,Counters> counters;
+
+
+	/**
+	 * Striped metrics constructor
+	 */
+	public StripedServiceMetrics(){
+		this.counters=new ConcurrentHashMap<>();
+	}
+
+
+	private Counters counters(final String _service){
+		final Counters reply=this.counters.get(_service);
+		return (reply!=null)? reply : this.counters.computeIfAbsent(_service, service -> new Counters());
+	}
+
+	/**
+	 * @see ServiceMetrics#onGet(java.lang.String) 
+	 */
+	@Override
+	public void onGet(final String _service) {
+		counters(_service).gets.increment();
+	}
+	/**
+	 * @see ServiceMetrics#onInstantiation(java.lang.String, long) 
+	 */
+	@Override
+	public void onInstantiation(final String _service,final long _nanos) {
+		final Counters current=counters(_service);
+		current.instantiations.increment();
+		current.instantiationNanos.add(_nanos);
+		current.histogram[(_nanos>0)? 63-Long.numberOfLeadingZeros(_nanos) : 0].increment();
+	}
+	/**
+	 * @see ServiceMetrics#onTryGetFailure(java.lang.String, java.lang.Throwable) 
+	 */
+	@Override
+	public void onTryGetFailure(final String _service,final Throwable _failure) {
+		counters(_service).tryGetFailures.increment();
+	}
+	/**
+	 * @see ServiceMetrics#onInit(java.lang.String, long, boolean) 
+	 */
+	@Override
+	public void onInit(final String _service,final long _nanos,final boolean _success) {
+		final Counters current=counters(_service);
+		current.inits.increment();
+		current.initNanos.add(_nanos);
+		if(!_success){
+			current.initFailures.increment();
+		}
+	}
+	/**
+	 * @see ServiceMetrics#onDispose(java.lang.String, long, boolean) 
+	 */
+	@Override
+	public void onDispose(final String _service,final long _nanos,final boolean _success) {
+		final Counters current=counters(_service);
+		current.disposes.increment();
+		current.disposeNanos.add(_nanos);
+		if(!_success){
+			current.disposeFailures.increment();
+		}
+	}
+
+	/**
+	 * @return snapshot of the statistics of all the recorded services sorted by name
+	 */
+	public Map<String,Statistics> getStatistics(){
+		final Map<String,Statistics> reply=new TreeMap<>();
+		this.counters.forEach((service,current) -> reply.put(service, new Statistics(service,current)));
+		return Collections.unmodifiableMap(reply);
+	}
+	/**
+	 * @param _service service name
+	 * @return snapshot of the statistics of the given service if has been recorded
+	 */
+	public Optional<Statistics> getStatistics(final String _service){
+		return Optional.ofNullable(this.counters.get(_service))
+							.map(current -> new Statistics(_service,current));
+	}
+	/**
+	 * Discards all the recorded metrics
+	 */
+	public void reset(){
+		this.counters.clear();
+	}
+}
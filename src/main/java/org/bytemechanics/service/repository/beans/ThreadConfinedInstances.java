@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.beans;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Registry of the per-thread instances of a thread-confined service. Each thread lazily creates and reuses its own instance,
+ * unlike a plain ThreadLocal all the live instances are tracked so they can be destroyed on #clear() even if they belong to pooled worker threads,
+ * and the instances of the already terminated threads are destroyed on the next instantiation or #purge()
+ * @author afarre
+ * @since 1.4.0
+ * @see DefaultServiceSupplier.DefaultServiceSupplierBuilder#threadConfined(boolean) 
+ */
+public final class ThreadConfinedInstances {
+
+	private static final class Holder{
+		private final WeakReference<Thread> owner;
+		private volatile Object instance;
+
+		Holder(final Thread _owner,final Object _instance){
+			this.owner=new WeakReference<>(_owner);
+			this.instance=_instance;
+		}
+		boolean isOrphan(){
+			final Thread thread=this.owner.get();
+			return (thread==null)||(!thread.isAlive());
+		}
+	}
+
+	private final String name;
+	private final Consumer destroyer;
+	private final ThreadLocal<Holder> local;
+	private final Map<Holder,Boolean> live;
+
+
+	/**
+	 * Thread confined instances constructor
+	 * @param _name service name
+	 * @param _destroyer consumer to destroy the instances
+	 */
+	public ThreadConfinedInstances(final String _name,final Consumer _destroyer){
+		this.name=_name;
+		this.destroyer=_destroyer;
+		this.local=new ThreadLocal<>();
+		this.live=new ConcurrentHashMap<>();
+	}
+
+
+	/**
+	 * @return number of live instances
+	 */
+	public int getLive(){
+		return this.live.size();
+	}
+
+	/**
+	 * Returns the current thread instance, creating it with the given _supplier if the thread does not have any
+	 * @param _supplier supplier to create the instance
+	 * @return the current thread instance
+	 * @throws org.bytemechanics.service.repository.exceptions.ServiceInitializationException when the instance can not be created
+	 */
+	public Object get(final Supplier _supplier){
+
+		Object reply=null;
+
+		final Holder holder=this.local.get();
+		if(holder!=null){
+			reply=holder.instance;
+		}
+		if(reply==null){
+			purge();
+			reply=ServiceMetricsRegistry.instantiate(this.name,_supplier);
+			final Holder created=new Holder(Thread.currentThread(),reply);
+			this.local.set(created);
+			this.live.put(created,Boolean.TRUE);
+			Logger.getLogger(ThreadConfinedInstances.class.getName()).finest(() -> SimpleFormat.format("service::thread-confined::{}::create::{}",this.name,Thread.currentThread().getName()));
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Destroys the instances that belongs to already terminated threads
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public void purge(){
+
+		for(Iterator<Holder> iterator=this.live.keySet().iterator();iterator.hasNext();){
+			final Holder holder=iterator.next();
+			if(holder.isOrphan()){
+				iterator.remove();
+				try{
+					destroy(holder);
+				}catch(Throwable e){
+					Logger.getLogger(ThreadConfinedInstances.class.getName()).log(Level.WARNING,e,() -> SimpleFormat.format("service::thread-confined::{}::destroy::fail::{}",this.name,e.getMessage()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Destroys all the live instances of all threads, each thread will create a new one on its next access
+	 * @throws ServiceDisposeException if any instance can not be destroyed, only the first failure is thrown after all instances are destroyed
+	 */
+	public void clear(){
+
+		RuntimeException failure=null;
+
+		for(Iterator<Holder> iterator=this.live.keySet().iterator();iterator.hasNext();){
+			final Holder holder=iterator.next();
+			iterator.remove();
+			try{
+				destroy(holder);
+			}catch(RuntimeException e){
+				if(failure==null){
+					failure=e;
+				}else{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		this.local.remove();
+		if(failure!=null){
+			throw failure;
+		}
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private void destroy(final Holder _holder){
+
+		final Object instance=_holder.instance;
+
+		_holder.instance=null;
+		if(instance!=null){
+			Logger.getLogger(ThreadConfinedInstances.class.getName()).finest(() -> SimpleFormat.format("service::thread-confined::{}::destroy",this.name));
+			this.destroyer.accept(instance);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Exception thrown when more than one registered service provides the requested adapter
+ * @author afarre
+ * @since 1.4.0
+ * @see org.bytemechanics.service.repository.beans.ServiceAdapterRegistry
+ */
+public class AmbiguousServiceAdapterException extends RuntimeException {
+
+	/**
+	 * Message format to use
+	 */
+	protected static final String MESSAGE="Adapter {} is provided by more than one service: {}";
+
+	private final Class adapter;
+	private final List<String> services;
+
+
+	/**
+	 * Ambiguous service adapter exception constructor
+	 * @param _adapter requested adapter
+	 * @param _services names of all the services that provides the adapter
+	 */
+	public AmbiguousServiceAdapterException(final Class _adapter,final List<String> _services) {
+		super(SimpleFormat.format(MESSAGE,_adapter,_services));
+		this.adapter=_adapter;
+		this.services=Collections.unmodifiableList(_services);
+	}
+
+
+	/**
+	 * @return requested adapter
+	 */
+	public Class getAdapter() {
+		return adapter;
+	}
+	/**
+	 * @return names of all the services that provides the adapter
+	 */
+	public List<String> getServices() {
+		return services;
+	}
+}
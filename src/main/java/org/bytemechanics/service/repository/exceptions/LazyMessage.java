@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.exceptions;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Exception message formatted on first request, the arguments are released once formatted and always before serialize
+ * @author afarre
+ * @since 1.4.0
+ * @see LightweightExceptions
+ */
+final class LazyMessage implements Serializable{
+
+	private static final long serialVersionUID = 1L;
+
+	private final String format;
+	private transient volatile Object[] arguments;
+	private volatile String message;
+
+
+	LazyMessage(final boolean _lazy,final String _format,final Object... _arguments){
+		this.format=_format;
+		if(_lazy){
+			this.arguments=_arguments;
+			this.message=null;
+		}else{
+			this.arguments=null;
+			this.message=SimpleFormat.format(_format,_arguments);
+		}
+	}
+
+
+	String get(){
+
+		String reply=this.message;
+
+		if(reply==null){
+			final Object[] current=this.arguments;
+			if(current!=null){
+				reply=SimpleFormat.format(this.format,current);
+				this.message=reply;
+				this.arguments=null;
+			}else{
+				// arguments are released only after the message has been published
+				reply=this.message;
+			}
+		}
+
+		return reply;
+	}
+
+	/**
+	 * @return the formatted message, allows to use it as argument of another message
+	 */
+	@Override
+	public String toString(){
+		return get();
+	}
+
+	private void writeObject(final ObjectOutputStream _output) throws IOException{
+		get();
+		_output.defaultWriteObject();
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.exceptions;
+
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Low-cost mode of the service exceptions for callers that expect and discard the failures (for example through ServiceSupplier#tryGet()).
+ * When enabled, globally or for a concrete service supplier, ServiceInitializationException, ServiceDisposeException and UnableToSetInstanceException are
+ * created without stack trace and their message is formatted only when requested, service name, cause chain, suppressed exceptions, equals and hashCode are kept
+ * @author afarre
+ * @since 1.4.0
+ * @see ServiceSupplier#isLightweightExceptions()
+ */
+public final class LightweightExceptions {
+
+	private static volatile boolean global=false;
+
+
+	private LightweightExceptions(){}
+
+
+	/**
+	 * Enable or disable the low-cost mode for all services
+	 * @param _enabled true to create the exceptions of all services without stack trace
+	 */
+	public static void setEnabled(final boolean _enabled){
+		global=_enabled;
+	}
+	/**
+	 * @return true if the low-cost mode is enabled for all services
+	 */
+	public static boolean isEnabled(){
+		return global;
+	}
+	/**
+	 * @param _supplier service supplier, can be null
+	 * @return true if the low-cost mode is enabled for all services or for the given _supplier
+	 * @see ServiceSupplier#isLightweightExceptions()
+	 */
+	public static boolean isEnabled(final ServiceSupplier _supplier){
+		return global||((_supplier!=null)&&_supplier.isLightweightExceptions());
+	}
+	/**
+	 * Disable the low-cost mode for all services
+	 */
+	public static void clear(){
+		global=false;
+	}
+}
@@ -16,16 +16,17 @@
 package org.bytemechanics.service.repository.exceptions;
 
 import org.bytemechanics.service.repository.ServiceSupplier;
-import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
 
 /**
  * Exception thrown when service can not be disposed for some reason
  * @author afarre
  * @since 0.1.0
+ * @see LightweightExceptions
  */
 public class ServiceDisposeException extends RuntimeException{
 
 	private final String serviceName;
+	private final LazyMessage message;
 	
 	/**
 	 * Service dispose exception constructor
@@ -34,8 +35,20 @@ public class ServiceDisposeException extends RuntimeException{
 	 * @param _cause Underlaying ause of the service dispose failure
 	 */
 	public ServiceDisposeException(final String _serviceName,final String _message,final Throwable _cause) {
-		super(SimpleFormat.format("Service {} can not be disposed properly: {}", _serviceName,_message),_cause);
+		this(_serviceName,_message,_cause,LightweightExceptions.isEnabled());
+	}
+	/**
+	 * Service dispose exception constructor
+	 * @param _serviceName Service name should be obtained from the corresponding ServiceSupplier
+	 * @param _message Descriptive message of the reason because service can not be disposed
+	 * @param _cause Underlaying ause of the service dispose failure
+	 * @param _lightweight true to create it without stack trace and format the message only when requested
+	 * @since 1.4.0
+	 */
+	public ServiceDisposeException(final String _serviceName,final String _message,final Throwable _cause,final boolean _lightweight) {
+		super(null,_cause,true,!_lightweight);
 		this.serviceName=_serviceName;
+		this.message=new LazyMessage(_lightweight,"Service {} can not be disposed properly: {}", _serviceName,_message);
 	}
 
 	
@@ -47,4 +60,13 @@ public class ServiceDisposeException extends RuntimeException{
 	public String getServiceName() {
 		return serviceName;
 	}
+
+	/**
+	 * @return the formatted message, in lightweight mode formatted on the first call
+	 * @see LightweightExceptions
+	 */
+	@Override
+	public String getMessage() {
+		return this.message.get();
+	}
 }
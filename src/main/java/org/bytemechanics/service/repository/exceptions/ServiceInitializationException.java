@@ -17,16 +17,22 @@ package org.bytemechanics.service.repository.exceptions;
 
 import java.util.Objects;
 import org.bytemechanics.service.repository.ServiceSupplier;
-import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
 
 /**
  * Exception thrown when service can not be initialized for some reason
  * @author afarre
  * @since 0.1.0
+ * @see LightweightExceptions
  */
 public class ServiceInitializationException extends RuntimeException{
 
+	/**
+	 * Message format to use
+	 */
+	protected static final String MESSAGE="Service {} can not be initialized properly: {}";
+
 	private final String serviceName;
+	private final LazyMessage message;
 	
 	/**
 	 * Service initialization exception constructor
@@ -43,8 +49,34 @@ public class ServiceInitializationException extends RuntimeException{
 	 * @param _cause Underlaying ause of the service initialization failure
 	 */
 	public ServiceInitializationException(final String _serviceName,final String _message,final Throwable _cause) {
-		super(SimpleFormat.format("Service {} can not be initialized properly: {}", _serviceName,_message),_cause);
+		this(_serviceName,_message,_cause,LightweightExceptions.isEnabled());
+	}
+	/**
+	 * Service initialization exception constructor
+	 * @param _serviceName Service name should be obtained from the corresponding ServiceSupplier
+	 * @param _message Descriptive message of the reason because service can not be instantiated
+	 * @param _cause Underlaying ause of the service initialization failure
+	 * @param _lightweight true to create it without stack trace and format the message only when requested
+	 * @since 1.4.0
+	 */
+	public ServiceInitializationException(final String _serviceName,final String _message,final Throwable _cause,final boolean _lightweight) {
+		super(null,_cause,true,!_lightweight);
 		this.serviceName=_serviceName;
+		this.message=new LazyMessage(_lightweight,MESSAGE, _serviceName,_message);
+	}
+	/**
+	 * Service initialization exception constructor with the descriptive message as format and arguments, formatted only when requested in lightweight mode
+	 * @param _serviceName Service name should be obtained from the corresponding ServiceSupplier
+	 * @param _cause Underlaying ause of the service initialization failure
+	 * @param _lightweight true to create it without stack trace and format the message only when requested
+	 * @param _format Descriptive message format of the reason because service can not be instantiated
+	 * @param _arguments Descriptive message arguments
+	 * @since 1.4.0
+	 */
+	public ServiceInitializationException(final String _serviceName,final Throwable _cause,final boolean _lightweight,final String _format,final Object... _arguments) {
+		super(null,_cause,true,!_lightweight);
+		this.serviceName=_serviceName;
+		this.message=new LazyMessage(_lightweight,MESSAGE, _serviceName,new LazyMessage(_lightweight,_format,_arguments));
 	}
 
 	
@@ -57,6 +89,15 @@ public class ServiceInitializationException extends RuntimeException{
 		return serviceName;
 	}
 
+	/**
+	 * @return the formatted message, in lightweight mode formatted on the first call
+	 * @see LightweightExceptions
+	 */
+	@Override
+	public String getMessage() {
+		return this.message.get();
+	}
+
 	@Override
 	public int hashCode() {
 		int hash = 7;
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Exception thrown when one or more services can not be initialized during a parallel startup, aggregates all the failures
+ * @author afarre
+ * @since 1.4.0
+ */
+public class ServiceStartupException extends ServiceInitializationException{
+
+	private final List<ServiceInitializationException> failures;
+
+	/**
+	 * Service startup exception constructor
+	 * @param _failures all the service initialization failures (each one is also added as suppressed exception)
+	 */
+	public ServiceStartupException(final List<ServiceInitializationException> _failures) {
+		super(_failures.stream()
+						.map(ServiceInitializationException::getServiceName)
+						.collect(Collectors.joining(",")),
+				_failures.size()+" service(s) failed on startup",
+				_failures.isEmpty()? null : _failures.get(0));
+		this.failures=Collections.unmodifiableList(_failures);
+		this.failures.stream()
+						.skip(1)
+						.forEach(this::addSuppressed);
+	}
+
+	
+	/**
+	 * All the service initialization failures
+	 * @return list of failures
+	 */
+	public List<ServiceInitializationException> getFailures() {
+		return failures;
+	}
+}
@@ -15,13 +15,12 @@
  */
 package org.bytemechanics.service.repository.exceptions;
 
-import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
-
 /**
  * Exception thrown when can not set an instance that does not implement or extend the required adapter
  * @author afarre
  * @since 1.0.2
  * @version 1.0.0
+ * @see LightweightExceptions
  */
 public class UnableToSetInstanceException extends RuntimeException {
 
@@ -30,6 +29,8 @@ public class UnableToSetInstanceException extends RuntimeException {
 	 */
 	protected static final String MESSAGE="Unable to set instance {} that doesn't implement the required adapter {}";
 
+	private final String serviceName;
+	private final LazyMessage message;
 
 	/**
 	 * Unable to set instance exception constructor
@@ -38,6 +39,48 @@ public class UnableToSetInstanceException extends RuntimeException {
 	 * @since 1.0.0
 	 */
 	public UnableToSetInstanceException(final Object _instance,final Class _adapter) {
-		super(SimpleFormat.format(MESSAGE,_instance,_adapter));
+		this(null,_instance,_adapter);
+	}
+	/**
+	 * Unable to set instance exception constructor
+	 * @param _serviceName Service name should be obtained from the corresponding ServiceSupplier (optional)
+	 * @param _instance instance that is trying to assign
+	 * @param _adapter adapter that instance should extend/implement
+	 * @since 1.4.0
+	 */
+	public UnableToSetInstanceException(final String _serviceName,final Object _instance,final Class _adapter) {
+		this(_serviceName,_instance,_adapter,LightweightExceptions.isEnabled());
+	}
+	/**
+	 * Unable to set instance exception constructor
+	 * @param _serviceName Service name should be obtained from the corresponding ServiceSupplier (optional)
+	 * @param _instance instance that is trying to assign
+	 * @param _adapter adapter that instance should extend/implement
+	 * @param _lightweight true to create it without stack trace and format the message only when requested
+	 * @since 1.4.0
+	 */
+	public UnableToSetInstanceException(final String _serviceName,final Object _instance,final Class _adapter,final boolean _lightweight) {
+		super(null,null,true,!_lightweight);
+		this.serviceName=_serviceName;
+		this.message=new LazyMessage(_lightweight,MESSAGE,_instance,_adapter);
+	}
+
+
+	/**
+	 * Service name where the instance was trying to assign
+	 * @return Service name or null if unknown
+	 * @since 1.4.0
+	 */
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	/**
+	 * @return the formatted message, in lightweight mode formatted on the first call
+	 * @see LightweightExceptions
+	 */
+	@Override
+	public String getMessage() {
+		return this.message.get();
 	}
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.exceptions;
+
+import org.bytemechanics.service.repository.internal.commons.string.SimpleFormat;
+
+/**
+ * Exception thrown when no registered service provides the requested adapter
+ * @author afarre
+ * @since 1.4.0
+ * @see org.bytemechanics.service.repository.beans.ServiceAdapterRegistry
+ */
+public class UnknownServiceAdapterException extends RuntimeException {
+
+	/**
+	 * Message format to use
+	 */
+	protected static final String MESSAGE="No registered service provides the adapter {}";
+
+	private final Class adapter;
+
+
+	/**
+	 * Unknown service adapter exception constructor
+	 * @param _adapter requested adapter
+	 */
+	public UnknownServiceAdapterException(final Class _adapter) {
+		super(SimpleFormat.format(MESSAGE,_adapter));
+		this.adapter=_adapter;
+	}
+
+
+	/**
+	 * @return requested adapter
+	 */
+	public Class getAdapter() {
+		return adapter;
+	}
+}
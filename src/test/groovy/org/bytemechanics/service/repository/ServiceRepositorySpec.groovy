@@ -20,13 +20,20 @@ import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryNoError
 import org.bytemechanics.service.repository.mocks.DummieService
 import org.bytemechanics.service.repository.mocks.DummieServiceImpl
 import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryTypeSave
+import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryDependencies
+import org.bytemechanics.service.repository.mocks.AllocationMeter
 import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
 import org.bytemechanics.service.repository.exceptions.ServiceDisposeException
+import org.bytemechanics.service.repository.exceptions.ServiceStartupException
+import org.bytemechanics.service.repository.beans.ServiceShutdownReport
+import org.bytemechanics.service.repository.beans.ServiceStartupReport
 import java.text.MessageFormat
 import spock.lang.Specification
 import spock.lang.Unroll
+import spock.lang.Requires
 import java.util.logging.*
 import java.util.stream.*
+import java.util.concurrent.*
 
 
 /**
@@ -162,6 +169,39 @@ class ServiceRepositorySpec extends Specification{
 	}
 
 	@Unroll
+	def "Service repository #service get with a wrong class should fail on the lookup with ClassCastException"(){
+		println(">>>>> ServiceRepositorySpec >>>> Service repository $service get with a wrong class should fail on the lookup with ClassCastException")
+
+		when:
+			def instance=(args.isEmpty())? service.get(String.class) : service.get(String.class,(Object[])args)
+
+		then:
+			thrown(ClassCastException)
+
+		where:
+			service														| args
+			DummieServiceRepositoryNoErrors.DUMMIE_SERVICE_0ARG			| []
+			DummieServiceRepositoryNoErrors.SINGLETON_DUMMIE_SERVICE_0ARG	| []
+			DummieServiceRepositoryNoErrors.DUMMIE_SERVICE_1ARG			| ["1arg-arg1"]
+	}
+
+	@Unroll
+	def "Service repository #service tryGet with a wrong class should fail on the lookup with ClassCastException"(){
+		println(">>>>> ServiceRepositorySpec >>>> Service repository $service tryGet with a wrong class should fail on the lookup with ClassCastException")
+
+		when:
+			def instance=(args.isEmpty())? service.tryGet(String.class) : service.tryGet(String.class,(Object[])args)
+
+		then:
+			thrown(ClassCastException)
+
+		where:
+			service														| args
+			DummieServiceRepositoryNoErrors.DUMMIE_SERVICE_0ARG			| []
+			DummieServiceRepositoryNoErrors.SINGLETON_DUMMIE_SERVICE_0ARG	| []
+			DummieServiceRepositoryNoErrors.DUMMIE_SERVICE_1ARG			| ["1arg-arg1"]
+	}
+
 	def "Singleton #service should provide a distinct instance once dispose"(){
 		println(">>>>> ServiceRepositorySpec >>>> Singleton $service should provide a distinct instance once dispose")
 		
@@ -289,6 +329,38 @@ class ServiceRepositorySpec extends Specification{
 			serviceRepository << DummieServiceRepositoryNoErrors.values()
 	}
 	
+	def "Shutdown of services without dependencies should keep the declaration order"(){
+		println(">>>>> ServiceRepositorySpec >>>> Shutdown of services without dependencies should keep the declaration order")
+
+		when:
+			def graph=ServiceRepository.disposeGraph(Stream.of(DummieServiceRepositoryNoErrors.values()))
+
+		then:
+			graph.getDisposeOrder()==DummieServiceRepositoryNoErrors.values() as List
+	}
+
+	@Unroll
+	def "Shutdown of #services should dispose all of them without failing on unknown or cyclic dependencies"(){
+		println(">>>>> ServiceRepositorySpec >>>> Shutdown of $services should dispose all of them without failing on unknown or cyclic dependencies")
+
+		setup:
+			services.forEach({service -> service.init()})
+
+		when:
+			ServiceRepository.shutdown(services.stream())
+
+		then:
+			notThrown(ServiceDisposeException)
+			services.every({service -> service.getServiceSupplier().getInstance()==null})
+			ServiceRepository.disposeGraph(services.stream()).getDisposeOrder()==expected
+
+		where:
+			services																																		| expected
+			[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.UNKNOWN_DEPENDANT]												| [DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.UNKNOWN_DEPENDANT]
+			[DummieServiceRepositoryDependencies.CYCLE_A,DummieServiceRepositoryDependencies.CYCLE_B,DummieServiceRepositoryDependencies.CYCLE_C]			| [DummieServiceRepositoryDependencies.CYCLE_A,DummieServiceRepositoryDependencies.CYCLE_B,DummieServiceRepositoryDependencies.CYCLE_C]
+			[DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.SERVICE]			| [DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.CACHE]
+	}
+	
 	def "Service repository singletons should be have distinct instance after reset call"(){
 		println(">>>>> ServiceRepositorySpec >>>> Service repository singletons should be have distinct instance after reset call")
 
@@ -350,5 +422,256 @@ class ServiceRepositorySpec extends Specification{
 			testArg3Try.getArg2()==3
 			testArg3Try.getArg3()=="3arg-arg2"
 	}
-}
 
+	def "Startup of a partial stream should initialize the services ignoring the dependencies outside of it"(){
+		println(">>>>> ServiceRepositorySpec >>>> Startup of a partial stream should initialize the services ignoring the dependencies outside of it")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.UNKNOWN_DEPENDANT]
+			services.forEach({service -> service.dispose()})
+
+		when:
+			ServiceRepository.startup(services.stream())
+
+		then:
+			services.every({service -> service.getServiceSupplier().getInstance()!=null})
+			DummieServiceRepositoryDependencies.REPOSITORY.getServiceSupplier().getInstance()==null
+
+		cleanup:
+			services.forEach({service -> service.dispose()})
+	}
+
+	def "Parallel startup of a partial stream should initialize the services ignoring the dependencies outside of it"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel startup of a partial stream should initialize the services ignoring the dependencies outside of it")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.UNKNOWN_DEPENDANT]
+			services.forEach({service -> service.dispose()})
+			def executor=Executors.newFixedThreadPool(4)
+
+		when:
+			ServiceRepository.startup(services.stream(),executor)
+
+		then:
+			services.every({service -> service.getServiceSupplier().getInstance()!=null})
+			DummieServiceRepositoryDependencies.REPOSITORY.getServiceSupplier().getInstance()==null
+
+		cleanup:
+			executor.shutdown()
+			services.forEach({service -> service.dispose()})
+	}
+
+	def "Parallel startup should initialize all services after its dependencies"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel startup should initialize all services after its dependencies")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.DATASOURCE,DummieServiceRepositoryDependencies.INDEPENDENT]
+			services.forEach({service -> service.dispose()})
+			def executor=Executors.newFixedThreadPool(4)
+
+		when:
+			ServiceRepository.startup(services.stream(),executor)
+
+		then:
+			services.every({service -> service.getServiceSupplier().getInstance()!=null})
+
+		cleanup:
+			executor.shutdown()
+			ServiceRepository.shutdown(services.stream())
+	}
+
+	def "Parallel startup should aggregate all initialization failures and skip the dependants of the failed ones"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel startup should aggregate all initialization failures and skip the dependants of the failed ones")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.FAILING_DEPENDANT,DummieServiceRepositoryDependencies.FAILING,DummieServiceRepositoryDependencies.INDEPENDENT]
+			def executor=Executors.newFixedThreadPool(4)
+
+		when:
+			ServiceRepository.startup(services.stream(),executor)
+
+		then:
+			def e=thrown(ServiceStartupException)
+			e.getFailures().collect({failure -> failure.getServiceName()})==["FAILING","FAILING_DEPENDANT"]
+			e.getSuppressed().length==1
+			DummieServiceRepositoryDependencies.INDEPENDENT.getServiceSupplier().getInstance()!=null
+			DummieServiceRepositoryDependencies.FAILING_DEPENDANT.getServiceSupplier().getInstance()==null
+
+		cleanup:
+			executor.shutdown()
+			DummieServiceRepositoryDependencies.INDEPENDENT.dispose()
+	}
+
+	def "Parallel startup with cyclic dependencies should fail before initialize any service"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel startup with cyclic dependencies should fail before initialize any service")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.INDEPENDENT,DummieServiceRepositoryDependencies.CYCLE_A,DummieServiceRepositoryDependencies.CYCLE_B,DummieServiceRepositoryDependencies.CYCLE_C]
+			def executor=Executors.newFixedThreadPool(4)
+
+		when:
+			ServiceRepository.startup(services.stream(),executor)
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			!(e instanceof ServiceStartupException)
+			services.every({service -> service.getServiceSupplier().getInstance()==null})
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Parallel shutdown should report disposed, failed and timed out services instead of raising the first failure"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel shutdown should report disposed, failed and timed out services instead of raising the first failure")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.DATASOURCE,DummieServiceRepositoryDependencies.SLOW_CLOSE]
+			def executor=Executors.newFixedThreadPool(4)
+			ServiceRepository.startup(services.stream(),executor)
+			def cache=DummieServiceRepositoryDependencies.CACHE.get(DummieServiceImpl.class)
+			cache.setFailOnClose(true)
+
+		when:
+			def report=ServiceRepository.shutdown(services.stream(),executor,500,5000,TimeUnit.MILLISECONDS)
+
+		then:
+			!report.isSuccessful()
+			report.getServices(ServiceShutdownReport.Outcome.DISPOSED)==["SERVICE","REPOSITORY","DATASOURCE"]
+			report.getServices(ServiceShutdownReport.Outcome.FAILED)==["CACHE"]
+			report.getServices(ServiceShutdownReport.Outcome.TIMED_OUT)==["SLOW_CLOSE"]
+			report.getResults().find({result -> result.getService()==DummieServiceRepositoryDependencies.CACHE}).getFailure().get() instanceof ServiceDisposeException
+			report.getResults().find({result -> result.getService()==DummieServiceRepositoryDependencies.SLOW_CLOSE}).getElapsed(TimeUnit.MILLISECONDS)<2000
+
+		cleanup:
+			cache.setFailOnClose(false)
+			DummieServiceRepositoryDependencies.CACHE.dispose()
+			executor.shutdownNow()
+	}
+
+	def "Parallel shutdown should cancel the services not started once the global timeout elapses"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel shutdown should cancel the services not started once the global timeout elapses")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SLOW_CLOSE_DEPENDANT,DummieServiceRepositoryDependencies.INDEPENDENT]
+			def executor=Executors.newFixedThreadPool(4)
+			ServiceRepository.startup(services.stream(),executor)
+			def independent=DummieServiceRepositoryDependencies.INDEPENDENT.get(DummieServiceImpl.class)
+
+		when:
+			def report=ServiceRepository.shutdown(services.stream(),executor,5000,300,TimeUnit.MILLISECONDS)
+			Thread.sleep(2500)
+
+		then:
+			!report.isSuccessful()
+			report.getServices(ServiceShutdownReport.Outcome.TIMED_OUT)==["SLOW_CLOSE_DEPENDANT"]
+			report.getServices(ServiceShutdownReport.Outcome.NOT_STARTED)==["INDEPENDENT"]
+			DummieServiceRepositoryDependencies.SLOW_CLOSE_DEPENDANT.getServiceSupplier().getInstance()==null
+			DummieServiceRepositoryDependencies.INDEPENDENT.getServiceSupplier().getInstance()==independent
+			!independent.isClosed()
+
+		cleanup:
+			DummieServiceRepositoryDependencies.INDEPENDENT.dispose()
+			executor.shutdownNow()
+	}
+
+	def "Parallel shutdown should dispose the dependants before its dependencies"(){
+		println(">>>>> ServiceRepositorySpec >>>> Parallel shutdown should dispose the dependants before its dependencies")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.DATASOURCE,DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.SERVICE]
+			def executor=Executors.newFixedThreadPool(4)
+			ServiceRepository.startup(services.stream(),executor)
+			def instances=services.collect({service -> service.get(DummieServiceImpl.class)})
+
+		when:
+			def report=ServiceRepository.shutdown(services.stream(),executor,1,1,TimeUnit.SECONDS)
+
+		then:
+			report.isSuccessful()
+			report.getResults().collect({result -> result.getService()})==[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.DATASOURCE]
+			instances.every({instance -> instance.isClosed()})
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Profiled startup should measure each initialization and compute the critical path"(){
+		println(">>>>> ServiceRepositorySpec >>>> Profiled startup should measure each initialization and compute the critical path")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.SERVICE,DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.CACHE,DummieServiceRepositoryDependencies.DATASOURCE,DummieServiceRepositoryDependencies.INDEPENDENT]
+			services.forEach({service -> service.dispose()})
+			def executor=Executors.newFixedThreadPool(4)
+
+		when:
+			def report=ServiceRepository.profileStartup(services.stream(),executor)
+
+		then:
+			report.isSuccessful()
+			services.every({service -> service.getServiceSupplier().getInstance()!=null})
+			report.getServices(ServiceStartupReport.Outcome.INITIALIZED).size()==5
+			report.getResults().every({result -> result.getThread().startsWith("pool-")})
+			report.getResults().every({result -> result.getWallTime(TimeUnit.NANOSECONDS)>0})
+			report.getResults().every({result -> result.getLoadedClasses()>=-1})
+			report.getResults().findAll({result -> result.getLoadedClasses()<0}).size()==(report.toJson()=~/"loadedClasses":null/).count
+			report.getCriticalPath().collect({result -> result.getService()})[-2..-1]==[DummieServiceRepositoryDependencies.REPOSITORY,DummieServiceRepositoryDependencies.SERVICE]
+			report.getCriticalPathTime(TimeUnit.NANOSECONDS)<=report.getElapsed(TimeUnit.NANOSECONDS)
+			report.toJson().startsWith("{\"elapsedMicros\":")
+			report.toJson().contains("\"name\":\"DATASOURCE\",\"outcome\":\"INITIALIZED\"")
+			report.toTable().readLines().size()==7
+			report.toTable().readLines().findAll({line -> line.startsWith("*")}).size()==report.getCriticalPath().size()
+
+		cleanup:
+			executor.shutdown()
+			ServiceRepository.shutdown(services.stream())
+	}
+
+	def "Profiled startup should report failures and skip the dependants of the failed ones instead of raising them"(){
+		println(">>>>> ServiceRepositorySpec >>>> Profiled startup should report failures and skip the dependants of the failed ones instead of raising them")
+
+		setup:
+			def services=[DummieServiceRepositoryDependencies.FAILING_DEPENDANT,DummieServiceRepositoryDependencies.FAILING,DummieServiceRepositoryDependencies.INDEPENDENT]
+
+		when:
+			def report=ServiceRepository.profileStartup(services.stream())
+
+		then:
+			!report.isSuccessful()
+			report.getServices(ServiceStartupReport.Outcome.INITIALIZED)==["INDEPENDENT"]
+			report.getServices(ServiceStartupReport.Outcome.FAILED)==["FAILING"]
+			report.getServices(ServiceStartupReport.Outcome.SKIPPED)==["FAILING_DEPENDANT"]
+			report.getFailures().collect({failure -> failure.getServiceName()})==["FAILING"]
+			report.getResults().find({result -> result.getOutcome()!=ServiceStartupReport.Outcome.SKIPPED}).getThread()==Thread.currentThread().getName()
+			report.getResults().findAll({result -> result.getOutcome()!=ServiceStartupReport.Outcome.SKIPPED}).every({result -> result.getLoadedClasses()>=0})
+			DummieServiceRepositoryDependencies.FAILING_DEPENDANT.getServiceSupplier().getInstance()==null
+
+		cleanup:
+			DummieServiceRepositoryDependencies.INDEPENDENT.dispose()
+	}
+
+	@Unroll
+	@Requires({ AllocationMeter.isSupported() })
+	def "No-arg lookup #call of #service should not allocate"(){
+		println(">>>>> ServiceRepositorySpec >>>> No-arg lookup $call of $service should not allocate")
+
+		setup:
+			service.get()
+
+		when:
+			def allocated=AllocationMeter.bytesPerCall(service,call,200000)
+
+		then:
+			allocated==0
+
+		where:
+			service																																| call
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG																				| AllocationMeter.Call.GET
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG																				| AllocationMeter.Call.GET_CLASS
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG																				| AllocationMeter.Call.TRY_GET
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG																				| AllocationMeter.Call.TRY_GET_CLASS
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_SUPPLIER_3ARG																		| AllocationMeter.Call.GET
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_SUPPLIER_3ARG																		| AllocationMeter.Call.TRY_GET
+			AllocationMeter.repository(ServiceSupplier.builder(DummieService.class).name("SHARED").supplier(AllocationMeter.constant(new DummieServiceImpl())).build())	| AllocationMeter.Call.GET
+			AllocationMeter.repository(ServiceSupplier.builder(DummieService.class).name("SHARED").supplier(AllocationMeter.constant(new DummieServiceImpl())).build())	| AllocationMeter.Call.GET_CLASS
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl;
+import spock.lang.Specification;
+import spock.lang.Unroll
+import java.util.logging.*
+
+
+/**
+ * @author afarre
+ */
+class ConstructorSupplierSpec extends Specification{
+
+	def setupSpec(){
+		println(">>>>> ConstructorSupplierSpec >>>> setupSpec")
+		final InputStream inputStream = ConstructorSupplierSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	@Unroll
+	def "ConstructorSupplier of #implementation with #args should resolve the constructor once and create distinct instances"(){
+		println(">>>>> ConstructorSupplierSpec >>>> ConstructorSupplier of $implementation with $args should resolve the constructor once and create distinct instances")
+
+		when:
+			def supplier=new ConstructorSupplier("myService",implementation,(Object[])args)
+			def instance1=supplier.get()
+			def instance2=supplier.get()
+
+		then:
+			supplier.getConstructor().isPresent()
+			instance1!=null
+			instance2!=null
+			instance1!=instance2
+			[instance1.getArg1(),instance1.getArg2(),instance1.getArg3()]==expected
+
+		where:
+			implementation				| args
+			DummieServiceImpl.class		| []
+			DummieServiceImpl.class		| ["1arg-arg1"]
+			DummieServiceImpl.class		| ["3arg-arg1",3,"3arg-arg2"]
+			DummieServiceImpl.class		| [null]
+
+			expected=[(args.size()>0)? args[0] : "",(args.size()>1)? args[1] : 0,(args.size()>2)? args[2] : ""]
+	}
+
+	@Unroll
+	def "ConstructorSupplier of #implementation with #args1 and #args2 should share the resolved constructor: #shared"(){
+		println(">>>>> ConstructorSupplierSpec >>>> ConstructorSupplier of $implementation with $args1 and $args2 should share the resolved constructor: $shared")
+
+		when:
+			def supplier1=new ConstructorSupplier("myService",implementation,(Object[])args1)
+			def supplier2=new ConstructorSupplier("myService",implementation,(Object[])args2)
+
+		then:
+			supplier1.getConstructor().get().is(supplier2.getConstructor().get())==shared
+			supplier2.get().getArg1()==((args2.size()>0)? args2[0] : "")
+
+		where:
+			implementation				| args1							| args2							| shared
+			DummieServiceImpl.class		| []							| []							| true
+			DummieServiceImpl.class		| ["1arg-arg1"]					| ["1arg-other"]				| true
+			DummieServiceImpl.class		| ["3arg-arg1",3,"3arg-arg2"]	| ["3arg-other",4,"3arg-other"]	| true
+			DummieServiceImpl.class		| ["1arg-arg1"]					| ["3arg-arg1",3,"3arg-arg2"]	| false
+	}
+
+	@Unroll
+	def "ConstructorSupplier of #implementation with #args without matching constructor should raise #exception with the original message"(){
+		println(">>>>> ConstructorSupplierSpec >>>> ConstructorSupplier of $implementation with $args without matching constructor should raise $exception with the original message")
+
+		when:
+			def supplier=new ConstructorSupplier("myService",implementation,(Object[])args)
+			supplier.get()
+
+		then:
+			!supplier.getConstructor().isPresent()
+			def e=thrown(exception)
+			e.getMessage()==message
+
+		where:
+			implementation				| args
+			DummieServiceImpl.class		| ["4arg-arg1",4,"4arg-arg2",true]
+			DummieServiceImpl.class		| [1]
+
+			exception=ServiceInitializationException.class
+			message="Service myService can not be initialized properly: Unable to instantiate service with class class org.bytemechanics.service.repository.mocks.DummieServiceImpl using constructor("+args+")"
+	}
+
+	def "ConstructorSupplier should wrap the constructor failure into a ServiceInitializationException"(){
+		println(">>>>> ConstructorSupplierSpec >>>> ConstructorSupplier should wrap the constructor failure into a ServiceInitializationException")
+
+		when:
+			def supplier=new ConstructorSupplier("myService",DummieServiceImpl.class,"4arg-arg1",4,true,"4arg-arg2")
+			supplier.get()
+
+		then:
+			supplier.getConstructor().isPresent()
+			def e=thrown(ServiceInitializationException)
+			e.getCause()!=null
+			e.getCause().getMessage()=="force failure"
+	}
+}
@@ -252,5 +252,52 @@ class DefaultServiceSupplierBuildSpec extends Specification{
 			"SINGLETON_DUMMIE_SERVICE_SUPPLIER_1ARG"	| DummieService.class	| true		| DummieServiceImpl.class	| ["1arg-arg1"]
 			"SINGLETON_DUMMIE_SERVICE_SUPPLIER_3ARG"	| DummieService.class	| true		| DummieServiceImpl.class	| ["3arg-arg1",3,"3arg-arg2"]
 	}
-}
 
+	@Unroll
+	def "Instantiate DefaultServiceSupplier with name:#name,engine:#engine,implementation:#implementation,args:#args should create the #expected instance with a #supplierType supplier"(){
+		println(">>>>> DefaultServiceSupplierBuildSpec >>>> Instantiate DefaultServiceSupplier with name:$name,engine:$engine,implementation:$implementation,args:$args should create the $expected instance with a $supplierType supplier")
+
+		when:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name(name)
+															.engine(engine)
+															.implementation(implementation)
+															.args((Object[])args)
+														.build()
+			def instance=serviceSupplier.get()
+
+		then:
+			supplierType.isInstance(serviceSupplier.getSupplier())==isSupplierType
+			instance instanceof DummieServiceImpl
+			instance!=serviceSupplier.get()
+			[instance.getArg1(),instance.getArg2(),instance.getArg3()]==expected
+
+		where:
+			name					| engine									| implementation			| args							| supplierType				| isSupplierType
+			"DUMMIE_SERVICE_0ARG"	| InstantiationEngine.METHOD_HANDLE			| DummieServiceImpl.class	| []							| ConstructorSupplier.class	| true
+			"DUMMIE_SERVICE_1ARG"	| InstantiationEngine.METHOD_HANDLE			| DummieServiceImpl.class	| ["1arg-arg1"]					| ConstructorSupplier.class	| true
+			"DUMMIE_SERVICE_3ARG"	| InstantiationEngine.METHOD_HANDLE			| DummieServiceImpl.class	| ["3arg-arg1",3,"3arg-arg2"]	| ConstructorSupplier.class	| true
+			"DUMMIE_SERVICE_0ARG"	| InstantiationEngine.LAMBDA_METAFACTORY	| DummieServiceImpl.class	| []							| ConstructorSupplier.class	| false
+			"DUMMIE_SERVICE_1ARG"	| InstantiationEngine.LAMBDA_METAFACTORY	| DummieServiceImpl.class	| ["1arg-arg1"]					| ConstructorSupplier.class	| false
+			"DUMMIE_SERVICE_3ARG"	| InstantiationEngine.LAMBDA_METAFACTORY	| DummieServiceImpl.class	| ["3arg-arg1",3,"3arg-arg2"]	| ConstructorSupplier.class	| false
+
+			expected=[(args.size()>0)? args[0] : "",(args.size()>1)? args[1] : 0,(args.size()>2)? args[2] : ""]
+	}
+
+	def "Instantiate DefaultServiceSupplier with LAMBDA_METAFACTORY engine and no matching constructor should fallback and raise the same ServiceInitializationException"(){
+		println(">>>>> DefaultServiceSupplierBuildSpec >>>> Instantiate DefaultServiceSupplier with LAMBDA_METAFACTORY engine and no matching constructor should fallback and raise the same ServiceInitializationException")
+
+		when:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("DUMMIE_SERVICE_4ARG")
+															.engine(InstantiationEngine.LAMBDA_METAFACTORY)
+															.implementation(DummieServiceImpl.class)
+															.args("4arg-arg1",4,"4arg-arg2",true)
+														.build()
+			serviceSupplier.get()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()=="Service DUMMIE_SERVICE_4ARG can not be initialized properly: Unable to instantiate service with class class org.bytemechanics.service.repository.mocks.DummieServiceImpl using constructor([4arg-arg1, 4, 4arg-arg2, true])"
+	}
+}
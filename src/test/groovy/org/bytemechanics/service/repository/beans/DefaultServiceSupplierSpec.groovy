@@ -18,12 +18,15 @@ package org.bytemechanics.service.repository.beans
 
 import org.bytemechanics.service.repository.beans.DefaultServiceSupplier;
 import org.bytemechanics.service.repository.ServiceSupplier;
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
 import org.bytemechanics.service.repository.exceptions.UnableToSetInstanceException;
 import org.bytemechanics.service.repository.mocks.DummieService;
 import org.bytemechanics.service.repository.mocks.DummieServiceImpl;
 import spock.lang.Specification;
 import spock.lang.Unroll
 import java.util.logging.*
+import java.util.concurrent.*
+import java.util.concurrent.atomic.*
 
 
 /**
@@ -195,5 +198,343 @@ class DefaultServiceSupplierSpec extends Specification{
 			"SINGLETON_DUMMIE_SERVICE_SUPPLIER_1ARG"	| DummieService.class	| true		| DummieServiceImpl.class	| ["1arg-arg1"]
 			"SINGLETON_DUMMIE_SERVICE_SUPPLIER_3ARG"	| DummieService.class	| true		| DummieServiceImpl.class	| ["3arg-arg1",3,"3arg-arg2"]
 	}
-}
 
+	def "Concurrent getAsync calls over a singleton should share a single instantiation"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Concurrent getAsync calls over a singleton should share a single instantiation")
+
+		setup:
+			def counter=new AtomicInteger()
+			def latch=new CountDownLatch(1)
+			def executor=Executors.newFixedThreadPool(4)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("ASYNC_SINGLETON")
+															.singleton(true)
+															.supplier({ -> latch.await(); counter.incrementAndGet(); new DummieServiceImpl()})
+															.executor(executor)
+														.build()
+
+		when:
+			def futures=(1..10).collect({ i -> serviceSupplier.getAsync()})
+			latch.countDown()
+			def instances=futures.collect({ future -> future.get(5,TimeUnit.SECONDS)})
+
+		then:
+			counter.get()==1
+			instances.every({instance -> instance.is(instances[0])})
+			serviceSupplier.getInstance().is(instances[0])
+			serviceSupplier.getAsync().isDone()
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "getAsync over a non singleton should instantiate a new instance each time using the configured executor"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> getAsync over a non singleton should instantiate a new instance each time using the configured executor")
+
+		setup:
+			def threads=new ConcurrentLinkedQueue()
+			def executor={ runnable -> threads.add(Thread.currentThread()); runnable.run()} as Executor
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("ASYNC_PROTOTYPE")
+															.implementation(DummieServiceImpl.class)
+															.executor(executor)
+														.build()
+
+		when:
+			def instance1=serviceSupplier.getAsync("1arg-arg1").get()
+			def instance2=serviceSupplier.getAsync("1arg-arg1").get()
+
+		then:
+			!instance1.is(instance2)
+			instance1.getArg1()=="1arg-arg1"
+			threads.size()==2
+			serviceSupplier.getExecutor().is(executor)
+	}
+
+	def "getAsync over a failing singleton should complete exceptionally with the initialization exception and allow retries"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> getAsync over a failing singleton should complete exceptionally with the initialization exception and allow retries")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("ASYNC_FAILING")
+															.singleton(true)
+															.implementation(DummieServiceImpl.class)
+															.args("arg1",1,true,"arg3")
+														.build()
+
+		when:
+			serviceSupplier.getAsync().get(5,TimeUnit.SECONDS)
+
+		then:
+			def e=thrown(ExecutionException)
+			e.getCause() instanceof org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+			serviceSupplier.getInstance()==null
+
+		when:
+			serviceSupplier.getAsync().get(5,TimeUnit.SECONDS)
+
+		then:
+			def retry=thrown(ExecutionException)
+			!retry.getCause().is(e.getCause())
+	}
+
+	def "Without configured executor getExecutor should return the ServiceExecutors default"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Without configured executor getExecutor should return the ServiceExecutors default")
+
+		when:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("ASYNC_DEFAULT")
+															.implementation(DummieServiceImpl.class)
+														.build()
+
+		then:
+			serviceSupplier.getExecutor().is(ServiceExecutors.getDefault())
+	}
+
+	def "Singleton get once instantiated should return the published instance without calling the supplier until disposed"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Singleton get once instantiated should return the published instance without calling the supplier until disposed")
+
+		setup:
+			def counter=new AtomicInteger()
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("FAST_SINGLETON")
+															.singleton(true)
+															.supplier({ -> counter.incrementAndGet(); new DummieServiceImpl()})
+														.build()
+			def instance=serviceSupplier.get()
+
+		when:
+			def instances=(1..100).collect({ i -> (i%2==0)? serviceSupplier.get() : serviceSupplier.get("ignored")})
+
+		then:
+			counter.get()==1
+			instances.every({ current -> current.is(instance)})
+
+		when:
+			serviceSupplier.dispose()
+			def replacement=serviceSupplier.get()
+
+		then:
+			instance.isClosed()
+			!replacement.is(instance)
+			counter.get()==2
+	}
+
+	def "Swap should publish the new supplier atomically and dispose the previous singleton once the grace period elapses"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Swap should publish the new supplier atomically and dispose the previous singleton once the grace period elapses")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("SWAP_SINGLETON")
+															.singleton(true)
+															.supplier({ -> new DummieServiceImpl("original")})
+															.swapGracePeriod(200,TimeUnit.MILLISECONDS)
+														.build()
+			def original=serviceSupplier.get()
+			def version=serviceSupplier.getVersion()
+
+		when:
+			def disposed=serviceSupplier.swap({ -> new DummieServiceImpl("swapped")})
+			def swapped=serviceSupplier.get()
+
+		then:
+			serviceSupplier.getVersion()==version+1
+			!swapped.is(original)
+			serviceSupplier.tryGet().get().is(swapped)
+			!original.isClosed()
+			!disposed.isDone()
+
+		when:
+			disposed.get(5,TimeUnit.SECONDS)
+
+		then:
+			original.isClosed()
+			!swapped.isClosed()
+			serviceSupplier.get().is(swapped)
+	}
+
+	def "Swap without instance should only publish the new supplier"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Swap without instance should only publish the new supplier")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("SWAP_PROTOTYPE")
+															.implementation(DummieServiceImpl.class)
+														.build()
+			def replacement=new DummieServiceImpl()
+
+		when:
+			def disposed=serviceSupplier.swap({ -> replacement})
+
+		then:
+			disposed.isDone()
+			serviceSupplier.getVersion()==1
+			serviceSupplier.get().is(replacement)
+
+		when:
+			serviceSupplier.reset()
+
+		then:
+			serviceSupplier.getVersion()==2
+			!serviceSupplier.get().is(replacement)
+	}
+
+	def "Concurrent callers during swaps should always obtain an instance of a published version"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Concurrent callers during swaps should always obtain an instance of a published version")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("SWAP_CONCURRENT")
+															.singleton(true)
+															.supplier({ -> new DummieServiceImpl("0")})
+														.build()
+			def stop=new AtomicBoolean(false)
+			def failures=new AtomicInteger()
+			def executor=Executors.newFixedThreadPool(4)
+			(1..4).each({ i -> executor.execute({ ->
+													while(!stop.get()){
+														def instance=serviceSupplier.get()
+														if((instance==null)||instance.isClosed()&&serviceSupplier.getInstance().is(instance)){
+															failures.incrementAndGet()
+														}
+													}
+												})})
+
+		when:
+			(1..100).each({ i -> serviceSupplier.swap({ -> new DummieServiceImpl(String.valueOf(i))}).join()})
+			stop.set(true)
+			executor.shutdown()
+			executor.awaitTermination(5,TimeUnit.SECONDS)
+
+		then:
+			failures.get()==0
+			serviceSupplier.getVersion()==100
+	}
+
+	def "Refresh-ahead singleton should be rebuilt in background before expire without blocking the callers"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Refresh-ahead singleton should be rebuilt in background before expire without blocking the callers")
+
+		setup:
+			def built=new AtomicInteger()
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("REFRESH_SINGLETON")
+															.singleton(true)
+															.supplier({ -> Thread.sleep(50); new DummieServiceImpl(String.valueOf(built.incrementAndGet()))})
+															.refreshAhead(300,100,TimeUnit.MILLISECONDS)
+														.build()
+			def original=serviceSupplier.get()
+
+		when:
+			def observed=new LinkedHashSet()
+			def deadline=System.currentTimeMillis()+700
+			while(System.currentTimeMillis()<deadline){
+				observed.add(serviceSupplier.get())
+			}
+
+		then:
+			serviceSupplier.getRefreshTimeToLive(TimeUnit.MILLISECONDS)==300
+			built.get()>=3
+			observed.size()>=3
+			observed.first().is(original)
+			original.isClosed()
+			!serviceSupplier.get().isClosed()
+
+		when:
+			serviceSupplier.dispose()
+			def afterDispose=built.get()
+			Thread.sleep(400)
+
+		then:
+			built.get()==afterDispose
+			serviceSupplier.getInstance()==null
+	}
+
+	def "Refresh-ahead singleton should keep the expiring instance while the rebuild fails"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Refresh-ahead singleton should keep the expiring instance while the rebuild fails")
+
+		setup:
+			def failing=new AtomicBoolean(false)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("REFRESH_FAILING")
+															.singleton(true)
+															.supplier({ -> if(failing.get()){ throw new IllegalStateException("rebuild failure")}; new DummieServiceImpl()})
+															.refreshAhead(100,50,TimeUnit.MILLISECONDS)
+														.build()
+			def original=serviceSupplier.get()
+			failing.set(true)
+
+		when:
+			Thread.sleep(300)
+
+		then:
+			serviceSupplier.get().is(original)
+			!original.isClosed()
+
+		when:
+			failing.set(false)
+			Thread.sleep(300)
+
+		then:
+			!serviceSupplier.get().is(original)
+			original.isClosed()
+
+		cleanup:
+			serviceSupplier.dispose()
+	}
+
+	def "Slow dispose of a swapped singleton should not delay the scheduled refresh of another service"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Slow dispose of a swapped singleton should not delay the scheduled refresh of another service")
+
+		setup:
+			def disposing=new CountDownLatch(1)
+			def release=new CountDownLatch(1)
+			def executor=Executors.newSingleThreadExecutor()
+			def slow=DefaultServiceSupplier.builder(DummieService.class)
+												.name("SLOW_DISPOSE_SINGLETON")
+												.singleton(true)
+												.supplier({ -> new DummieServiceImpl()})
+												.disposeConsumer({ instance -> disposing.countDown(); release.await(5,TimeUnit.SECONDS)})
+												.swapGracePeriod(50,TimeUnit.MILLISECONDS)
+												.executor(executor)
+											.build()
+			def built=new AtomicInteger()
+			def refreshed=DefaultServiceSupplier.builder(DummieService.class)
+													.name("REFRESH_AFTER_SLOW_DISPOSE")
+													.singleton(true)
+													.supplier({ -> new DummieServiceImpl(String.valueOf(built.incrementAndGet()))})
+													.refreshAhead(300,100,TimeUnit.MILLISECONDS)
+												.build()
+			slow.get()
+
+		when:
+			def disposed=slow.swap({ -> new DummieServiceImpl("swapped")})
+			def original=refreshed.get()
+			disposing.await(5,TimeUnit.SECONDS)
+			Thread.sleep(500)
+
+		then:
+			!disposed.isDone()
+			built.get()>=2
+			!refreshed.get().is(original)
+
+		cleanup:
+			release.countDown()
+			refreshed.dispose()
+			executor.shutdown()
+	}
+
+	def "Refresh-ahead option should be rejected for non singleton services"(){
+		println(">>>>> DefaultServiceSupplierSpec >>>> Refresh-ahead option should be rejected for non singleton services")
+
+		when:
+			DefaultServiceSupplier.builder(DummieService.class)
+										.name("REFRESH_PROTOTYPE")
+										.implementation(DummieServiceImpl.class)
+										.refreshAhead(1,0,TimeUnit.SECONDS)
+									.build()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()=="Service REFRESH_PROTOTYPE can not be initialized properly: Refresh-ahead services must be singleton"
+	}
+}
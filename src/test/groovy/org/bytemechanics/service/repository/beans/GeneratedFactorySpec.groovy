@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl;
+import spock.lang.Specification;
+import spock.lang.Unroll
+import java.util.logging.*
+
+
+/**
+ * @author afarre
+ */
+class GeneratedFactorySpec extends Specification{
+
+	def setupSpec(){
+		println(">>>>> GeneratedFactorySpec >>>> setupSpec")
+		final InputStream inputStream = GeneratedFactorySpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	@Unroll
+	def "GeneratedFactory with parameters #parameterTypes should match #args: #matches, exactly: #exactly"(){
+		println(">>>>> GeneratedFactorySpec >>>> GeneratedFactory with parameters $parameterTypes should match $args: $matches, exactly: $exactly")
+
+		when:
+			def factory=new GeneratedFactory(DummieServiceImpl.class,(Class[])parameterTypes,{ arguments -> new DummieServiceImpl() })
+
+		then:
+			factory.matches((Object[])args)==matches
+			factory.matchesExactly((Object[])args)==exactly
+
+		where:
+			parameterTypes							| args							| matches	| exactly
+			[]										| []							| true		| true
+			[String.class]							| ["1arg-arg1"]					| true		| true
+			[String.class]							| [null]						| true		| false
+			[String.class]							| [1]							| false		| false
+			[String.class,int.class,String.class]	| ["3arg-arg1",3,"3arg-arg2"]	| true		| false
+			[String.class,int.class,String.class]	| ["3arg-arg1",null,"3arg-arg2"]| false		| false
+			[CharSequence.class]					| ["1arg-arg1"]					| true		| false
+	}
+
+	def "GeneratedFactory supplier should create instances through the instantiator"(){
+		println(">>>>> GeneratedFactorySpec >>>> GeneratedFactory supplier should create instances through the instantiator")
+
+		when:
+			def factory=new GeneratedFactory(DummieServiceImpl.class,[String.class] as Class[],{ arguments -> new DummieServiceImpl((String)arguments[0]) })
+			def supplier=factory.supplier("myService","1arg-arg1")
+			def instance1=supplier.get()
+			def instance2=supplier.get()
+
+		then:
+			instance1.getArg1()=="1arg-arg1"
+			instance2.getArg1()=="1arg-arg1"
+			instance1!=instance2
+	}
+
+	def "GeneratedFactory supplier should wrap checked constructor failures into ServiceInitializationException"(){
+		println(">>>>> GeneratedFactorySpec >>>> GeneratedFactory supplier should wrap checked constructor failures into ServiceInitializationException")
+
+		when:
+			def factory=new GeneratedFactory(DummieServiceImpl.class,[String.class] as Class[],{ arguments -> throw new IOException("failure") })
+			factory.supplier("myService","1arg-arg1").get()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()=="Service myService can not be initialized properly: Unable to instantiate service with class class org.bytemechanics.service.repository.mocks.DummieServiceImpl using constructor([1arg-arg1])"
+			e.getCause() instanceof IOException
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+import java.util.concurrent.*
+
+
+/**
+ * @author afarre
+ */
+class KeyedInstanceCacheSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> setupSpec")
+		final InputStream inputStream = KeyedInstanceCacheSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def keyed(int size){
+		return DefaultServiceSupplier.builder(DummieService.class)
+										.name("KEYED")
+										.implementation(DummieServiceImpl.class)
+										.keyed(size)
+	}
+
+	@Unroll
+	def "Keyed service get(#args) should return the same cached instance for the same arguments"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed service get($args) should return the same cached instance for the same arguments")
+
+		setup:
+			def serviceSupplier=keyed(10).build()
+
+		when:
+			def instance1=serviceSupplier.get((Object[])args)
+			def instance2=serviceSupplier.get((Object[])args.collect())
+
+		then:
+			instance1.is(instance2)
+			instance1.getArg1()==expected
+			serviceSupplier.getKeyedInstances().get().getHits()==1
+			serviceSupplier.getKeyedInstances().get().getMisses()==1
+
+		where:
+			args						| expected
+			[]							| null
+			["1arg-arg1"]				| "1arg-arg1"
+			["3arg-arg1",3,"3arg-arg2"]	| "3arg-arg1"
+	}
+
+	def "Keyed service should evict the least recently used instance when the maximum size is exceeded"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed service should evict the least recently used instance when the maximum size is exceeded")
+
+		setup:
+			def serviceSupplier=keyed(2).build()
+			def first=serviceSupplier.get("first")
+			def second=serviceSupplier.get("second")
+			serviceSupplier.get("first")
+
+		when:
+			def third=serviceSupplier.get("third")
+
+		then:
+			second.isClosed()
+			!first.isClosed()
+			serviceSupplier.get("first").is(first)
+			serviceSupplier.getKeyedInstances().get().getSize()==2
+			serviceSupplier.getKeyedInstances().get().getEvictions()==1
+	}
+
+	def "Keyed service should replace the instances older than the time to live"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed service should replace the instances older than the time to live")
+
+		setup:
+			def serviceSupplier=keyed(10).timeToLive(20,TimeUnit.MILLISECONDS).build()
+			def instance=serviceSupplier.get("ttl")
+
+		when:
+			Thread.sleep(50)
+			def replacement=serviceSupplier.get("ttl")
+
+		then:
+			!replacement.is(instance)
+			instance.isClosed()
+			serviceSupplier.getKeyedInstances().get().getMisses()==2
+	}
+
+	def "Keyed service clean up should evict the instances not accessed within the idle timeout"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed service clean up should evict the instances not accessed within the idle timeout")
+
+		setup:
+			def serviceSupplier=keyed(10).idleTimeout(20,TimeUnit.MILLISECONDS).build()
+			def instances=[serviceSupplier.get("idle1"),serviceSupplier.get("idle2")]
+
+		when:
+			Thread.sleep(50)
+			serviceSupplier.getKeyedInstances().get().cleanUp()
+
+		then:
+			instances.every({ instance -> instance.isClosed()})
+			serviceSupplier.getKeyedInstances().get().getSize()==0
+	}
+
+	@Unroll
+	def "Keyed service with time to live #ttl ms and idle timeout #idle ms should expire the instances without accessing them again"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed service with time to live $ttl ms and idle timeout $idle ms should expire the instances without accessing them again")
+
+		setup:
+			def serviceSupplier=keyed(10).timeToLive(ttl,TimeUnit.MILLISECONDS).idleTimeout(idle,TimeUnit.MILLISECONDS).build()
+			def instances=[serviceSupplier.get("expire1"),serviceSupplier.get("expire2")]
+
+		when:
+			Thread.sleep(300)
+
+		then:
+			instances.every({ instance -> instance.isClosed()})
+			serviceSupplier.getKeyedInstances().get().getSize()==0
+			serviceSupplier.getKeyedInstances().get().getEvictions()==2
+
+		where:
+			ttl		| idle
+			20		| 0
+			0		| 20
+			20		| 1000
+	}
+
+	def "Dispose should close all the keyed instances"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Dispose should close all the keyed instances")
+
+		setup:
+			def serviceSupplier=keyed(10).build()
+			def instances=[serviceSupplier.get("dispose1"),serviceSupplier.get("dispose2")]
+
+		when:
+			serviceSupplier.dispose()
+
+		then:
+			instances.every({ instance -> instance.isClosed()})
+			serviceSupplier.getKeyedInstances().get().getSize()==0
+	}
+
+	def "Keyed services can not be singleton"(){
+		println(">>>>> KeyedInstanceCacheSpec >>>> Keyed services can not be singleton")
+
+		when:
+			keyed(10).singleton(true).build()
+
+		then:
+			thrown(ServiceInitializationException)
+	}
+}
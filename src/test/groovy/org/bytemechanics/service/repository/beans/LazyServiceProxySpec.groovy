@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+import java.util.concurrent.*
+
+/**
+ * @author afarre
+ */
+class LazyServiceProxySpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> LazyServiceProxySpec >>>> setupSpec")
+		final InputStream inputStream = LazyServiceProxySpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def "Lazy proxy singleton init should not wait for the instance construction"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy singleton init should not wait for the instance construction")
+
+		setup:
+			def release=new CountDownLatch(1)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("LAZY_INIT")
+															.singleton(true)
+															.lazyProxy(true)
+															.supplier({ -> release.await(); new DummieServiceImpl("lazy")})
+														.build()
+
+		when:
+			serviceSupplier.init()
+			def proxy=serviceSupplier.get()
+
+		then:
+			LazyServiceProxy.isProxy(proxy)
+			proxy instanceof DummieService
+			serviceSupplier.getInstance()==null
+			proxy.toString()=="LazyServiceProxy[service=LAZY_INIT, adapter=org.bytemechanics.service.repository.mocks.DummieService]"
+
+		when:
+			release.countDown()
+			def arg=proxy.getArg1()
+
+		then:
+			arg=="lazy"
+			serviceSupplier.getInstance()!=null
+			serviceSupplier.get().is(serviceSupplier.getInstance())
+			!LazyServiceProxy.isProxy(serviceSupplier.get())
+			proxy.equals(proxy)
+			!proxy.equals(serviceSupplier.getInstance())
+
+		cleanup:
+			serviceSupplier.dispose()
+	}
+
+	def "Lazy proxy singleton without init should build the instance on the first call"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy singleton without init should build the instance on the first call")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("LAZY_FIRST_CALL")
+															.singleton(true)
+															.lazyProxy(true)
+															.supplier({ -> new DummieServiceImpl("first-call")})
+														.build()
+			def proxy=serviceSupplier.get()
+
+		expect:
+			serviceSupplier.getInstance()==null
+			serviceSupplier.getLazyProxy().get().getProxy().is(proxy)
+			proxy.getArg1()=="first-call"
+			serviceSupplier.getInstance()!=null
+
+		cleanup:
+			serviceSupplier.dispose()
+	}
+
+	def "Lazy proxy should forward the calls to the current instance after swap and dispose"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy should forward the calls to the current instance after swap and dispose")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("LAZY_SWAP")
+															.singleton(true)
+															.lazyProxy(true)
+															.supplier({ -> new DummieServiceImpl("original")})
+														.build()
+			def proxy=serviceSupplier.get()
+			def original=proxy.getArg1()
+
+		when:
+			serviceSupplier.swap({ -> new DummieServiceImpl("swapped")}).get()
+
+		then:
+			original=="original"
+			proxy.getArg1()=="swapped"
+
+		when:
+			serviceSupplier.dispose()
+
+		then:
+			serviceSupplier.getInstance()==null
+			proxy.getArg1()=="original"
+
+		cleanup:
+			serviceSupplier.dispose()
+	}
+
+	def "Lazy proxy should rethrow the exceptions raised by the instance and by its construction"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy should rethrow the exceptions raised by the instance and by its construction")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(Callable.class)
+															.name("LAZY_FAILING")
+															.singleton(true)
+															.lazyProxy(true)
+															.supplier({ -> throw new IllegalStateException("construction failure")})
+														.build()
+			def proxy=serviceSupplier.get()
+
+		when:
+			proxy.call()
+
+		then:
+			def failure=thrown(IllegalStateException)
+			failure.getMessage()=="construction failure"
+
+		when:
+			serviceSupplier.setInstance({ -> throw new IOException("call failure")} as Callable)
+			proxy.call()
+
+		then:
+			def e=thrown(IOException)
+			e.getMessage()=="call failure"
+
+		cleanup:
+			serviceSupplier.reset()
+	}
+
+	def "Lazy proxy services should share the generated proxy class by adapter"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy services should share the generated proxy class by adapter")
+
+		setup:
+			def first=DefaultServiceSupplier.builder(DummieService.class).name("LAZY_A").singleton(true).lazyProxy(true).implementation(DummieServiceImpl.class).build()
+			def second=DefaultServiceSupplier.builder(DummieService.class).name("LAZY_B").singleton(true).lazyProxy(true).implementation(DummieServiceImpl.class).build()
+
+		expect:
+			first.get().getClass().is(second.get().getClass())
+			!first.get().is(second.get())
+	}
+
+	@Unroll
+	def "Lazy proxy option should be rejected for #description"(){
+		println(">>>>> LazyServiceProxySpec >>>> Lazy proxy option should be rejected for $description")
+
+		when:
+			DefaultServiceSupplier.builder(adapter)
+										.name("LAZY_INVALID")
+										.singleton(singleton)
+										.lazyProxy(true)
+										.implementation(DummieServiceImpl.class)
+									.build()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()==message
+
+		where:
+			description				| adapter					| singleton	| message
+			"prototype services"	| DummieService.class		| false		| "Service LAZY_INVALID can not be initialized properly: Lazy proxy services must be singleton"
+			"class adapters"		| DummieServiceImpl.class	| true		| "Service LAZY_INVALID can not be initialized properly: Lazy proxy services adapter must be an interface but class org.bytemechanics.service.repository.mocks.DummieServiceImpl found"
+	}
+}
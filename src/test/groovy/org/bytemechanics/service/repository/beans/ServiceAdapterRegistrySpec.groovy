@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import java.util.concurrent.Callable
+import java.util.function.Supplier
+import org.bytemechanics.service.repository.exceptions.AmbiguousServiceAdapterException
+import org.bytemechanics.service.repository.exceptions.UnknownServiceAdapterException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import org.bytemechanics.service.repository.mocks.DummieServiceRepository
+import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryAdapters
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+
+
+/**
+ * @author afarre
+ */
+class ServiceAdapterRegistrySpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> setupSpec")
+		final InputStream inputStream = ServiceAdapterRegistrySpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def setup(){
+		ServiceAdapterRegistry.register(DummieServiceRepositoryAdapters.class)
+	}
+	def cleanup(){
+		ServiceAdapterRegistry.clear()
+	}
+
+	def "Lookup of an adapter provided by a single service should return its typed instance"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Lookup of an adapter provided by a single service should return its typed instance")
+
+		when:
+			Callable<String> reply=ServiceAdapterRegistry.lookup(Callable.class)
+
+		then:
+			reply!=null
+			reply.call()=="CALLABLE"
+			reply.is(DummieServiceRepositoryAdapters.CALLABLE.get())
+			ServiceAdapterRegistry.find(Callable.class).get()==DummieServiceRepositoryAdapters.CALLABLE
+			ServiceAdapterRegistry.tryLookup(Callable.class).get().is(reply)
+	}
+
+	def "Lookup with arguments of an adapter shared by all the repository services should report all of them"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Lookup with arguments of an adapter shared by all the repository services should report all of them")
+
+		setup:
+			ServiceAdapterRegistry.unregister(DummieServiceRepositoryAdapters.class)
+			ServiceAdapterRegistry.register(DummieServiceRepository.class)
+
+		when:
+			ServiceAdapterRegistry.lookup(DummieService.class,"arg1")
+
+		then:
+			def e=thrown(AmbiguousServiceAdapterException)
+			e.getAdapter()==DummieService.class
+			e.getServices()==DummieServiceRepository.values().collect({ service -> service.name()})
+	}
+
+	@Unroll
+	def "Lookup of an adapter not provided by any service #adapter should fail with UnknownServiceAdapterException"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Lookup of an adapter not provided by any service $adapter should fail with UnknownServiceAdapterException")
+
+		when:
+			ServiceAdapterRegistry.lookup(adapter)
+
+		then:
+			def e=thrown(UnknownServiceAdapterException)
+			e.getAdapter()==adapter
+			!ServiceAdapterRegistry.find(adapter).isPresent()
+			!ServiceAdapterRegistry.tryLookup(adapter).isPresent()
+
+		where:
+			adapter << [String.class,DummieService.class,DummieServiceImpl.class]
+	}
+
+	def "Lookup of an adapter provided by more than one service should fail with AmbiguousServiceAdapterException"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Lookup of an adapter provided by more than one service should fail with AmbiguousServiceAdapterException")
+
+		when:
+			ServiceAdapterRegistry.tryLookup(Supplier.class)
+
+		then:
+			def e=thrown(AmbiguousServiceAdapterException)
+			e.getAdapter()==Supplier.class
+			e.getServices()==["SUPPLIER_A","SUPPLIER_B"]
+			ServiceAdapterRegistry.findAll(Supplier.class).collect({ service -> service.name()})==["SUPPLIER_A","SUPPLIER_B"]
+	}
+
+	def "Unregister should remove the repository services from the index"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Unregister should remove the repository services from the index")
+
+		when:
+			def reply=ServiceAdapterRegistry.unregister(DummieServiceRepositoryAdapters.class)
+
+		then:
+			reply
+			!ServiceAdapterRegistry.find(Callable.class).isPresent()
+			!ServiceAdapterRegistry.unregister(DummieServiceRepositoryAdapters.class)
+	}
+
+	def "Register the same repository twice should not duplicate its services"(){
+		println(">>>>> ServiceAdapterRegistrySpec >>>> Register the same repository twice should not duplicate its services")
+
+		when:
+			ServiceAdapterRegistry.register(DummieServiceRepositoryAdapters.class)
+
+		then:
+			ServiceAdapterRegistry.findAll(Callable.class).count()==1
+			ServiceAdapterRegistry.lookup(Callable.class)!=null
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import java.util.logging.*
+import java.util.concurrent.*
+import java.util.concurrent.atomic.*
+
+/**
+ * @author afarre
+ */
+class ServiceCircuitBreakerSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> setupSpec")
+		final InputStream inputStream = ServiceCircuitBreakerSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def "Failures should be cached during the backoff window without retrying the instantiation"(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> Failures should be cached during the backoff window without retrying the instantiation")
+
+		setup:
+			def attempts=new AtomicInteger()
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("CIRCUIT_BACKOFF")
+															.supplier({ -> attempts.incrementAndGet(); throw new IllegalStateException("misconfigured")})
+															.circuitBreaker(5,10,1,TimeUnit.SECONDS)
+														.build()
+			def circuitBreaker=serviceSupplier.getCircuitBreaker().get()
+
+		when:
+			def results=(1..100).collect({ serviceSupplier.tryGet() })
+
+		then:
+			results.every({result -> !result.isPresent()})
+			attempts.get()==1
+			circuitBreaker.getState()==ServiceCircuitBreaker.State.CLOSED
+			circuitBreaker.getConsecutiveFailures()==1
+			circuitBreaker.getRejected()==99
+			circuitBreaker.getLastFailure().get().getMessage()=="misconfigured"
+	}
+
+	def "Circuit should open after the failure threshold and close when the half-open probe succeeds"(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> Circuit should open after the failure threshold and close when the half-open probe succeeds")
+
+		setup:
+			def attempts=new AtomicInteger()
+			def failing=new AtomicBoolean(true)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("CIRCUIT_OPEN")
+															.supplier({ -> attempts.incrementAndGet(); if(failing.get()){ throw new IllegalStateException("misconfigured")}; new DummieServiceImpl()})
+															.circuitBreaker(3,0,200,TimeUnit.MILLISECONDS)
+														.build()
+			def circuitBreaker=serviceSupplier.getCircuitBreaker().get()
+
+		when:
+			(1..100).each({ serviceSupplier.tryGet() })
+
+		then:
+			attempts.get()==3
+			circuitBreaker.getState()==ServiceCircuitBreaker.State.OPEN
+			circuitBreaker.getRejected()==97
+
+		when:
+			Thread.sleep(250)
+			def probe=serviceSupplier.tryGet()
+
+		then:
+			!probe.isPresent()
+			attempts.get()==4
+			circuitBreaker.getState()==ServiceCircuitBreaker.State.OPEN
+
+		when:
+			failing.set(false)
+			Thread.sleep(250)
+			probe=serviceSupplier.tryGet()
+
+		then:
+			probe.isPresent()
+			attempts.get()==5
+			circuitBreaker.getState()==ServiceCircuitBreaker.State.CLOSED
+			circuitBreaker.getConsecutiveFailures()==0
+			!circuitBreaker.getLastFailure().isPresent()
+			serviceSupplier.tryGet().isPresent()
+			attempts.get()==6
+	}
+
+	def "Only one half-open probe should be allowed at the same time"(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> Only one half-open probe should be allowed at the same time")
+
+		setup:
+			def probing=new CountDownLatch(1)
+			def release=new CountDownLatch(1)
+			def circuitBreaker=new ServiceCircuitBreaker("CIRCUIT_PROBE",1,0,0,0)
+			circuitBreaker.execute({ -> throw new IllegalStateException("misconfigured")})
+			def executor=Executors.newSingleThreadExecutor()
+
+		when:
+			def probe=executor.submit({ -> circuitBreaker.execute({ -> probing.countDown(); release.await(); "instance"})} as Callable)
+			probing.await()
+			def concurrent=circuitBreaker.execute({ -> "other"})
+			def state=circuitBreaker.getState()
+			release.countDown()
+
+		then:
+			state==ServiceCircuitBreaker.State.HALF_OPEN
+			!concurrent.isPresent()
+			probe.get().get()=="instance"
+			circuitBreaker.getState()==ServiceCircuitBreaker.State.CLOSED
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Swap should close the circuit"(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> Swap should close the circuit")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("CIRCUIT_SWAP")
+															.supplier({ -> throw new IllegalStateException("misconfigured")})
+															.circuitBreaker(1,1,1,TimeUnit.HOURS)
+														.build()
+			serviceSupplier.tryGet()
+
+		when:
+			serviceSupplier.swap({ -> new DummieServiceImpl()}).get()
+
+		then:
+			serviceSupplier.getCircuitBreaker().get().getState()==ServiceCircuitBreaker.State.CLOSED
+			serviceSupplier.tryGet().isPresent()
+	}
+
+	def "Circuit breaker with invalid failure threshold should be rejected"(){
+		println(">>>>> ServiceCircuitBreakerSpec >>>> Circuit breaker with invalid failure threshold should be rejected")
+
+		when:
+			new ServiceCircuitBreaker("CIRCUIT_INVALID",0,1,1,1)
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()=="Service CIRCUIT_INVALID can not be initialized properly: Invalid circuit breaker failure threshold 0"
+	}
+}
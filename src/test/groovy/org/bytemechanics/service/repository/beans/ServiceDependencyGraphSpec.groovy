@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException;
+import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryDependencies;
+import org.bytemechanics.service.repository.mocks.DummieServiceRepositoryNoErrors;
+import spock.lang.Specification;
+import spock.lang.Unroll
+import java.util.logging.*
+import java.util.stream.*
+import static org.bytemechanics.service.repository.mocks.DummieServiceRepositoryDependencies.*
+
+
+/**
+ * @author afarre
+ */
+class ServiceDependencyGraphSpec extends Specification{
+
+	def setupSpec(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> setupSpec")
+		final InputStream inputStream = ServiceDependencyGraphSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def "Services without dependencies should keep the original order"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Services without dependencies should keep the original order")
+
+		when:
+			def graph=ServiceDependencyGraph.of(Stream.of(DummieServiceRepositoryNoErrors.values()))
+
+		then:
+			graph.getServices()==DummieServiceRepositoryNoErrors.values() as List
+	}
+
+	@Unroll
+	def "Services #services should be sorted in dependency order as #expected"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Services $services should be sorted in dependency order as $expected")
+
+		when:
+			def graph=ServiceDependencyGraph.of(services.stream())
+
+		then:
+			graph.getServices()==expected
+			graph.getDependencies(REPOSITORY)==[DATASOURCE,CACHE]
+			graph.getDependants(REPOSITORY)==[SERVICE]
+			graph.getDependants(DATASOURCE)==[REPOSITORY]
+
+		where:
+			services													| expected
+			[DATASOURCE,CACHE,REPOSITORY,SERVICE,INDEPENDENT]			| [DATASOURCE,CACHE,REPOSITORY,SERVICE,INDEPENDENT]
+			[SERVICE,REPOSITORY,CACHE,DATASOURCE,INDEPENDENT]			| [DATASOURCE,CACHE,REPOSITORY,SERVICE,INDEPENDENT]
+			[INDEPENDENT,SERVICE,CACHE,REPOSITORY,DATASOURCE]			| [INDEPENDENT,DATASOURCE,CACHE,REPOSITORY,SERVICE]
+	}
+
+	@Unroll
+	def "Services #services should fail with #message"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Services $services should fail with $message")
+
+		when:
+			ServiceDependencyGraph.of(services.stream())
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getMessage()==message
+
+		where:
+			services						| message
+			[CYCLE_A,CYCLE_B,CYCLE_C]		| "Service CYCLE_A can not be initialized properly: Cyclic dependency CYCLE_A -> CYCLE_C -> CYCLE_B -> CYCLE_A"
+			[CYCLE_B,CYCLE_C,CYCLE_A]		| "Service CYCLE_B can not be initialized properly: Cyclic dependency CYCLE_B -> CYCLE_A -> CYCLE_C -> CYCLE_B"
+			[UNKNOWN_DEPENDANT]				| "Service UNKNOWN_DEPENDANT can not be initialized properly: Unknown dependency UNKNOWN"
+			[SERVICE,REPOSITORY,CACHE]		| "Service REPOSITORY can not be initialized properly: Unknown dependency DATASOURCE"
+	}
+
+	@Unroll
+	def "Services #services ignoring unknown dependencies should be sorted by the present ones as #expected"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Services $services ignoring unknown dependencies should be sorted by the present ones as $expected")
+
+		when:
+			def graph=ServiceDependencyGraph.of(services.stream(),true)
+
+		then:
+			graph.getServices()==expected
+
+		where:
+			services								| expected
+			[UNKNOWN_DEPENDANT]						| [UNKNOWN_DEPENDANT]
+			[SERVICE]								| [SERVICE]
+			[SERVICE,REPOSITORY,CACHE]				| [CACHE,REPOSITORY,SERVICE]
+			[SERVICE,INDEPENDENT,UNKNOWN_DEPENDANT]	| [SERVICE,INDEPENDENT,UNKNOWN_DEPENDANT]
+	}
+
+	@Unroll
+	def "Services #services should be disposed in reverse dependency order as #expected"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Services $services should be disposed in reverse dependency order as $expected")
+
+		when:
+			def graph=ServiceDependencyGraph.of(services.stream())
+
+		then:
+			graph.getDisposeOrder()==expected
+
+		where:
+			services											| expected
+			[DATASOURCE,CACHE,REPOSITORY,SERVICE,INDEPENDENT]	| [SERVICE,REPOSITORY,DATASOURCE,CACHE,INDEPENDENT]
+			[INDEPENDENT,SERVICE,CACHE,REPOSITORY,DATASOURCE]	| [INDEPENDENT,SERVICE,REPOSITORY,CACHE,DATASOURCE]
+			[INDEPENDENT,DATASOURCE,CACHE]						| [INDEPENDENT,DATASOURCE,CACHE]
+	}
+
+	def "Unordered graph should keep the original order even with cyclic dependencies"(){
+		println(">>>>> ServiceDependencyGraphSpec >>>> Unordered graph should keep the original order even with cyclic dependencies")
+
+		when:
+			def graph=ServiceDependencyGraph.unordered(Stream.of(CYCLE_A,CYCLE_B,CYCLE_C))
+
+		then:
+			graph.getServices()==[CYCLE_A,CYCLE_B,CYCLE_C]
+			graph.getDisposeOrder()==[CYCLE_A,CYCLE_B,CYCLE_C]
+			graph.getDependencies(CYCLE_A)==[]
+	}
+}
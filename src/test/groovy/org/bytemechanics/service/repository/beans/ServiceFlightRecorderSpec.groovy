@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import org.bytemechanics.service.repository.ServiceRepository
+import org.bytemechanics.service.repository.mocks.DummieServiceRepository
+import spock.lang.Specification
+import spock.lang.Requires
+import java.nio.file.Files
+import java.time.Duration
+import java.util.logging.*
+import java.util.stream.Stream
+
+
+/**
+ * @author afarre
+ */
+@Requires({ ServiceFlightRecorder.isEnabled() })
+class ServiceFlightRecorderSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServiceFlightRecorderSpec >>>> setupSpec")
+		final InputStream inputStream = ServiceFlightRecorderSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def record(Closure _action){
+		def recording=new Recording()
+		def file=Files.createTempFile("service-lifecycle",".jfr")
+		try{
+			recording.enable(ServiceLifecycleEvent.NAME).withThreshold(Duration.ZERO)
+			recording.start()
+			_action.call()
+			recording.stop()
+			recording.dump(file)
+			return RecordingFile.readAllEvents(file)
+							.findAll({ event -> event.getEventType().getName()==ServiceLifecycleEvent.NAME})
+		}finally{
+			recording.close()
+			Files.deleteIfExists(file)
+		}
+	}
+
+	def "Init and dispose of a singleton should record the creation, init and dispose events"(){
+		println(">>>>> ServiceFlightRecorderSpec >>>> Init and dispose of a singleton should record the creation, init and dispose events")
+
+		setup:
+			def service=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG
+			service.dispose()
+
+		when:
+			def events=record({ -> 
+							service.init()
+							service.dispose()
+						})
+
+		then:
+			events.collect({ event -> event.getString("operation")})==["CREATE","INIT","DISPOSE"]
+			events.every({ event -> event.getString("service")==service.name()})
+			events.every({ event -> event.getString("outcome")=="SUCCESS"})
+			events.every({ event -> event.getClass("adapter").getName()==service.getAdapter().getName()})
+			events.every({ event -> event.getClass("implementation").getName()==service.getServiceSupplier().getImplementation().getName()})
+			events.every({ event -> event.getThread().getJavaName()==Thread.currentThread().getName()})
+	}
+
+	def "Reset should record a reset event wrapping the dispose and init events"(){
+		println(">>>>> ServiceFlightRecorderSpec >>>> Reset should record a reset event wrapping the dispose and init events")
+
+		setup:
+			def service=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_SUPPLIER_0ARG
+			service.init()
+
+		when:
+			def events=record({ -> ServiceRepository.reset(Stream.of(service))})
+
+		then:
+			events.collect({ event -> event.getString("operation")})==["DISPOSE","CREATE","INIT","RESET"]
+			events.find({ event -> event.getString("operation")=="RESET"}).getDuration()>=events.find({ event -> event.getString("operation")=="INIT"}).getDuration()
+
+		cleanup:
+			service.dispose()
+	}
+
+	def "Failed singleton creation should record the failure outcome"(){
+		println(">>>>> ServiceFlightRecorderSpec >>>> Failed singleton creation should record the failure outcome")
+
+		setup:
+			def service=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_4ARG
+			service.dispose()
+
+		when:
+			def events=record({ -> service.tryGet()})
+
+		then:
+			events.size()==1
+			events[0].getString("operation")=="CREATE"
+			events[0].getString("outcome")=="FAILURE"
+	}
+
+	def "Without recording no event should be started"(){
+		println(">>>>> ServiceFlightRecorderSpec >>>> Without recording no event should be started")
+
+		expect:
+			ServiceFlightRecorder.begin()==null
+	}
+}
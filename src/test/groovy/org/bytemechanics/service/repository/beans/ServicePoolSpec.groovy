@@ -0,0 +1,343 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+import java.util.concurrent.*
+
+
+/**
+ * @author afarre
+ */
+class ServicePoolSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServicePoolSpec >>>> setupSpec")
+		final InputStream inputStream = ServicePoolSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def pooled(int min,int max){
+		return DefaultServiceSupplier.builder(DummieService.class)
+										.name("POOLED")
+										.implementation(DummieServiceImpl.class)
+										.pooled(min,max)
+										.borrowTimeout(100,TimeUnit.MILLISECONDS)
+										.validator({ instance -> !instance.isClosed()})
+									.build()
+	}
+
+	def "Init of a pooled service should create the minimum instances"(){
+		println(">>>>> ServicePoolSpec >>>> Init of a pooled service should create the minimum instances")
+
+		setup:
+			def serviceSupplier=pooled(2,4)
+
+		when:
+			serviceSupplier.init()
+
+		then:
+			serviceSupplier.getPool().get().getLive()==2
+			serviceSupplier.getPool().get().getIdle()==2
+			serviceSupplier.getPool().get().getBorrowed()==0
+	}
+
+	def "Released instances should be recycled on the next borrow"(){
+		println(">>>>> ServicePoolSpec >>>> Released instances should be recycled on the next borrow")
+
+		setup:
+			def serviceSupplier=pooled(0,2)
+			def instance
+			
+		when:
+			serviceSupplier.borrow().withCloseable({ lease -> instance=lease.get()})
+			def lease=serviceSupplier.borrow()
+
+		then:
+			lease.get().is(instance)
+			serviceSupplier.getPool().get().getLive()==1
+			serviceSupplier.getPool().get().getBorrowed()==1
+
+		cleanup:
+			lease.close()
+	}
+
+	def "Borrow when all the instances are in use should fail after the borrow timeout"(){
+		println(">>>>> ServicePoolSpec >>>> Borrow when all the instances are in use should fail after the borrow timeout")
+
+		setup:
+			def serviceSupplier=pooled(0,2)
+			def leases=[serviceSupplier.borrow(),serviceSupplier.borrow()]
+
+		when:
+			serviceSupplier.borrow()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getServiceName()=="POOLED"
+			serviceSupplier.getPool().get().getLive()==2
+
+		cleanup:
+			leases.each({ lease -> lease.close()})
+	}
+
+	def "Invalid idle instances should be destroyed and replaced on borrow"(){
+		println(">>>>> ServicePoolSpec >>>> Invalid idle instances should be destroyed and replaced on borrow")
+
+		setup:
+			def serviceSupplier=pooled(0,2)
+			def lease=serviceSupplier.borrow()
+			def instance=lease.get()
+			lease.close()
+			instance.close()
+
+		when:
+			def replacement=serviceSupplier.borrow()
+
+		then:
+			!replacement.get().is(instance)
+			serviceSupplier.getPool().get().getLive()==1
+
+		cleanup:
+			replacement.close()
+	}
+
+	def "Invalid idle instances failing to be destroyed should still be replaced on borrow"(){
+		println(">>>>> ServicePoolSpec >>>> Invalid idle instances failing to be destroyed should still be replaced on borrow")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("POOLED")
+															.implementation(DummieServiceImpl.class)
+															.pooled(0,2)
+															.borrowTimeout(100,TimeUnit.MILLISECONDS)
+															.validator({ instance -> false})
+														.build()
+			def lease=serviceSupplier.borrow()
+			def instance=lease.get()
+			instance.setFailOnClose(true)
+			lease.close()
+
+		when:
+			def replacement=serviceSupplier.borrow()
+
+		then:
+			!replacement.get().is(instance)
+			!instance.isClosed()
+			serviceSupplier.getPool().get().getLive()==1
+
+		cleanup:
+			replacement?.close()
+	}
+
+	def "Get on a pooled service should raise ServiceInitializationException"(){
+		println(">>>>> ServicePoolSpec >>>> Get on a pooled service should raise ServiceInitializationException")
+
+		setup:
+			def serviceSupplier=pooled(0,2)
+
+		when:
+			serviceSupplier.get()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getServiceName()=="POOLED"
+			serviceSupplier.getPool().get().getLive()==0
+	}
+
+	def "Idle instances over the minimum should be evicted after the idle timeout"(){
+		println(">>>>> ServicePoolSpec >>>> Idle instances over the minimum should be evicted after the idle timeout")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("POOLED")
+															.implementation(DummieServiceImpl.class)
+															.pooled(1,3)
+															.idleTimeout(10,TimeUnit.MILLISECONDS)
+														.build()
+			def leases=[serviceSupplier.borrow(),serviceSupplier.borrow(),serviceSupplier.borrow()]
+			def instances=leases.collect({ lease -> lease.get()})
+
+		when:
+			leases[0].close()
+			leases[1].close()
+			Thread.sleep(50)
+			serviceSupplier.getPool().get().evict()
+
+		then:
+			serviceSupplier.getPool().get().getLive()==1
+			serviceSupplier.getPool().get().getIdle()==0
+			instances.count({ instance -> instance.isClosed()})==2
+
+		when:
+			leases[2].close()
+			Thread.sleep(50)
+			serviceSupplier.getPool().get().evict()
+
+		then:
+			serviceSupplier.getPool().get().getLive()==1
+			serviceSupplier.getPool().get().getIdle()==1
+			!instances[2].isClosed()
+	}
+
+	def "Idle instances over the minimum should be evicted periodically without any other release"(){
+		println(">>>>> ServicePoolSpec >>>> Idle instances over the minimum should be evicted periodically without any other release")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("POOLED")
+															.implementation(DummieServiceImpl.class)
+															.pooled(1,3)
+															.idleTimeout(20,TimeUnit.MILLISECONDS)
+														.build()
+			def leases=[serviceSupplier.borrow(),serviceSupplier.borrow(),serviceSupplier.borrow()]
+			def instances=leases.collect({ lease -> lease.get()})
+			leases.each({ lease -> lease.close()})
+
+		when:
+			Thread.sleep(300)
+
+		then:
+			serviceSupplier.getPool().get().getLive()==1
+			serviceSupplier.getPool().get().getIdle()==1
+			instances.count({ instance -> instance.isClosed()})==2
+	}
+
+	def "Concurrent prefill and borrow should never exceed the pool bounds"(){
+		println(">>>>> ServicePoolSpec >>>> Concurrent prefill and borrow should never exceed the pool bounds")
+
+		setup:
+			def serviceSupplier=pooled(2,2)
+			def executor=Executors.newFixedThreadPool(8)
+			def start=new CountDownLatch(1)
+
+		when:
+			def futures=(1..64).collect({ index -> executor.submit({
+																start.await()
+																if(index%2==0){
+																	serviceSupplier.init()
+																}else{
+																	try{
+																		serviceSupplier.borrow().close()
+																	}catch(ServiceInitializationException e){
+																		// borrow timeout while all instances are in use
+																	}
+																}
+															} as Callable)})
+			start.countDown()
+			futures.each({ future -> future.get()})
+
+		then:
+			serviceSupplier.getPool().get().getLive()<=2
+			serviceSupplier.getPool().get().getLive()==serviceSupplier.getPool().get().getIdle()
+			serviceSupplier.getPool().get().getBorrowed()==0
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Dispose should destroy the idle instances and the borrowed ones once released"(){
+		println(">>>>> ServicePoolSpec >>>> Dispose should destroy the idle instances and the borrowed ones once released")
+
+		setup:
+			def serviceSupplier=pooled(1,2)
+			serviceSupplier.init()
+			def borrowed=serviceSupplier.borrow()
+			def other=serviceSupplier.borrow()
+			other.close()
+
+		when:
+			serviceSupplier.dispose()
+
+		then:
+			other.isReleased()
+			serviceSupplier.getPool().get().getIdle()==0
+			!borrowed.get().isClosed()
+
+		when:
+			def instance=borrowed.get()
+			borrowed.close()
+
+		then:
+			instance.isClosed()
+			serviceSupplier.getPool().get().getLive()==0
+	}
+
+	@Unroll
+	def "Pooled service with min #min and max #max should raise ServiceInitializationException"(){
+		println(">>>>> ServicePoolSpec >>>> Pooled service with min $min and max $max should raise ServiceInitializationException")
+
+		when:
+			pooled(min,max)
+
+		then:
+			thrown(ServiceInitializationException)
+
+		where:
+			min	| max
+			-1	| 2
+			3	| 2
+	}
+
+	def "Singleton services can not be pooled"(){
+		println(">>>>> ServicePoolSpec >>>> Singleton services can not be pooled")
+
+		when:
+			DefaultServiceSupplier.builder(DummieService.class)
+										.name("POOLED")
+										.implementation(DummieServiceImpl.class)
+										.singleton(true)
+										.pooled(0,2)
+									.build()
+
+		then:
+			thrown(ServiceInitializationException)
+	}
+
+	def "Borrow on a non pooled service should lease the get instance"(){
+		println(">>>>> ServicePoolSpec >>>> Borrow on a non pooled service should lease the get instance")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("SINGLETON")
+															.implementation(DummieServiceImpl.class)
+															.singleton(true)
+														.build()
+
+		when:
+			def lease=serviceSupplier.borrow()
+			lease.close()
+
+		then:
+			lease.isReleased()
+			serviceSupplier.getInstance().is(serviceSupplier.get())
+			!serviceSupplier.getPool().isPresent()
+	}
+}
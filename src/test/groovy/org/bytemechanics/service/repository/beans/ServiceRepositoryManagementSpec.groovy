@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import java.lang.management.ManagementFactory
+import javax.management.RuntimeMBeanException
+import javax.management.openmbean.CompositeData
+import org.bytemechanics.service.repository.mocks.DummieServiceRepository
+import spock.lang.Specification
+import java.util.logging.*
+
+
+/**
+ * @author afarre
+ */
+class ServiceRepositoryManagementSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> setupSpec")
+		final InputStream inputStream = ServiceRepositoryManagementSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def server=ManagementFactory.getPlatformMBeanServer()
+	def objectName
+
+	def setup(){
+		DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.dispose()
+		objectName=ServiceRepositoryManagement.register(DummieServiceRepository.class)
+	}
+	def cleanup(){
+		ServiceRepositoryManagement.unregister(DummieServiceRepository.class)
+		DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.dispose()
+	}
+
+	def "Register should publish the repository bean in the platform server"(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> Register should publish the repository bean in the platform server")
+
+		expect:
+			objectName.toString()=="org.bytemechanics.service.repository:type=ServiceRepository,name=org.bytemechanics.service.repository.mocks.DummieServiceRepository"
+			server.isRegistered(objectName)
+			server.getAttribute(objectName,"Repository")==DummieServiceRepository.class.getName()
+	}
+
+	def "Services attribute should list all the services with its current state"(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> Services attribute should list all the services with its current state")
+
+		setup:
+			def before=System.currentTimeMillis()
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.get()
+
+		when:
+			CompositeData[] services=server.getAttribute(objectName,"Services")
+			def singleton=services.find({ service -> service.get("name")=="SINGLETON_DUMMIE_SERVICE_0ARG"})
+			def prototype=services.find({ service -> service.get("name")=="DUMMIE_SERVICE_0ARG"})
+
+		then:
+			services.collect({ service -> service.get("name")})==DummieServiceRepository.values().collect({ service -> service.name()})
+			singleton.get("adapter")=="org.bytemechanics.service.repository.mocks.DummieService"
+			singleton.get("singleton")==true
+			singleton.get("live")==true
+			singleton.get("creationTimestamp")>=before
+			singleton.get("creationTime")>=0
+			prototype.get("singleton")==false
+			prototype.get("live")==false
+			prototype.get("creationTimestamp")==0
+			(server.getAttribute(objectName,"LiveServices") as List).contains("SINGLETON_DUMMIE_SERVICE_0ARG")
+	}
+
+	def "Lifecycle operations should init, reset and dispose the service"(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> Lifecycle operations should init, reset and dispose the service")
+
+		setup:
+			def signature=[String.class.getName()] as String[]
+			def service=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG
+
+		when:
+			server.invoke(objectName,"init",["SINGLETON_DUMMIE_SERVICE_0ARG"] as Object[],signature)
+			def initialized=service.getServiceSupplier().getInstance()
+			server.invoke(objectName,"reset",["SINGLETON_DUMMIE_SERVICE_0ARG"] as Object[],signature)
+			def recycled=service.getServiceSupplier().getInstance()
+			server.invoke(objectName,"dispose",["SINGLETON_DUMMIE_SERVICE_0ARG"] as Object[],signature)
+
+		then:
+			initialized!=null
+			recycled!=null
+			!recycled.is(initialized)
+			service.getServiceSupplier().getInstance()==null
+	}
+
+	def "Operations over unknown or failing services should be reported with standard exceptions"(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> Operations over unknown or failing services should be reported with standard exceptions on $service")
+
+		when:
+			server.invoke(objectName,"init",[service] as Object[],[String.class.getName()] as String[])
+
+		then:
+			def e=thrown(RuntimeMBeanException)
+			e.getCause().getClass()==expected
+
+		where:
+			service								| expected
+			"UNKNOWN"							| IllegalArgumentException.class
+			"SINGLETON_DUMMIE_SERVICE_4ARG"		| IllegalStateException.class
+	}
+
+	def "Unregister should remove the repository bean"(){
+		println(">>>>> ServiceRepositoryManagementSpec >>>> Unregister should remove the repository bean")
+
+		when:
+			def reply=ServiceRepositoryManagement.unregister(DummieServiceRepository.class)
+
+		then:
+			reply
+			!server.isRegistered(objectName)
+			!ServiceRepositoryManagement.unregister(DummieServiceRepository.class)
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceDisposeException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import org.bytemechanics.service.repository.mocks.DummieServiceRepository
+import spock.lang.Specification
+import java.util.logging.*
+import java.util.concurrent.*
+
+/**
+ * @author afarre
+ */
+class ServiceScopeSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ServiceScopeSpec >>>> setupSpec")
+		final InputStream inputStream = ServiceScopeSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def "Prototype services resolved through a scope should be created once per scope and disposed when the scope closes"(){
+		println(">>>>> ServiceScopeSpec >>>> Prototype services resolved through a scope should be created once per scope and disposed when the scope closes")
+
+		setup:
+			def scope=ServiceScope.open("request")
+			def other=ServiceScope.open("other")
+
+		when:
+			def first=DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(DummieService.class,scope)
+			def second=DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(DummieService.class,scope)
+			def third=DummieServiceRepository.DUMMIE_SERVICE_1ARG.get(DummieService.class,scope)
+			def foreign=DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(DummieService.class,other)
+
+		then:
+			first.is(second)
+			!first.is(foreign)
+			third.getArg1()=="1arg-arg1"
+			scope.size()==2
+
+		when:
+			scope.close()
+
+		then:
+			scope.isClosed()
+			scope.size()==0
+			first.isClosed()
+			third.isClosed()
+			!foreign.isClosed()
+
+		cleanup:
+			other.close()
+	}
+
+	def "Singleton services resolved through a scope should be shared and not disposed by the scope"(){
+		println(">>>>> ServiceScopeSpec >>>> Singleton services resolved through a scope should be shared and not disposed by the scope")
+
+		setup:
+			def scope=ServiceScope.open()
+
+		when:
+			def instance=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.get(DummieService.class,scope)
+			scope.close()
+
+		then:
+			instance.is(DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.get())
+			!instance.isClosed()
+			scope.getName().startsWith("scope-")
+
+		cleanup:
+			DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_0ARG.dispose()
+	}
+
+	def "Pooled services resolved through a scope should be borrowed once and released when the scope closes"(){
+		println(">>>>> ServiceScopeSpec >>>> Pooled services resolved through a scope should be borrowed once and released when the scope closes")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("SCOPE_POOLED")
+															.supplier({ -> new DummieServiceImpl()})
+															.pooled(0,1)
+															.borrowTimeout(0,TimeUnit.MILLISECONDS)
+														.build()
+			def service={ -> serviceSupplier} as org.bytemechanics.service.repository.ServiceRepository
+			def scope=ServiceScope.open("pooled")
+
+		when:
+			def first=scope.get(service)
+			def second=scope.get(service)
+			scope.close()
+			def lease=serviceSupplier.borrow()
+
+		then:
+			first.is(second)
+			lease.get().is(first)
+
+		cleanup:
+			lease?.release()
+			serviceSupplier.dispose()
+	}
+
+	def "Concurrent first lookups through a scope should create a single instance"(){
+		println(">>>>> ServiceScopeSpec >>>> Concurrent first lookups through a scope should create a single instance")
+
+		setup:
+			def scope=ServiceScope.open("concurrent")
+			def executor=Executors.newFixedThreadPool(8)
+			def start=new CountDownLatch(1)
+
+		when:
+			def futures=(1..64).collect({ executor.submit({ -> start.await(); DummieServiceRepository.DUMMIE_SERVICE_SUPPLIER_0ARG.get(scope)} as Callable)})
+			start.countDown()
+			def instances=futures.collect({ future -> future.get()}).unique({ instance -> System.identityHashCode(instance)})
+
+		then:
+			instances.size()==1
+			scope.size()==1
+
+		cleanup:
+			executor.shutdown()
+			scope.close()
+	}
+
+	def "Closing a scope should close its child scopes first and keep disposing when some dispose fails"(){
+		println(">>>>> ServiceScopeSpec >>>> Closing a scope should close its child scopes first and keep disposing when some dispose fails")
+
+		setup:
+			def scope=ServiceScope.open("session")
+			def child=scope.openChild("request")
+			def parentInstance=DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(DummieService.class,scope)
+			def failingInstance=DummieServiceRepository.DUMMIE_SERVICE_1ARG.get(DummieService.class,scope)
+			def childInstance=DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(DummieService.class,child)
+			failingInstance.setFailOnClose(true)
+
+		when:
+			scope.close()
+
+		then:
+			def e=thrown(ServiceDisposeException)
+			e.getServiceName()=="DUMMIE_SERVICE_1ARG"
+			child.isClosed()
+			child.getParent().get().is(scope)
+			childInstance.isClosed()
+			parentInstance.isClosed()
+			!failingInstance.isClosed()
+
+		when:
+			scope.close()
+
+		then:
+			noExceptionThrown()
+	}
+
+	def "Closed scopes should reject lookups and child scopes"(){
+		println(">>>>> ServiceScopeSpec >>>> Closed scopes should reject lookups and child scopes")
+
+		setup:
+			def scope=ServiceScope.open("closed")
+			scope.close()
+
+		when:
+			DummieServiceRepository.DUMMIE_SERVICE_0ARG.get(scope)
+
+		then:
+			def e=thrown(IllegalStateException)
+			e.getMessage()=="Scope closed already closed"
+
+		when:
+			scope.openChild("child")
+
+		then:
+			thrown(IllegalStateException)
+	}
+}
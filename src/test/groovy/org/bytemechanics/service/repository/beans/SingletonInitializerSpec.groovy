@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import java.util.logging.*
+import java.util.concurrent.*
+import java.util.concurrent.atomic.*
+
+
+/**
+ * @author afarre
+ */
+class SingletonInitializerSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> SingletonInitializerSpec >>>> setupSpec")
+		final InputStream inputStream = SingletonInitializerSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def singleton(AtomicInteger counter,Closure body){
+		return DefaultServiceSupplier.builder(DummieService.class)
+										.name("SINGLETON")
+										.singleton(true)
+										.supplier({ -> counter.incrementAndGet(); Thread.sleep(200); body()})
+									.build()
+	}
+
+	def "Concurrent get over a cold singleton should construct it only once"(){
+		println(">>>>> SingletonInitializerSpec >>>> Concurrent get over a cold singleton should construct it only once")
+
+		setup:
+			def counter=new AtomicInteger()
+			def serviceSupplier=singleton(counter,{ -> new DummieServiceImpl()})
+			def executor=Executors.newFixedThreadPool(8)
+
+		when:
+			def futures=(1..8).collect({ i -> executor.submit({ -> serviceSupplier.get()} as Callable)})
+			def instances=futures.collect({ future -> future.get()})
+
+		then:
+			counter.get()==1
+			instances.every({ instance -> instance.is(instances[0])})
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Concurrent waiters of a failing singleton should receive the first caller exception without retrying the constructor"(){
+		println(">>>>> SingletonInitializerSpec >>>> Concurrent waiters of a failing singleton should receive the first caller exception without retrying the constructor")
+
+		setup:
+			def counter=new AtomicInteger()
+			def serviceSupplier=singleton(counter,{ -> throw new ServiceInitializationException("SINGLETON","force failure")})
+			def executor=Executors.newFixedThreadPool(8)
+
+		when:
+			def futures=(1..8).collect({ i -> executor.submit({ -> try{ serviceSupplier.get() }catch(ServiceInitializationException e){ e }} as Callable)})
+			def failures=futures.collect({ future -> future.get()})
+
+		then:
+			counter.get()==1
+			failures.every({ failure -> failure.is(failures[0])})
+			serviceSupplier.getInstance()==null
+
+		when:
+			serviceSupplier.tryGet()
+
+		then:
+			counter.get()==2
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Singleton supplier returning null should be called once by each get and the concurrent waiters should receive null"(){
+		println(">>>>> SingletonInitializerSpec >>>> Singleton supplier returning null should be called once by each get and the concurrent waiters should receive null")
+
+		setup:
+			def counter=new AtomicInteger()
+			def serviceSupplier=singleton(counter,{ -> null})
+			def executor=Executors.newFixedThreadPool(8)
+
+		when:
+			def futures=(1..8).collect({ i -> executor.submit({ -> serviceSupplier.get()} as Callable)})
+			def instances=futures.collect({ future -> future.get(5,TimeUnit.SECONDS)})
+
+		then:
+			counter.get()==1
+			instances.every({ instance -> instance==null})
+			serviceSupplier.getInstance()==null
+
+		when:
+			def instance=serviceSupplier.get()
+
+		then:
+			instance==null
+			counter.get()==2
+
+		when:
+			def async=serviceSupplier.getInitializer().initializeAsync(serviceSupplier,executor).get(5,TimeUnit.SECONDS)
+
+		then:
+			async==null
+			counter.get()==3
+
+		cleanup:
+			executor.shutdown()
+	}
+
+	def "Singleton construction that requires itself should raise ServiceInitializationException"(){
+		println(">>>>> SingletonInitializerSpec >>>> Singleton construction that requires itself should raise ServiceInitializationException")
+
+		setup:
+			def serviceSupplier
+			serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("RECURSIVE")
+															.singleton(true)
+															.supplier({ -> serviceSupplier.get()})
+														.build()
+
+		when:
+			serviceSupplier.get()
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getServiceName()=="RECURSIVE"
+	}
+
+	def "Dispose should wait for the in-flight initialization and dispose the created instance"(){
+		println(">>>>> SingletonInitializerSpec >>>> Dispose should wait for the in-flight initialization and dispose the created instance")
+
+		setup:
+			def counter=new AtomicInteger()
+			def serviceSupplier=singleton(counter,{ -> new DummieServiceImpl()})
+			def executor=Executors.newSingleThreadExecutor()
+			def future=executor.submit({ -> serviceSupplier.get()} as Callable)
+			Thread.sleep(50)
+
+		when:
+			serviceSupplier.dispose()
+
+		then:
+			future.get().isClosed()
+			serviceSupplier.getInstance()==null
+
+		cleanup:
+			executor.shutdown()
+	}
+}
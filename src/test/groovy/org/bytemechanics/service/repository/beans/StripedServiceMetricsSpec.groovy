@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import org.bytemechanics.service.repository.mocks.DummieServiceRepository
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+import java.util.concurrent.*
+
+
+/**
+ * @author afarre
+ */
+class StripedServiceMetricsSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> StripedServiceMetricsSpec >>>> setupSpec")
+		final InputStream inputStream = StripedServiceMetricsSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+	
+	def cleanup(){
+		ServiceMetricsRegistry.unregister()
+	}
+
+	def "Registered metrics should count the prototype lookups and instantiations"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Registered metrics should count the prototype lookups and instantiations")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			ServiceMetricsRegistry.register(metrics)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("METRICS_PROTOTYPE")
+															.supplier({ -> new DummieServiceImpl()})
+														.build()
+
+		when:
+			(1..10).each({ i -> serviceSupplier.get()})
+			def statistics=metrics.getStatistics("METRICS_PROTOTYPE").get()
+
+		then:
+			statistics.getGets()==10
+			statistics.getInstantiations()==10
+			statistics.getInstantiationHistogram().sum()==10
+			statistics.getInstantiationPercentile(99)>0
+			statistics.getInstantiationTime(TimeUnit.NANOSECONDS)>0
+	}
+
+	def "Registered metrics should count the singleton lookups but only one instantiation"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Registered metrics should count the singleton lookups but only one instantiation")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			ServiceMetricsRegistry.register(metrics)
+			def serviceSupplier=DefaultServiceSupplier.builder(DummieService.class)
+															.name("METRICS_SINGLETON")
+															.singleton(true)
+															.supplier({ -> new DummieServiceImpl()})
+														.build()
+
+		when:
+			(1..5).each({ i -> serviceSupplier.get()})
+			(1..5).each({ i -> serviceSupplier.tryGet()})
+			def statistics=metrics.getStatistics("METRICS_SINGLETON").get()
+
+		then:
+			statistics.getGets()==10
+			statistics.getInstantiations()==1
+			statistics.getTryGetFailures()==0
+	}
+
+	def "Registered metrics should count the tryGet failures"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Registered metrics should count the tryGet failures")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			ServiceMetricsRegistry.register(metrics)
+
+		when:
+			def result=DummieServiceRepository.DUMMIE_SERVICE_4ARG.tryGet()
+			def statistics=metrics.getStatistics("DUMMIE_SERVICE_4ARG").get()
+
+		then:
+			!result.isPresent()
+			statistics.getTryGetFailures()==1
+			statistics.getInstantiations()==0
+	}
+
+	def "Registered metrics should record the init and dispose durations"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Registered metrics should record the init and dispose durations")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			ServiceMetricsRegistry.register(metrics)
+			def service=DummieServiceRepository.SINGLETON_DUMMIE_SERVICE_SUPPLIER_1ARG
+
+		when:
+			service.init()
+			service.dispose()
+			def statistics=metrics.getStatistics(service.name()).get()
+
+		then:
+			statistics.getInits()==1
+			statistics.getInitFailures()==0
+			statistics.getDisposes()==1
+			statistics.getDisposeFailures()==0
+			statistics.getInitTime(TimeUnit.NANOSECONDS)>0
+			statistics.getDisposeTime(TimeUnit.NANOSECONDS)>0
+	}
+
+	def "Without registered metrics nothing should be recorded"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Without registered metrics nothing should be recorded")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			ServiceMetricsRegistry.register(metrics)
+			ServiceMetricsRegistry.unregister()
+
+		when:
+			DummieServiceRepository.DUMMIE_SERVICE_SUPPLIER_0ARG.get()
+
+		then:
+			ServiceMetricsRegistry.get()==null
+			metrics.getStatistics().isEmpty()
+	}
+
+	@Unroll
+	def "Instantiation percentile #percentile of #durations should be #expected"(){
+		println(">>>>> StripedServiceMetricsSpec >>>> Instantiation percentile $percentile of $durations should be $expected")
+
+		setup:
+			def metrics=new StripedServiceMetrics()
+			durations.each({ duration -> metrics.onInstantiation("PERCENTILE",duration)})
+
+		when:
+			def reply=metrics.getStatistics("PERCENTILE").get().getInstantiationPercentile(percentile)
+
+		then:
+			reply==expected
+
+		where:
+			durations					| percentile	| expected
+			[100,100,100,100]			| 50			| 128
+			[100,100,100,5000]			| 50			| 128
+			[100,100,100,5000]			| 100			| 8192
+			[1000]						| 0				| 1024
+	}
+}
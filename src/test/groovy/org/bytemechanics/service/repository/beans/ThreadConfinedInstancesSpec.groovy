@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.beans
+
+import org.bytemechanics.service.repository.exceptions.ServiceInitializationException
+import org.bytemechanics.service.repository.mocks.DummieService
+import org.bytemechanics.service.repository.mocks.DummieServiceImpl
+import spock.lang.Specification
+import java.util.logging.*
+import java.util.concurrent.*
+
+
+/**
+ * @author afarre
+ */
+class ThreadConfinedInstancesSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> ThreadConfinedInstancesSpec >>>> setupSpec")
+		final InputStream inputStream = ThreadConfinedInstancesSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+
+	def threadConfined(){
+		return DefaultServiceSupplier.builder(DummieService.class)
+										.name("THREAD_CONFINED")
+										.implementation(DummieServiceImpl.class)
+										.threadConfined(true)
+									.build()
+	}
+
+	def "Thread-confined service should reuse the instance within the same thread and create a different one for each thread"(){
+		println(">>>>> ThreadConfinedInstancesSpec >>>> Thread-confined service should reuse the instance within the same thread and create a different one for each thread")
+
+		setup:
+			def serviceSupplier=threadConfined()
+			def executor=Executors.newSingleThreadExecutor()
+
+		when:
+			def instance=serviceSupplier.get()
+			def other1=executor.submit({ -> serviceSupplier.get()} as Callable).get()
+			def other2=executor.submit({ -> serviceSupplier.get()} as Callable).get()
+
+		then:
+			serviceSupplier.isThreadConfined()
+			serviceSupplier.get().is(instance)
+			other1.is(other2)
+			!other1.is(instance)
+			serviceSupplier.getThreadInstances().get().getLive()==2
+
+		cleanup:
+			serviceSupplier.dispose()
+			executor.shutdown()
+	}
+
+	def "Dispose should close the live instances of all threads"(){
+		println(">>>>> ThreadConfinedInstancesSpec >>>> Dispose should close the live instances of all threads")
+
+		setup:
+			def serviceSupplier=threadConfined()
+			def executor=Executors.newFixedThreadPool(2)
+			def instances=[serviceSupplier.get(),executor.submit({ -> serviceSupplier.get()} as Callable).get()]
+
+		when:
+			serviceSupplier.dispose()
+
+		then:
+			instances.every({ instance -> instance.isClosed()})
+			serviceSupplier.getThreadInstances().get().getLive()==0
+			!serviceSupplier.get().is(instances[0])
+
+		cleanup:
+			serviceSupplier.dispose()
+			executor.shutdown()
+	}
+
+	def "Purge should close the instances of the terminated threads"(){
+		println(">>>>> ThreadConfinedInstancesSpec >>>> Purge should close the instances of the terminated threads")
+
+		setup:
+			def serviceSupplier=threadConfined()
+			def instance
+			def thread=new Thread({ -> instance=serviceSupplier.get()})
+			thread.start()
+			thread.join()
+
+		when:
+			serviceSupplier.getThreadInstances().get().purge()
+
+		then:
+			instance.isClosed()
+			serviceSupplier.getThreadInstances().get().getLive()==0
+	}
+
+	def "Thread-confined services can not be singleton"(){
+		println(">>>>> ThreadConfinedInstancesSpec >>>> Thread-confined services can not be singleton")
+
+		when:
+			DefaultServiceSupplier.builder(DummieService.class)
+										.name("THREAD_CONFINED")
+										.implementation(DummieServiceImpl.class)
+										.singleton(true)
+										.threadConfined(true)
+									.build()
+
+		then:
+			thrown(ServiceInitializationException)
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.bytemechanics.service.repository.exceptions
+
+import org.bytemechanics.service.repository.ServiceSupplier
+import org.bytemechanics.service.repository.beans.DefaultServiceSupplier
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.util.logging.*
+
+/**
+ * @author afarre
+ */
+class LightweightExceptionsSpec extends Specification{
+	
+	def setupSpec(){
+		println(">>>>> LightweightExceptionsSpec >>>> setupSpec")
+		final InputStream inputStream = LightweightExceptionsSpec.class.getResourceAsStream("/logging.properties");
+		try{
+			LogManager.getLogManager().readConfiguration(inputStream);
+		}catch (final IOException e){
+			Logger.getAnonymousLogger().severe("Could not load default logging.properties file");
+			Logger.getAnonymousLogger().severe(e.getMessage());
+		}finally{
+			if(inputStream!=null)
+				inputStream.close();
+		}
+	}
+	
+	def cleanup(){
+		LightweightExceptions.clear()
+	}
+
+	@Unroll
+	def "#exception.class.simpleName created with lightweight mode [#enabled] should have stack trace [#trace] and keep the service name, message and cause"(){
+		println(">>>>> LightweightExceptionsSpec >>>> ${exception.getClass().getSimpleName()} created with lightweight mode [$enabled] should have stack trace [$trace] and keep the service name, message and cause")
+
+		expect:
+			(exception.getStackTrace().length>0)==trace
+			exception.getServiceName()=="LIGHT"
+			exception.getMessage()==message
+			exception.toString()==exception.getClass().getName()+": "+message
+			exception.getCause()?.getMessage()==cause
+
+		where:
+			enabled	| exception
+			false	| new ServiceInitializationException("LIGHT","failure",new IllegalStateException("root"))
+			false	| new ServiceDisposeException("LIGHT","failure",null)
+			false	| new UnableToSetInstanceException("LIGHT","instance",Runnable.class)
+			true	| enable({ -> new ServiceInitializationException("LIGHT","failure",new IllegalStateException("root"))})
+			true	| enable({ -> new ServiceDisposeException("LIGHT","failure",null)})
+			true	| enable({ -> new UnableToSetInstanceException("LIGHT","instance",Runnable.class)})
+			
+			trace=!enabled
+			message=(exception instanceof ServiceInitializationException)? "Service LIGHT can not be initialized properly: failure" : (exception instanceof ServiceDisposeException)? "Service LIGHT can not be disposed properly: failure" : "Unable to set instance instance that doesn't implement the required adapter interface java.lang.Runnable"
+			cause=(exception instanceof ServiceInitializationException)? "root" : null
+	}
+
+	def "Lightweight and regular initialization exceptions should be equals"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Lightweight and regular initialization exceptions should be equals")
+
+		setup:
+			def regular=new ServiceInitializationException("LIGHT","failure")
+			def lightweight=new ServiceInitializationException("LIGHT","failure",null,true)
+
+		expect:
+			lightweight.getStackTrace().length==0
+			regular.getStackTrace().length>0
+			lightweight==regular
+			lightweight.hashCode()==regular.hashCode()
+	}
+
+	def "Lightweight mode enabled for a service supplier should not affect the others unless enabled globally"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Lightweight mode enabled for a service supplier should not affect the others unless enabled globally")
+
+		setup:
+			def light=DefaultServiceSupplier.builder(Runnable.class)
+												.name("LIGHT")
+												.supplier({ -> { -> } as Runnable})
+												.lightweightExceptions(true)
+											.build()
+			def other=DefaultServiceSupplier.builder(Runnable.class)
+												.name("LIGHT")
+												.supplier({ -> { -> } as Runnable})
+											.build()
+
+		expect:
+			LightweightExceptions.isEnabled(light)
+			!LightweightExceptions.isEnabled(other)
+			!LightweightExceptions.isEnabled((ServiceSupplier)null)
+			new ServiceInitializationException("LIGHT","failure").getStackTrace().length>0
+
+		when:
+			LightweightExceptions.setEnabled(true)
+
+		then:
+			LightweightExceptions.isEnabled(other)
+			LightweightExceptions.isEnabled((ServiceSupplier)null)
+			new ServiceInitializationException("OTHER","failure").getStackTrace().length==0
+			new UnableToSetInstanceException("instance",Runnable.class).getStackTrace().length==0
+	}
+
+	def "Lightweight initialization exception built from format should format the message only when requested"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Lightweight initialization exception built from format should format the message only when requested")
+
+		setup:
+			def formatted=0
+			def argument=new Object(){
+				@Override
+				String toString(){
+					formatted++
+					return "argument"
+				}
+			}
+
+		when:
+			def exception=new ServiceInitializationException("LIGHT",null,true,"failure with {}",argument)
+
+		then:
+			formatted==0
+			exception.getStackTrace().length==0
+			exception.getMessage()=="Service LIGHT can not be initialized properly: failure with argument"
+			exception.getMessage()=="Service LIGHT can not be initialized properly: failure with argument"
+			formatted==1
+			exception==new ServiceInitializationException("LIGHT","failure with argument")
+	}
+
+	def "Lightweight exceptions should keep the formatted message and suppressed exceptions once serialized"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Lightweight exceptions should keep the formatted message and suppressed exceptions once serialized")
+
+		setup:
+			LightweightExceptions.setEnabled(true)
+			def exception=new ServiceDisposeException("LIGHT","failure",new IllegalStateException("root"))
+			exception.addSuppressed(new IllegalArgumentException("suppressed"))
+			def output=new ByteArrayOutputStream()
+			def stream=new ObjectOutputStream(output)
+			stream.writeObject(exception)
+			stream.close()
+
+		when:
+			def reply=new ObjectInputStream(new ByteArrayInputStream(output.toByteArray())).readObject()
+
+		then:
+			reply.getMessage()=="Service LIGHT can not be disposed properly: failure"
+			reply.getServiceName()=="LIGHT"
+			reply.getCause().getMessage()=="root"
+			reply.getSuppressed()*.getMessage()==["suppressed"]
+	}
+
+	def "Service supplier built with lightweight exceptions should raise them without stack trace"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Service supplier built with lightweight exceptions should raise them without stack trace")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(Runnable.class)
+															.name("LIGHT_SUPPLIER")
+															.singleton(true)
+															.supplier({ -> { -> } as Runnable})
+															.lightweightExceptions(true)
+														.build()
+
+		when:
+			serviceSupplier.setInstance("instance")
+
+		then:
+			def e=thrown(UnableToSetInstanceException)
+			e.getServiceName()=="LIGHT_SUPPLIER"
+			e.getStackTrace().length==0
+			serviceSupplier.isLightweightExceptions()
+			!LightweightExceptions.isEnabled()
+	}
+
+	def "Service supplier built with lightweight exceptions should raise the instantiation failures without stack trace"(){
+		println(">>>>> LightweightExceptionsSpec >>>> Service supplier built with lightweight exceptions should raise the instantiation failures without stack trace")
+
+		setup:
+			def serviceSupplier=DefaultServiceSupplier.builder(Runnable.class)
+															.name("LIGHT_SUPPLIER")
+															.implementation(Thread.class)
+															.lightweightExceptions(true)
+														.build()
+
+		when:
+			serviceSupplier.get(new Object())
+
+		then:
+			def e=thrown(ServiceInitializationException)
+			e.getServiceName()=="LIGHT_SUPPLIER"
+			e.getStackTrace().length==0
+			e.getMessage().startsWith("Service LIGHT_SUPPLIER can not be initialized properly: Unable to instantiate service with class class java.lang.Thread")
+	}
+
+	private static Exception enable(final Closure _factory){
+		LightweightExceptions.setEnabled(true)
+		try{
+			return _factory.call()
+		}finally{
+			LightweightExceptions.clear()
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.mocks;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ * Measures the bytes allocated by the current thread on each service lookup, the loop must be written in java to avoid the groovy dispatch allocations
+ * @author afarre
+ */
+public final class AllocationMeter {
+
+	public static enum Call{
+		GET,
+		GET_CLASS,
+		TRY_GET,
+		TRY_GET_CLASS,
+	}
+	
+	private static volatile int sink;
+
+	
+	public static boolean isSupported(){
+		final java.lang.management.ThreadMXBean bean=ManagementFactory.getThreadMXBean();
+		return (bean instanceof com.sun.management.ThreadMXBean)
+				&&(((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported())
+				&&(((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemoryEnabled());
+	}
+	
+	public static <T> Supplier<T> constant(final T _instance){
+		return () -> _instance;
+	}
+	
+	public static ServiceRepository repository(final ServiceSupplier _serviceSupplier){
+		return () -> _serviceSupplier;
+	}
+	
+	public static long bytesPerCall(final ServiceRepository _service,final Call _call,final int _iterations){
+		
+		final com.sun.management.ThreadMXBean bean=(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		final long thread=Thread.currentThread().getId();
+		
+		loop(_service, _call, _iterations);
+		bean.getThreadAllocatedBytes(thread);
+		final long before=bean.getThreadAllocatedBytes(thread);
+		loop(_service, _call, _iterations);
+		final long after=bean.getThreadAllocatedBytes(thread);
+		
+		return (after-before)/_iterations;
+	}
+
+	private static void loop(final ServiceRepository _service,final Call _call,final int _iterations){
+
+		int hash=0;
+		
+		for(int ic1=0;ic1<_iterations;ic1++){
+			switch(_call){
+				case GET:
+					hash^=System.identityHashCode(_service.get());
+					break;
+				case GET_CLASS:
+					hash^=System.identityHashCode(_service.get(DummieService.class));
+					break;
+				case TRY_GET:
+					hash^=System.identityHashCode(_service.tryGet().orElse(null));
+					break;
+				case TRY_GET_CLASS:
+					hash^=System.identityHashCode(_service.tryGet(DummieService.class).orElse(null));
+					break;
+			}
+		}
+		sink=hash;
+	}
+}
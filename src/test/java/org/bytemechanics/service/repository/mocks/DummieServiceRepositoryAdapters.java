@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.mocks;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ *
+ * @author afarre
+ */
+public enum DummieServiceRepositoryAdapters implements ServiceRepository {
+
+	RUNNABLE(Runnable.class,false,() -> (Runnable)() -> {}),
+	CALLABLE(Callable.class,true,() -> (Callable<String>)() -> "CALLABLE"),
+	SUPPLIER_A(Supplier.class,true,() -> (Supplier<String>)() -> "SUPPLIER_A"),
+	SUPPLIER_B(Supplier.class,true,() -> (Supplier<String>)() -> "SUPPLIER_B"),
+	;
+
+	private final ServiceSupplier serviceSupplier;	
+		
+	
+	<T> DummieServiceRepositoryAdapters(final Class<T> _adapter,final boolean _singleton,final Supplier<? extends T> _implementationSupplier){
+		this.serviceSupplier=ServiceSupplier.builder(_adapter)
+												.name(name())
+												.singleton(_singleton)
+												.supplier(_implementationSupplier)
+											.build();
+	}
+		
+	@Override
+	public ServiceSupplier getServiceSupplier() {
+		return this.serviceSupplier;
+	}
+}
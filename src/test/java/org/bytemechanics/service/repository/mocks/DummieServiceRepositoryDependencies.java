@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Byte Mechanics.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.bytemechanics.service.repository.mocks;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.bytemechanics.service.repository.ServiceRepository;
+import org.bytemechanics.service.repository.ServiceSupplier;
+
+/**
+ *
+ * @author afarre
+ */
+public enum DummieServiceRepositoryDependencies implements ServiceRepository {
+
+	DATASOURCE(() -> new DummieServiceImpl("DATASOURCE")),
+	CACHE(() -> new DummieServiceImpl("CACHE")),
+	REPOSITORY(() -> new DummieServiceImpl("REPOSITORY"),"DATASOURCE","CACHE"),
+	SERVICE(() -> new DummieServiceImpl("SERVICE"),"REPOSITORY"),
+	INDEPENDENT(() -> new DummieServiceImpl("INDEPENDENT")),
+	FAILING(() -> new DummieServiceImpl("FAILING",1,true,"")),
+	FAILING_DEPENDANT(() -> new DummieServiceImpl("FAILING_DEPENDANT"),"FAILING"),
+	CYCLE_A(() -> new DummieServiceImpl("CYCLE_A"),"CYCLE_C"),
+	CYCLE_B(() -> new DummieServiceImpl("CYCLE_B"),"CYCLE_A"),
+	CYCLE_C(() -> new DummieServiceImpl("CYCLE_C"),"CYCLE_B"),
+	UNKNOWN_DEPENDANT(() -> new DummieServiceImpl("UNKNOWN_DEPENDANT"),"UNKNOWN"),
+	SLOW_CLOSE(() -> new DummieServiceImpl("SLOW_CLOSE"),instance -> sleep(2000)),
+	SLOW_CLOSE_DEPENDANT(() -> new DummieServiceImpl("SLOW_CLOSE_DEPENDANT"),instance -> sleep(2000),"INDEPENDENT"),
+	;
+
+	private final ServiceSupplier serviceSupplier;	
+		
+	
+	DummieServiceRepositoryDependencies(final Supplier<? extends DummieService> _implementationSupplier,final String... _dependencies){
+		this(_implementationSupplier,null,_dependencies);
+	}
+	DummieServiceRepositoryDependencies(final Supplier<? extends DummieService> _implementationSupplier,final Consumer<? extends DummieService> _disposeConsumer,final String... _dependencies){
+		this.serviceSupplier=ServiceSupplier.builder(DummieService.class)
+												.name(name())
+												.singleton(true)
+												.supplier(_implementationSupplier)
+												.disposeConsumer(_disposeConsumer)
+												.dependsOn(_dependencies)
+											.build();
+	}
+	
+	private static void sleep(final long _millis){
+		try {
+			Thread.sleep(_millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+		
+	@Override
+	public ServiceSupplier getServiceSupplier() {
+		return this.serviceSupplier;
+	}
+}